@@ -1,10 +1,18 @@
 // Archivo principal
 package com.aluracursos.LiterAlura;
 
+import com.aluracursos.LiterAlura.configuracion.LotePropiedades;
+import com.aluracursos.LiterAlura.menuUsuario.LoteComandos;
 import com.aluracursos.LiterAlura.menuUsuario.Menu;
+import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
 
 // Clase principal que inicia la aplicación Spring Boot
 // @SpringBootApplication combina @Configuration, @EnableAutoConfiguration y @ComponentScan
@@ -12,9 +20,21 @@ import org.springframework.context.ApplicationContext;
 @SpringBootApplication
 public class LiterAluraAplicacion {
 	public static void main(String[] args) {
+		// Modo por lotes: --literalura.lote.archivo=comandos.txt (o "-" para la entrada estándar)
+		if (modoLote(args)) {
+			ejecutarLote(args);
+			return;
+		}
+
 		// Inicia el contexto de Spring y obtiene el contenedor de beans
 		ApplicationContext context = SpringApplication.run(LiterAluraAplicacion.class, args);
 
+		// Con servidor web (perfil servidor) la aplicación atiende la API HTTP en lugar de mostrar el menú
+		if (context instanceof WebServerApplicationContext servidor) {
+			System.out.println("API del catálogo en http://localhost:" + servidor.getWebServer().getPort() + "/api");
+			return;
+		}
+
 		// Muestra mensaje de inicio
 		System.out.println("Aplicación iniciada. Mostrando el menú...");
 
@@ -22,4 +42,25 @@ public class LiterAluraAplicacion {
 		Menu menu = context.getBean(Menu.class);
 		menu.mostrarMenu();
 	}
-}
\ No newline at end of file
+
+	private static boolean modoLote(String[] args) {
+		String opcion = "--" + LotePropiedades.PREFIJO + ".archivo=";
+		return Arrays.stream(args).anyMatch(arg -> arg.startsWith(opcion) && arg.length() > opcion.length());
+	}
+
+	// Con el perfil de arranque rápido (application-rapido.properties), sin servidor web ni ranking en segundo plano,
+	// y con el log en la salida de errores para que la salida estándar solo tenga los resultados;
+	// el proceso termina con el código del lote
+	private static void ejecutarLote(String[] args) {
+		SpringApplication aplicacion = new SpringApplication(LiterAluraAplicacion.class);
+		aplicacion.setWebApplicationType(WebApplicationType.NONE);
+		aplicacion.setBannerMode(Banner.Mode.OFF);
+		aplicacion.setAdditionalProfiles("rapido");
+		String[] argumentos = Arrays.copyOf(args, args.length + 2);
+		argumentos[args.length] = "--literalura.ranking.actualizar=false";
+		argumentos[args.length + 1] = "--literalura.log.destino=System.err";
+		ConfigurableApplicationContext context = aplicacion.run(argumentos);
+		int codigo = context.getBean(LoteComandos.class).ejecutar();
+		System.exit(SpringApplication.exit(context, () -> codigo));
+	}
+}
@@ -0,0 +1,184 @@
+package com.aluracursos.LiterAlura.api;
+
+import com.aluracursos.LiterAlura.cliente.CircuitoAbiertoException;
+import com.aluracursos.LiterAlura.configuracion.ApiPropiedades;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.modelo.dto.PaginaPorClave;
+import com.aluracursos.LiterAlura.servicio.LibroDuplicadoException;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.EstadisticasLibros;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.LibroPopular;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicioReactivo;
+import com.aluracursos.LiterAlura.servicio.RankingNoDisponibleException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API HTTP del catálogo, para atender a muchos clientes a la vez detrás de un balanceador.
+ * - Los listados en JSON se paginan por clave: cada página trae en "siguiente" el valor de desde para la siguiente.
+ * - Con Accept: application/x-ndjson o text/event-stream los listados se envían enteros en streaming,
+ *   pidiendo a la base de datos una página cada vez que el cliente consume la anterior.
+ * - Las estadísticas y los rankings llevan ETag y Cache-Control: con If-None-Match la respuesta es un 304 sin cuerpo.
+ * La consulta se hace igualmente (sale de las estructuras en memoria); lo que se ahorra es la red y la serialización.
+ */
+@RestController
+@RequestMapping("/api")
+public class CatalogoControlador {
+    private final LiteraturaServicio literaturaServicio;
+    private final LiteraturaServicioReactivo literaturaServicioReactivo;
+    private final ApiPropiedades propiedades;
+
+    public CatalogoControlador(
+            LiteraturaServicio literaturaServicio,
+            LiteraturaServicioReactivo literaturaServicioReactivo,
+            ApiPropiedades propiedades) {
+        this.literaturaServicio = literaturaServicio;
+        this.literaturaServicioReactivo = literaturaServicioReactivo;
+        this.propiedades = propiedades;
+    }
+
+    // Libros
+
+    @GetMapping(value = "/libros", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PaginaPorClave<LibroResumen> listarLibros(
+            @RequestParam(required = false) String idioma,
+            @RequestParam(required = false) Long desde,
+            @RequestParam(defaultValue = "100") int tamano) {
+        return idioma == null ?
+                literaturaServicio.listarLibros(desde, tamanoPagina(tamano)) :
+                literaturaServicio.listarLibrosPorIdioma(idioma, desde, tamanoPagina(tamano));
+    }
+
+    @GetMapping(value = "/libros", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<LibroResumen> recorrerLibros(@RequestParam(required = false) String idioma) {
+        return idioma == null ?
+                literaturaServicioReactivo.listarLibros() :
+                literaturaServicioReactivo.listarLibrosPorIdioma(idioma);
+    }
+
+    @GetMapping("/libros/busqueda")
+    public List<LibroResumen> buscarLibros(@RequestParam String titulo) {
+        return literaturaServicio.buscarLibrosPorTitulo(titulo).stream().map(LibroResumen::de).toList();
+    }
+
+    /**
+     * Busca el libro en Gutendex y lo registra: 201 con el libro, 404 si Gutendex no lo encuentra
+     * y 409 si ya estaba registrado. El hilo de Tomcat queda libre mientras se espera a Gutendex
+     */
+    @PostMapping("/libros")
+    public Mono<ResponseEntity<LibroResumen>> registrarLibro(@RequestParam String titulo) {
+        return literaturaServicioReactivo.buscarYRegistrarLibro(titulo)
+                .map(libro -> ResponseEntity.status(HttpStatus.CREATED).body(LibroResumen.de(libro)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/libros/idiomas")
+    public ResponseEntity<Map<String, Long>> contarLibrosPorIdioma() {
+        return conEtag(literaturaServicio.contarLibrosPorIdioma());
+    }
+
+    @GetMapping("/libros/mas-descargados")
+    public List<LibroResumen> listarLibrosMasDescargados(@RequestParam(defaultValue = "10") int cantidad) {
+        return literaturaServicio.listarLibrosMasDescargados(tamanoPagina(cantidad));
+    }
+
+    // Autores
+
+    @GetMapping(value = "/autores", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PaginaPorClave<AutorResumen> listarAutores(
+            @RequestParam(required = false) Long desde,
+            @RequestParam(defaultValue = "100") int tamano) {
+        return literaturaServicio.listarAutores(desde, tamanoPagina(tamano));
+    }
+
+    @GetMapping(value = "/autores", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<AutorResumen> recorrerAutores() {
+        return literaturaServicioReactivo.listarAutores();
+    }
+
+    @GetMapping("/autores/busqueda")
+    public List<AutorResumen> buscarAutores(@RequestParam String nombre) {
+        return literaturaServicio.buscarAutorPorNombre(nombre).stream().map(AutorResumen::de).toList();
+    }
+
+    @GetMapping("/autores/vivos")
+    public List<AutorResumen> listarAutoresVivos(@RequestParam int anio) {
+        return literaturaServicio.listarAutoresVivos(anio).stream().map(AutorResumen::de).toList();
+    }
+
+    @GetMapping("/autores/nacidos")
+    public List<AutorResumen> listarAutoresNacidos(@RequestParam int desde, @RequestParam int hasta) {
+        return literaturaServicio.listarAutoresPorRangoNacimiento(desde, hasta).stream().map(AutorResumen::de).toList();
+    }
+
+    // Estadísticas y rankings de Gutendex, con ETag
+
+    @GetMapping("/estadisticas")
+    public ResponseEntity<EstadisticasLibros> generarEstadisticas() {
+        return conEtag(literaturaServicio.generarEstadisticas());
+    }
+
+    // cantidad va de 1 a literalura.ranking.tamano (400 si no); 503 mientras se carga el ranking al iniciar
+    @GetMapping("/top")
+    public ResponseEntity<List<LibroPopular>> obtenerTopLibros(
+            @RequestParam(required = false) String idioma,
+            @RequestParam(defaultValue = "10") int cantidad) {
+        return conEtag(literaturaServicio.obtenerTopLibros(idioma, cantidad));
+    }
+
+    // Errores
+
+    @ExceptionHandler(LibroDuplicadoException.class)
+    public ProblemDetail libroDuplicado(LibroDuplicadoException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(CircuitoAbiertoException.class)
+    public ResponseEntity<ProblemDetail> circuitoAbierto(CircuitoAbiertoException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    @ExceptionHandler(RankingNoDisponibleException.class)
+    public ResponseEntity<ProblemDetail> rankingNoDisponible(RankingNoDisponibleException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail argumentoInvalido(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // El ETag es el hash del contenido: Spring responde 304 si coincide con el If-None-Match de la petición
+    private <T> ResponseEntity<T> conEtag(T cuerpo) {
+        return ResponseEntity.ok()
+                .eTag(Integer.toHexString(cuerpo.hashCode()))
+                .cacheControl(CacheControl.maxAge(propiedades.getMaxEdadCache()).cachePublic())
+                .body(cuerpo);
+    }
+
+    private int tamanoPagina(int tamano) {
+        if (tamano < 1) {
+            throw new IllegalArgumentException("El tamaño debe ser mayor que cero");
+        }
+        return Math.min(tamano, propiedades.getMaxTamanoPagina());
+    }
+}
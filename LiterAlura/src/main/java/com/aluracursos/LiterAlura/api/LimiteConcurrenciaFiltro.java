@@ -0,0 +1,121 @@
+package com.aluracursos.LiterAlura.api;
+
+import com.aluracursos.LiterAlura.configuracion.ApiPropiedades;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita las peticiones a /api que se atienden a la vez (literalura.api.max-peticiones).
+ * Una petición que no consigue turno en literalura.api.espera-maxima se rechaza con 503 y Retry-After,
+ * en lugar de quedarse en la cola de Tomcat mientras el balanceador podría mandarla a otra instancia.
+ * Las respuestas en streaming conservan su turno hasta que termina el procesamiento asíncrono.
+ * Las peticiones en curso y las rechazadas se publican como métricas literalura.api.*
+ */
+@Component
+@Slf4j
+public class LimiteConcurrenciaFiltro extends OncePerRequestFilter implements MeterBinder {
+    private final ApiPropiedades propiedades;
+    private final Semaphore permisos;
+    private Counter rechazadas;
+
+    public LimiteConcurrenciaFiltro(ApiPropiedades propiedades) {
+        this.propiedades = propiedades;
+        this.permisos = new Semaphore(propiedades.getMaxPeticiones());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!obtenerPermiso()) {
+            if (rechazadas != null) {
+                rechazadas.increment();
+            }
+            log.debug("Petición rechazada por el límite de concurrencia: {} {}", request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Demasiadas peticiones en curso");
+            return;
+        }
+
+        AtomicBoolean liberado = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAlTerminar(liberar));
+            } else {
+                liberar.run();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        Gauge.builder("literalura.api.en.curso", permisos, p -> propiedades.getMaxPeticiones() - p.availablePermits())
+                .description("Peticiones a la API atendiéndose")
+                .register(registro);
+        rechazadas = Counter.builder("literalura.api.rechazadas")
+                .description("Peticiones a la API rechazadas por el límite de concurrencia")
+                .register(registro);
+    }
+
+    private boolean obtenerPermiso() {
+        try {
+            return permisos.tryAcquire(propiedades.getEsperaMaxima().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record LiberarAlTerminar(Runnable liberar) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent evento) {
+            liberar.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent evento) {
+            liberar.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent evento) {
+            liberar.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent evento) {
+            // Si el procesamiento asíncrono se reinicia, el listener sigue registrado
+            evento.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Árbol de intervalos [inicio, fin] con un id asociado (por ejemplo, años de vida de los autores).
+ * Responde a las consultas "intervalos que contienen el punto x" y "intervalos que empiezan entre a y b",
+ * devolviendo los ids ordenados por inicio.
+ * <p>
+ * Los intervalos se guardan en arrays ordenados por inicio que forman un árbol binario implícito
+ * (la raíz de cada rango es su elemento central) y cada nodo guarda el mayor fin de su subárbol,
+ * lo que permite descartar subárboles enteros: sobre el árbol las dos consultas cuestan O((k + 1) log n)
+ * con k resultados. Los intervalos nuevos se acumulan en un conjunto de pendientes ordenado por inicio
+ * (con sus ids en un HashSet para descartar repetidos en O(1)) y se incorporan al árbol reconstruyéndolo
+ * cuando hay más de p = max(1024, n / 16), así que insertar cuesta O(log n) amortizado.
+ * Entre reconstrucciones "empiezan entre a y b" busca en los pendientes en O(log p + k), pero
+ * "contienen el punto x" recorre todos los pendientes que empiezan antes de x: O(p) en el peor caso.
+ */
+public class ArbolIntervalos {
+    private static final int MIN_PENDIENTES = 1_024;
+    private static final Comparator<Intervalo> POR_INICIO =
+            Comparator.comparingInt(Intervalo::inicio).thenComparingLong(Intervalo::id);
+
+    /**
+     * Intervalo cerrado; un fin de Integer.MAX_VALUE representa un intervalo abierto por la derecha
+     */
+    public record Intervalo(long id, int inicio, int fin) {
+    }
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private Arbol arbol = Arbol.construir(List.of());
+    private final NavigableSet<Intervalo> pendientes = new TreeSet<>(POR_INICIO);
+    private final Set<Long> idsPendientes = new HashSet<>();
+
+    /**
+     * Carga inicial: reemplaza el contenido por los intervalos cargados, conservando los agregados mientras
+     * tanto (por ejemplo, autores registrados durante la carga) cuyo id no esté entre los cargados
+     */
+    public void cargar(List<Intervalo> intervalos) {
+        candado.writeLock().lock();
+        try {
+            Set<Long> cargados = new HashSet<>(intervalos.size());
+            List<Intervalo> todos = new ArrayList<>(intervalos.size() + tamano());
+            for (Intervalo intervalo : intervalos) {
+                if (cargados.add(intervalo.id())) {
+                    todos.add(intervalo);
+                }
+            }
+            for (Intervalo intervalo : arbol.intervalos()) {
+                if (!cargados.contains(intervalo.id())) {
+                    todos.add(intervalo);
+                }
+            }
+            for (Intervalo pendiente : pendientes) {
+                if (!cargados.contains(pendiente.id())) {
+                    todos.add(pendiente);
+                }
+            }
+            arbol = Arbol.construir(todos);
+            pendientes.clear();
+            idsPendientes.clear();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega un intervalo; si el id ya existe no hace nada
+     */
+    public void agregar(Intervalo intervalo) {
+        candado.writeLock().lock();
+        try {
+            if (arbol.contieneId(intervalo.id()) || !idsPendientes.add(intervalo.id())) {
+                return;
+            }
+            pendientes.add(intervalo);
+            if (pendientes.size() > Math.max(MIN_PENDIENTES, arbol.tamano() / 16)) {
+                List<Intervalo> todos = arbol.intervalos();
+                todos.addAll(pendientes);
+                arbol = Arbol.construir(todos);
+                pendientes.clear();
+                idsPendientes.clear();
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los intervalos que contienen el punto (inicio <= punto <= fin), ordenados por inicio
+     */
+    public List<Long> contienen(int punto) {
+        candado.readLock().lock();
+        try {
+            List<Intervalo> encontrados = new ArrayList<>();
+            arbol.contienen(punto, 0, arbol.tamano() - 1, encontrados);
+            List<Intervalo> encontradosPendientes = new ArrayList<>();
+            for (Intervalo pendiente : pendientes.headSet(limite(punto, Long.MAX_VALUE), true)) {
+                if (punto <= pendiente.fin()) {
+                    encontradosPendientes.add(pendiente);
+                }
+            }
+            return mezclarPorInicio(encontrados, encontradosPendientes);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los intervalos cuyo inicio está entre desde y hasta (ambos incluidos), ordenados por inicio
+     */
+    public List<Long> inicianEntre(int desde, int hasta) {
+        candado.readLock().lock();
+        try {
+            if (desde > hasta) {
+                return List.of();
+            }
+            List<Intervalo> encontrados = new ArrayList<>();
+            arbol.inicianEntre(desde, hasta, encontrados);
+            List<Intervalo> encontradosPendientes = new ArrayList<>(pendientes.subSet(
+                    limite(desde, Long.MIN_VALUE), true, limite(hasta, Long.MAX_VALUE), true));
+            return mezclarPorInicio(encontrados, encontradosPendientes);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return arbol.tamano() + pendientes.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Intervalo de búsqueda que queda antes (id mínimo) o después (id máximo) de todos los que empiezan en inicio
+    private static Intervalo limite(int inicio, long id) {
+        return new Intervalo(id, inicio, inicio);
+    }
+
+    // Los resultados del árbol y los de pendientes ya salen ordenados por (inicio, id): basta con mezclarlos
+    private static List<Long> mezclarPorInicio(List<Intervalo> delArbol, List<Intervalo> dePendientes) {
+        List<Long> ids = new ArrayList<>(delArbol.size() + dePendientes.size());
+        int i = 0;
+        int j = 0;
+        while (i < delArbol.size() || j < dePendientes.size()) {
+            if (j == dePendientes.size()
+                    || (i < delArbol.size() && POR_INICIO.compare(delArbol.get(i), dePendientes.get(j)) < 0)) {
+                ids.add(delArbol.get(i++).id());
+            } else {
+                ids.add(dePendientes.get(j++).id());
+            }
+        }
+        return ids;
+    }
+
+    // Árbol inmutable sobre arrays paralelos ordenados por (inicio, id)
+    private static final class Arbol {
+        private final long[] ids;
+        private final int[] inicios;
+        private final int[] fines;
+        private final int[] maxFin;
+        private final long[] idsOrdenados;
+
+        private Arbol(long[] ids, int[] inicios, int[] fines) {
+            this.ids = ids;
+            this.inicios = inicios;
+            this.fines = fines;
+            this.maxFin = new int[ids.length];
+            calcularMaxFin(0, ids.length - 1);
+            this.idsOrdenados = ids.clone();
+            Arrays.sort(idsOrdenados);
+        }
+
+        static Arbol construir(List<Intervalo> intervalos) {
+            Intervalo[] ordenados = intervalos.toArray(Intervalo[]::new);
+            Arrays.sort(ordenados, POR_INICIO);
+            long[] ids = new long[ordenados.length];
+            int[] inicios = new int[ordenados.length];
+            int[] fines = new int[ordenados.length];
+            for (int i = 0; i < ordenados.length; i++) {
+                ids[i] = ordenados[i].id();
+                inicios[i] = ordenados[i].inicio();
+                fines[i] = ordenados[i].fin();
+            }
+            return new Arbol(ids, inicios, fines);
+        }
+
+        int tamano() {
+            return ids.length;
+        }
+
+        boolean contieneId(long id) {
+            return Arrays.binarySearch(idsOrdenados, id) >= 0;
+        }
+
+        List<Intervalo> intervalos() {
+            List<Intervalo> intervalos = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                intervalos.add(new Intervalo(ids[i], inicios[i], fines[i]));
+            }
+            return intervalos;
+        }
+
+        private int calcularMaxFin(int desde, int hasta) {
+            if (desde > hasta) {
+                return Integer.MIN_VALUE;
+            }
+            int medio = (desde + hasta) >>> 1;
+            maxFin[medio] = Math.max(fines[medio],
+                    Math.max(calcularMaxFin(desde, medio - 1), calcularMaxFin(medio + 1, hasta)));
+            return maxFin[medio];
+        }
+
+        // Recorrido en orden del subárbol [desde, hasta] podando por maxFin (nada llega al punto)
+        // y por inicio (a la derecha de un inicio mayor que el punto todo empieza después)
+        void contienen(int punto, int desde, int hasta, List<Intervalo> encontrados) {
+            if (desde > hasta) {
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            if (maxFin[medio] < punto) {
+                return;
+            }
+            contienen(punto, desde, medio - 1, encontrados);
+            if (inicios[medio] > punto) {
+                return;
+            }
+            if (fines[medio] >= punto) {
+                encontrados.add(new Intervalo(ids[medio], inicios[medio], fines[medio]));
+            }
+            contienen(punto, medio + 1, hasta, encontrados);
+        }
+
+        // Los inicios están ordenados: búsqueda binaria del primero >= desde y recorrido hasta pasar de hasta
+        void inicianEntre(int desde, int hasta, List<Intervalo> encontrados) {
+            int bajo = 0;
+            int alto = inicios.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (inicios[medio] < desde) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            for (int i = bajo; i < inicios.length && inicios[i] <= hasta; i++) {
+                encontrados.add(new Intervalo(ids[i], inicios[i], fines[i]));
+            }
+        }
+    }
+}
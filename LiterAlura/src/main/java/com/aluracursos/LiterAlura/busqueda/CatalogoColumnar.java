@@ -0,0 +1,367 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.EstadisticasLibros;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catálogo de libros en memoria organizado por columnas, para listados y agregados sin ir a la base de datos.
+ * Cada libro ocupa una fila de varios arreglos primitivos: id (long), descargas (int), idioma principal
+ * (byte, código de un diccionario) y autor (int, código de otro diccionario). Los títulos se guardan seguidos
+ * en un único arreglo de bytes UTF-8 con su posición de inicio, sin un objeto String por libro.
+ * Por idioma se mantiene la lista de filas ordenada por id, para paginar por clave. Un libro está en
+ * la lista de cada uno de sus idiomas, así que el tamaño de cada lista es la faceta "libros en este
+ * idioma" ya calculada: contar por idioma no depende del número de libros.
+ * Para las estadísticas por autor se guardan los ids de los autores con libros (de libro_autor, no el
+ * nombre del autor principal) y el número de vínculos libro-autor, así que un libro con dos autores cuenta
+ * para los dos y un autor escrito de dos formas es uno solo.
+ * Es seguro para usar desde varios hilos: las lecturas comparten un candado de lectura.
+ */
+public class CatalogoColumnar {
+    public static final String IDIOMA_DESCONOCIDO = "desconocido";
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    // Columnas, una posición por libro
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+    private int[] descargas = new int[CAPACIDAD_INICIAL];
+    private byte[] idiomas = new byte[CAPACIDAD_INICIAL];
+    private int[] autores = new int[CAPACIDAD_INICIAL];
+    // El título de la fila i ocupa los bytes [inicioTitulo[i], inicioTitulo[i + 1])
+    private int[] inicioTitulo = new int[CAPACIDAD_INICIAL + 1];
+    private byte[] titulos = new byte[CAPACIDAD_INICIAL * 32];
+    private int filas;
+
+    // Diccionarios: el código es la posición en la lista
+    private final List<String> nombresIdioma = new ArrayList<>();
+    private final Map<String, Integer> codigosIdioma = new HashMap<>();
+    private final List<String> nombresAutor = new ArrayList<>();
+    private final Map<String, Integer> codigosAutor = new HashMap<>();
+
+    // Autores con al menos un libro y vínculos libro-autor, para el promedio de libros por autor
+    private final Set<Long> idsAutores = new HashSet<>();
+    private long vinculosAutor;
+
+    // Filas de cada idioma ordenadas por id
+    private final List<ListaEnteros> filasPorIdioma = new ArrayList<>();
+
+    // Último top calculado; se descarta al agregar un libro. Se escribe con el candado de lectura
+    // tomado, así que nunca puede guardarse un top calculado antes de una escritura
+    private volatile List<LibroResumen> ultimoTop = List.of();
+
+    /**
+     * Agrega un libro con un solo idioma (ver el otro agregar)
+     */
+    public void agregar(long id, String titulo, String idioma, String autor, int descargasLibro) {
+        agregar(id, titulo, idioma == null ? List.of() : List.of(idioma), autor, descargasLibro);
+    }
+
+    /**
+     * Agrega un libro con todos sus idiomas y sin autores vinculados (ver el otro agregar)
+     */
+    public void agregar(long id, String titulo, List<String> idiomasLibro, String autor, int descargasLibro) {
+        agregar(id, titulo, idiomasLibro, autor, List.of(), descargasLibro);
+    }
+
+    /**
+     * Agrega un libro con todos sus idiomas (el primero es el principal) y los ids de todos sus autores;
+     * autor es el nombre del principal, para los listados.
+     * Si el idioma principal ya tiene un libro con ese id no se hace nada
+     */
+    public void agregar(long id, String titulo, List<String> idiomasLibro, String autor,
+                        Collection<Long> idsAutoresLibro, int descargasLibro) {
+        candado.writeLock().lock();
+        try {
+            int codigoIdioma = codigoIdioma(idiomasLibro.isEmpty() ? IDIOMA_DESCONOCIDO : idiomasLibro.get(0));
+            ListaEnteros filasIdioma = filasPorIdioma.get(codigoIdioma);
+            int posicion = buscarId(filasIdioma, id);
+            if (posicion >= 0) {
+                return;
+            }
+
+            asegurarCapacidad();
+            int fila = filas++;
+            ids[fila] = id;
+            descargas[fila] = descargasLibro;
+            idiomas[fila] = (byte) codigoIdioma;
+            autores[fila] = codigoAutor(autor);
+            agregarTitulo(fila, titulo);
+            idsAutores.addAll(idsAutoresLibro);
+            vinculosAutor += idsAutoresLibro.size();
+            // Los libros llegan casi siempre en orden de id; si no, se insertan en su sitio
+            filasIdioma.insertar(-posicion - 1, fila);
+            for (int i = 1; i < idiomasLibro.size(); i++) {
+                ListaEnteros filasOtroIdioma = filasPorIdioma.get(codigoIdioma(idiomasLibro.get(i)));
+                int posicionOtro = buscarId(filasOtroIdioma, id);
+                if (posicionOtro < 0) {
+                    filasOtroIdioma.insertar(-posicionOtro - 1, fila);
+                }
+            }
+            ultimoTop = List.of();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta limite libros del idioma con id mayor que desdeId, en orden de id
+     */
+    public List<LibroResumen> librosPorIdioma(String idioma, long desdeId, int limite) {
+        candado.readLock().lock();
+        try {
+            Integer codigo = codigosIdioma.get(idioma == null ? IDIOMA_DESCONOCIDO : idioma);
+            if (codigo == null || limite <= 0) {
+                return List.of();
+            }
+            ListaEnteros filasIdioma = filasPorIdioma.get(codigo);
+            int posicion = buscarId(filasIdioma, desdeId);
+            int desde = posicion >= 0 ? posicion + 1 : -posicion - 1;
+            int hasta = Math.min(filasIdioma.tamano(), desde + limite);
+            List<LibroResumen> libros = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                libros.add(resumen(filasIdioma.obtener(i)));
+            }
+            return libros;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los cantidad libros con más descargas, de más a menos (a igual número, el de menor id primero).
+     * Recorre la columna de descargas manteniendo solo los mejores, sin ordenar todo el catálogo.
+     * El resultado se reutiliza mientras no se agreguen libros
+     */
+    public List<LibroResumen> masDescargados(int cantidad) {
+        candado.readLock().lock();
+        try {
+            int tamano = Math.min(cantidad, filas);
+            if (tamano <= 0) {
+                return List.of();
+            }
+            List<LibroResumen> top = ultimoTop;
+            if (top.size() >= tamano) {
+                return top.subList(0, tamano);
+            }
+            // Montículo de mínimos de filas: en la raíz está el peor de los mejores
+            int[] monticulo = new int[tamano];
+            int enMonticulo = 0;
+            for (int fila = 0; fila < filas; fila++) {
+                if (enMonticulo < tamano) {
+                    monticulo[enMonticulo++] = fila;
+                    subir(monticulo, enMonticulo - 1);
+                } else if (mejor(fila, monticulo[0])) {
+                    monticulo[0] = fila;
+                    bajar(monticulo, enMonticulo);
+                }
+            }
+            LibroResumen[] libros = new LibroResumen[tamano];
+            for (int i = tamano - 1; i >= 0; i--) {
+                libros[i] = resumen(monticulo[0]);
+                monticulo[0] = monticulo[--enMonticulo];
+                bajar(monticulo, enMonticulo);
+            }
+            ultimoTop = List.of(libros);
+            return ultimoTop;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Libros de cada idioma (contando todos los idiomas de cada libro), de más a menos libros
+     * y a igual cantidad por código. El coste depende del número de idiomas, no del de libros
+     */
+    public Map<String, Long> contarPorIdioma() {
+        candado.readLock().lock();
+        try {
+            Integer[] codigos = new Integer[nombresIdioma.size()];
+            for (int codigo = 0; codigo < codigos.length; codigo++) {
+                codigos[codigo] = codigo;
+            }
+            Arrays.sort(codigos, Comparator.<Integer>comparingInt(codigo -> filasPorIdioma.get(codigo).tamano())
+                    .reversed()
+                    .thenComparing(nombresIdioma::get));
+            Map<String, Long> conteos = new LinkedHashMap<>();
+            for (int codigo : codigos) {
+                conteos.put(nombresIdioma.get(codigo), (long) filasPorIdioma.get(codigo).tamano());
+            }
+            return conteos;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estadísticas del catálogo; el coste depende del número de idiomas, no del de libros.
+     * En la distribución por idioma un libro en varios idiomas cuenta en cada uno; los autores son los
+     * distintos ids vinculados a algún libro y el promedio cuenta cada libro una vez por cada uno de sus autores
+     */
+    public EstadisticasLibros estadisticas() {
+        candado.readLock().lock();
+        try {
+            Map<String, Long> distribucion = new TreeMap<>();
+            for (int codigo = 0; codigo < nombresIdioma.size(); codigo++) {
+                distribucion.put(nombresIdioma.get(codigo), (long) filasPorIdioma.get(codigo).tamano());
+            }
+            int totalAutores = idsAutores.size();
+            return new EstadisticasLibros(filas, totalAutores, distribucion,
+                    totalAutores > 0 ? (double) vinculosAutor / totalAutores : 0.0);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return filas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memoria ocupada por los arreglos de las columnas y las listas por idioma (sin los diccionarios), en bytes
+     */
+    public long bytesColumnas() {
+        candado.readLock().lock();
+        try {
+            long bytes = ids.length * 8L + descargas.length * 4L + idiomas.length + autores.length * 4L
+                    + inicioTitulo.length * 4L + titulos.length;
+            for (ListaEnteros lista : filasPorIdioma) {
+                bytes += lista.capacidad() * 4L;
+            }
+            return bytes;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private LibroResumen resumen(int fila) {
+        String titulo = new String(titulos, inicioTitulo[fila], inicioTitulo[fila + 1] - inicioTitulo[fila],
+                StandardCharsets.UTF_8);
+        String idioma = nombresIdioma.get(idiomas[fila] & 0xFF);
+        return new LibroResumen(ids[fila], titulo, idioma.equals(IDIOMA_DESCONOCIDO) ? null : idioma,
+                nombresAutor.get(autores[fila]), descargas[fila]);
+    }
+
+    // Posición del id en la lista (ordenada por id) o -(punto de inserción) - 1, como Arrays.binarySearch
+    private int buscarId(ListaEnteros filasIdioma, long id) {
+        int bajo = 0;
+        int alto = filasIdioma.tamano() - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            long valor = ids[filasIdioma.obtener(medio)];
+            if (valor < id) {
+                bajo = medio + 1;
+            } else if (valor > id) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    private int codigoIdioma(String idioma) {
+        Integer codigo = codigosIdioma.get(idioma);
+        if (codigo == null) {
+            if (nombresIdioma.size() > 255) {
+                throw new IllegalStateException("Demasiados idiomas distintos para codificarlos en un byte");
+            }
+            codigo = nombresIdioma.size();
+            nombresIdioma.add(idioma);
+            codigosIdioma.put(idioma, codigo);
+            filasPorIdioma.add(new ListaEnteros());
+        }
+        return codigo;
+    }
+
+    private int codigoAutor(String autor) {
+        Integer codigo = codigosAutor.get(autor);
+        if (codigo == null) {
+            codigo = nombresAutor.size();
+            nombresAutor.add(autor);
+            codigosAutor.put(autor, codigo);
+        }
+        return codigo;
+    }
+
+    private void agregarTitulo(int fila, String titulo) {
+        byte[] bytes = titulo == null ? new byte[0] : titulo.getBytes(StandardCharsets.UTF_8);
+        int inicio = inicioTitulo[fila];
+        if (inicio + bytes.length > titulos.length) {
+            titulos = Arrays.copyOf(titulos, Math.max(titulos.length * 2, inicio + bytes.length));
+        }
+        System.arraycopy(bytes, 0, titulos, inicio, bytes.length);
+        inicioTitulo[fila + 1] = inicio + bytes.length;
+    }
+
+    private void asegurarCapacidad() {
+        if (filas == ids.length) {
+            int capacidad = filas * 2;
+            ids = Arrays.copyOf(ids, capacidad);
+            descargas = Arrays.copyOf(descargas, capacidad);
+            idiomas = Arrays.copyOf(idiomas, capacidad);
+            autores = Arrays.copyOf(autores, capacidad);
+            inicioTitulo = Arrays.copyOf(inicioTitulo, capacidad + 1);
+        }
+    }
+
+    // a va antes que b en el top: más descargas o, a igual número, menor id
+    private boolean mejor(int a, int b) {
+        return descargas[a] != descargas[b] ? descargas[a] > descargas[b] : ids[a] < ids[b];
+    }
+
+    private void subir(int[] monticulo, int posicion) {
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            if (!mejor(monticulo[padre], monticulo[posicion])) {
+                break;
+            }
+            intercambiar(monticulo, padre, posicion);
+            posicion = padre;
+        }
+    }
+
+    private void bajar(int[] monticulo, int tamano) {
+        int posicion = 0;
+        while (true) {
+            int peor = posicion;
+            int izquierdo = 2 * posicion + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamano && mejor(monticulo[peor], monticulo[izquierdo])) {
+                peor = izquierdo;
+            }
+            if (derecho < tamano && mejor(monticulo[peor], monticulo[derecho])) {
+                peor = derecho;
+            }
+            if (peor == posicion) {
+                return;
+            }
+            intercambiar(monticulo, posicion, peor);
+            posicion = peor;
+        }
+    }
+
+    private static void intercambiar(int[] arreglo, int i, int j) {
+        int temporal = arreglo[i];
+        arreglo[i] = arreglo[j];
+        arreglo[j] = temporal;
+    }
+}
@@ -0,0 +1,231 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.AutorLibro;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import com.aluracursos.LiterAlura.modelo.dto.IdiomaLibro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.repositorio.AutorRepositorio;
+import com.aluracursos.LiterAlura.repositorio.LibroRepositorio;
+import com.aluracursos.LiterAlura.servicio.LibrosRegistradosEvento;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.EstadisticasLibros;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índices de búsqueda en memoria sobre los títulos de los libros, los nombres de los autores
+ * y los años de vida de los autores (árbol de intervalos), más el catálogo columnar de los libros
+ * para los listados por idioma, el top de descargas y las estadísticas.
+ * Se cargan desde la base de datos al iniciar y se actualizan después de cada commit
+ * que registra libros nuevos, así que reemplazan a las consultas LIKE '%x%' y GROUP BY de los repositorios.
+ */
+@Component
+@Slf4j
+public class IndiceBusqueda {
+    private static final int TAMANO_LOTE_CARGA = 5_000;
+
+    private final LibroRepositorio libroRepository;
+    private final AutorRepositorio autorRepository;
+    private final IndiceTexto titulos = new IndiceTexto();
+    private final IndiceTexto autores = new IndiceTexto();
+    private final ArbolIntervalos vidas = new ArbolIntervalos();
+    private final CatalogoColumnar catalogo = new CatalogoColumnar();
+
+    public IndiceBusqueda(LibroRepositorio libroRepository, AutorRepositorio autorRepository) {
+        this.libroRepository = libroRepository;
+        this.autorRepository = autorRepository;
+    }
+
+    /**
+     * Carga los índices con el contenido actual de la base de datos, recorriéndola por rangos de id
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long ultimoId = 0;
+        List<LibroResumen> libros;
+        do {
+            libros = libroRepository.findByIdGreaterThanOrderByIdAsc(
+                    ultimoId, Limit.of(TAMANO_LOTE_CARGA), LibroResumen.class);
+            if (libros.isEmpty()) {
+                break;
+            }
+            // Los idiomas y los autores del mismo rango de ids, en una consulta por lote cada uno
+            long hastaId = libros.get(libros.size() - 1).id();
+            Map<Long, List<String>> idiomas = idiomasEntre(ultimoId, hastaId);
+            Map<Long, List<Long>> autoresLibros = autoresEntre(ultimoId, hastaId);
+            for (LibroResumen libro : libros) {
+                titulos.agregar(libro.id(), libro.titulo());
+                catalogo.agregar(libro.id(), libro.titulo(), idiomasDe(libro, idiomas.get(libro.id())),
+                        libro.autor(), autoresLibros.getOrDefault(libro.id(), List.of()), libro.descargas());
+                ultimoId = libro.id();
+            }
+        } while (libros.size() == TAMANO_LOTE_CARGA);
+
+        ultimoId = 0;
+        List<AutorResumen> lote;
+        List<ArbolIntervalos.Intervalo> intervalos = new ArrayList<>();
+        do {
+            lote = autorRepository.findByIdGreaterThanOrderByIdAsc(
+                    ultimoId, Limit.of(TAMANO_LOTE_CARGA), AutorResumen.class);
+            for (AutorResumen autor : lote) {
+                autores.agregar(autor.id(), autor.nombre());
+                if (tieneAnioNacimiento(autor)) {
+                    intervalos.add(intervaloDeVida(autor));
+                }
+                ultimoId = autor.id();
+            }
+        } while (lote.size() == TAMANO_LOTE_CARGA);
+        // Los autores que alRegistrarLibros agregó durante la carga se conservan
+        vidas.cargar(intervalos);
+
+        log.info("Índice de búsqueda cargado: {} títulos, {} autores ({} con años de vida), catálogo de {} KB",
+                titulos.tamano(), autores.tamano(), vidas.tamano(), catalogo.bytesColumnas() / 1024);
+    }
+
+    /**
+     * Agrega al índice los libros y autores registrados, una vez confirmada la transacción
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alRegistrarLibros(LibrosRegistradosEvento evento) {
+        for (Libro libro : evento.libros()) {
+            titulos.agregar(libro.getId(), libro.getTitulo());
+            catalogo.agregar(libro.getId(), libro.getTitulo(), libro.getIdiomas(), libro.getAutor(),
+                    libro.getAutores().stream().map(Autor::getId).toList(), libro.getDescargas());
+        }
+        for (AutorResumen autor : evento.autores()) {
+            autores.agregar(autor.id(), autor.nombre());
+            if (tieneAnioNacimiento(autor)) {
+                vidas.agregar(intervaloDeVida(autor));
+            }
+        }
+    }
+
+    /**
+     * Indica si ya hay un libro cuyo título contiene el texto sin distinguir mayúsculas (misma semántica que un LIKE '%texto%')
+     */
+    public boolean existeTitulo(String titulo) {
+        return titulos.contiene(titulo);
+    }
+
+    /**
+     * Los textos de la colección que ya están registrados (ver existeTitulo), resueltos todos en el índice sin consultar la base de datos
+     */
+    public Set<String> titulosExistentes(Collection<String> textos) {
+        Set<String> existentes = new HashSet<>();
+        for (String texto : textos) {
+            if (titulos.contiene(texto)) {
+                existentes.add(texto);
+            }
+        }
+        return existentes;
+    }
+
+    /**
+     * Ids de los libros que mejor coinciden con el título, de mayor a menor relevancia
+     */
+    public List<Long> buscarLibros(String titulo, int limite) {
+        return titulos.buscar(titulo, limite).stream().map(IndiceTexto.Resultado::id).toList();
+    }
+
+    /**
+     * Ids de los autores que mejor coinciden con el nombre, de mayor a menor relevancia
+     */
+    public List<Long> buscarAutores(String nombre, int limite) {
+        return autores.buscar(nombre, limite).stream().map(IndiceTexto.Resultado::id).toList();
+    }
+
+    /**
+     * Ids de los autores vivos en el año (nacidos ese año o antes y sin año de muerte o muertos ese año o después),
+     * ordenados por año de nacimiento. Los autores sin año de nacimiento conocido no se incluyen
+     */
+    public List<Long> autoresVivosEn(int anio) {
+        return vidas.contienen(anio);
+    }
+
+    /**
+     * Ids de los autores nacidos entre dos años (ambos incluidos), ordenados por año de nacimiento
+     */
+    public List<Long> autoresNacidosEntre(int anioInicio, int anioFin) {
+        return vidas.inicianEntre(anioInicio, anioFin);
+    }
+
+    /**
+     * Hasta limite libros del idioma con id mayor que desdeId, en orden de id
+     */
+    public List<LibroResumen> librosPorIdioma(String idioma, long desdeId, int limite) {
+        return catalogo.librosPorIdioma(idioma, desdeId, limite);
+    }
+
+    /**
+     * Los libros registrados con más descargas, de más a menos
+     */
+    public List<LibroResumen> masDescargados(int cantidad) {
+        return catalogo.masDescargados(cantidad);
+    }
+
+    /**
+     * Estadísticas de los libros registrados, calculadas con los contadores del catálogo en memoria
+     */
+    public EstadisticasLibros estadisticas() {
+        return catalogo.estadisticas();
+    }
+
+    /**
+     * Libros de cada idioma (un libro en varios idiomas cuenta en cada uno), de más a menos libros
+     */
+    public Map<String, Long> contarLibrosPorIdioma() {
+        return catalogo.contarPorIdioma();
+    }
+
+    private Map<Long, List<String>> idiomasEntre(long desdeId, long hastaId) {
+        Map<Long, List<String>> idiomas = new HashMap<>();
+        for (IdiomaLibro idioma : libroRepository.findIdiomasByIdEntre(desdeId, hastaId)) {
+            idiomas.computeIfAbsent(idioma.libroId(), id -> new ArrayList<>(1)).add(idioma.idioma());
+        }
+        return idiomas;
+    }
+
+    private Map<Long, List<Long>> autoresEntre(long desdeId, long hastaId) {
+        Map<Long, List<Long>> autoresLibros = new HashMap<>();
+        for (AutorLibro autor : libroRepository.findAutoresByIdEntre(desdeId, hastaId)) {
+            autoresLibros.computeIfAbsent(autor.libroId(), id -> new ArrayList<>(1)).add(autor.autorId());
+        }
+        return autoresLibros;
+    }
+
+    // El idioma principal va primero; libro_idioma no guarda el orden de Gutendex
+    private static List<String> idiomasDe(LibroResumen libro, List<String> idiomas) {
+        if (idiomas == null || idiomas.isEmpty()) {
+            return libro.idioma() == null ? List.of() : List.of(libro.idioma());
+        }
+        if (libro.idioma() != null) {
+            idiomas.remove(libro.idioma());
+            idiomas.add(0, libro.idioma());
+        }
+        return idiomas;
+    }
+
+    // El año 0 indica que Gutendex no conoce el año de nacimiento
+    private static boolean tieneAnioNacimiento(AutorResumen autor) {
+        return autor.anioNacimiento() != 0;
+    }
+
+    // Un autor sin año de muerte se considera vivo: su intervalo queda abierto
+    private static ArbolIntervalos.Intervalo intervaloDeVida(AutorResumen autor) {
+        return new ArbolIntervalos.Intervalo(autor.id(), autor.anioNacimiento(),
+                autor.anioMuerte() != 0 ? autor.anioMuerte() : Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,293 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas sobre textos cortos (títulos, nombres de autor).
+ * Cada texto se normaliza (minúsculas, sin tildes ni signos de puntuación) y se descompone
+ * en trigramas; cada trigrama apunta a la lista ordenada de documentos que lo contienen.
+ * Una búsqueda por subcadena intersecta las listas de los trigramas de la consulta y solo
+ * verifica los candidatos, en lugar de recorrer todo el catálogo como hace LIKE '%x%'.
+ * Si no hay coincidencias exactas se hace una búsqueda aproximada por similitud de trigramas.
+ * Es seguro para usar desde varios hilos: las lecturas comparten un candado de lectura.
+ */
+public class IndiceTexto {
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double SIMILITUD_MINIMA = 0.3;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Map<Long, ListaEnteros> listasPorTrigrama = new HashMap<>();
+    private final Map<Long, Integer> documentoPorId = new HashMap<>();
+    private final BitSet eliminados = new BitSet();
+    private long[] ids = new long[1024];
+    private String[] textos = new String[1024];
+    private int[] trigramasPorDocumento = new int[1024];
+    private int documentos;
+
+    /**
+     * Resultado de una búsqueda: id del elemento y puntuación (mayor es mejor)
+     */
+    public record Resultado(long id, double puntuacion) {
+    }
+
+    /**
+     * Normaliza un texto para indexarlo o buscarlo
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(sinTildes.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Agrega o reemplaza el texto asociado a un id
+     */
+    public void agregar(long id, String texto) {
+        String normalizado = normalizar(texto);
+        candado.writeLock().lock();
+        try {
+            Integer anterior = documentoPorId.get(id);
+            if (anterior != null) {
+                if (textos[anterior].equals(normalizado)) {
+                    return;
+                }
+                eliminados.set(anterior);
+            }
+
+            if (documentos == ids.length) {
+                int capacidad = documentos * 2;
+                ids = Arrays.copyOf(ids, capacidad);
+                textos = Arrays.copyOf(textos, capacidad);
+                trigramasPorDocumento = Arrays.copyOf(trigramasPorDocumento, capacidad);
+            }
+            int documento = documentos++;
+            ids[documento] = id;
+            textos[documento] = normalizado;
+            documentoPorId.put(id, documento);
+
+            // El texto se rodea de espacios para que los inicios y finales de palabra tengan su propio trigrama
+            long[] trigramas = trigramas(" " + normalizado + " ");
+            trigramasPorDocumento[documento] = trigramas.length;
+            for (long trigrama : trigramas) {
+                listasPorTrigrama.computeIfAbsent(trigrama, t -> new ListaEnteros()).agregar(documento);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si algún texto contiene la consulta como subcadena
+     */
+    public boolean contiene(String consulta) {
+        return !buscarSubcadena(normalizar(consulta), 1).isEmpty();
+    }
+
+    /**
+     * Busca textos que contengan la consulta, ordenados por relevancia:
+     * coincidencia exacta, prefijo, prefijo de palabra y subcadena (a igual tipo, el texto más corto primero).
+     * Si ninguno la contiene, devuelve los más parecidos por similitud de trigramas.
+     */
+    public List<Resultado> buscar(String consulta, int limite) {
+        String normalizada = normalizar(consulta);
+        if (normalizada.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        List<Resultado> resultados = buscarSubcadena(normalizada, limite);
+        if (resultados.isEmpty() && normalizada.length() >= 3) {
+            resultados = buscarAproximado(normalizada, limite);
+        }
+        return resultados;
+    }
+
+    /**
+     * Como buscar, pero solo con los textos que contienen la consulta (sin búsqueda aproximada)
+     */
+    public List<Resultado> buscarQueContengan(String consulta, int limite) {
+        return limite <= 0 ? List.of() : buscarSubcadena(normalizar(consulta), limite);
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return documentoPorId.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private List<Resultado> buscarSubcadena(String consulta, int limite) {
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::puntuacion));
+        candado.readLock().lock();
+        try {
+            String inicioPalabra = " " + consulta;
+            if (consulta.length() < 3) {
+                // Consultas de una o dos letras: no hay trigramas, se recorre todo
+                for (int documento = 0; documento < documentos; documento++) {
+                    evaluar(documento, consulta, inicioPalabra, mejores, limite);
+                }
+            } else {
+                for (int documento : candidatos(consulta)) {
+                    evaluar(documento, consulta, inicioPalabra, mejores, limite);
+                }
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        return ordenar(mejores);
+    }
+
+    // Documentos que contienen todos los trigramas de la consulta
+    private int[] candidatos(String consulta) {
+        long[] trigramas = trigramas(consulta);
+        ListaEnteros[] listas = new ListaEnteros[trigramas.length];
+        for (int i = 0; i < trigramas.length; i++) {
+            listas[i] = listasPorTrigrama.get(trigramas[i]);
+            if (listas[i] == null) {
+                return new int[0];
+            }
+        }
+
+        // Se parte de la lista más corta y se descartan los documentos que faltan en las demás
+        Arrays.sort(listas, Comparator.comparingInt(ListaEnteros::tamano));
+        int[] candidatos = listas[0].aArreglo();
+        int cantidad = candidatos.length;
+        for (int i = 1; i < listas.length && cantidad > 0; i++) {
+            cantidad = listas[i].tamano() > cantidad * 8L ?
+                    intersectarConBusqueda(candidatos, cantidad, listas[i]) :
+                    intersectarRecorriendo(candidatos, cantidad, listas[i]);
+        }
+        return Arrays.copyOf(candidatos, cantidad);
+    }
+
+    // Para listas mucho más largas que los candidatos: búsqueda binaria de cada candidato
+    private static int intersectarConBusqueda(int[] candidatos, int cantidad, ListaEnteros lista) {
+        int conservados = 0;
+        for (int j = 0; j < cantidad; j++) {
+            if (lista.contiene(candidatos[j])) {
+                candidatos[conservados++] = candidatos[j];
+            }
+        }
+        return conservados;
+    }
+
+    // Para listas de tamaño parecido: recorrido simultáneo de ambas listas ordenadas
+    private static int intersectarRecorriendo(int[] candidatos, int cantidad, ListaEnteros lista) {
+        int conservados = 0;
+        int posicion = 0;
+        for (int j = 0; j < cantidad && posicion < lista.tamano(); j++) {
+            while (posicion < lista.tamano() && lista.obtener(posicion) < candidatos[j]) {
+                posicion++;
+            }
+            if (posicion < lista.tamano() && lista.obtener(posicion) == candidatos[j]) {
+                candidatos[conservados++] = candidatos[j];
+            }
+        }
+        return conservados;
+    }
+
+    private void evaluar(int documento, String consulta, String inicioPalabra,
+                         PriorityQueue<Resultado> mejores, int limite) {
+        if (eliminados.get(documento)) {
+            return;
+        }
+        String texto = textos[documento];
+        int posicion = texto.indexOf(consulta);
+        if (posicion < 0) {
+            return;
+        }
+
+        double tipo;
+        if (posicion == 0) {
+            tipo = texto.length() == consulta.length() ? 4 : 3;
+        } else if (texto.indexOf(inicioPalabra, posicion - 1) >= 0) {
+            tipo = 2;
+        } else {
+            tipo = 1;
+        }
+        agregarSiEntra(mejores, new Resultado(ids[documento], tipo + 1.0 / (1 + texto.length())), limite);
+    }
+
+    private List<Resultado> buscarAproximado(String consulta, int limite) {
+        long[] trigramas = trigramas(" " + consulta + " ");
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::puntuacion));
+        candado.readLock().lock();
+        try {
+            // Cuenta cuántos trigramas de la consulta tiene cada documento
+            int[] coincidencias = new int[documentos];
+            List<Integer> tocados = new ArrayList<>();
+            for (long trigrama : trigramas) {
+                ListaEnteros lista = listasPorTrigrama.get(trigrama);
+                if (lista == null) {
+                    continue;
+                }
+                for (int i = 0; i < lista.tamano(); i++) {
+                    int documento = lista.obtener(i);
+                    if (coincidencias[documento]++ == 0) {
+                        tocados.add(documento);
+                    }
+                }
+            }
+
+            // Similitud de Jaccard entre los conjuntos de trigramas
+            for (int documento : tocados) {
+                if (eliminados.get(documento)) {
+                    continue;
+                }
+                int comunes = coincidencias[documento];
+                double similitud = (double) comunes / (trigramas.length + trigramasPorDocumento[documento] - comunes);
+                if (similitud >= SIMILITUD_MINIMA) {
+                    agregarSiEntra(mejores, new Resultado(ids[documento], similitud), limite);
+                }
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        return ordenar(mejores);
+    }
+
+    // Mantiene en la cola solo los "limite" resultados con mayor puntuación
+    private static void agregarSiEntra(PriorityQueue<Resultado> mejores, Resultado resultado, int limite) {
+        if (mejores.size() < limite) {
+            mejores.add(resultado);
+        } else if (mejores.peek().puntuacion() < resultado.puntuacion()) {
+            mejores.poll();
+            mejores.add(resultado);
+        }
+    }
+
+    private static List<Resultado> ordenar(PriorityQueue<Resultado> mejores) {
+        List<Resultado> resultados = new ArrayList<>(mejores);
+        resultados.sort(Comparator.comparingDouble(Resultado::puntuacion).reversed());
+        return resultados;
+    }
+
+    // Trigramas distintos del texto, cada uno empaquetado en un long (3 caracteres de 16 bits)
+    private static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] trigramas = new long[texto.length() - 2];
+        for (int i = 0; i < trigramas.length; i++) {
+            trigramas[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        return Arrays.stream(trigramas).distinct().toArray();
+    }
+}
@@ -0,0 +1,54 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import java.util.Arrays;
+
+// Lista de enteros primitivos que crece según se necesita
+// Se usa para las listas de documentos del índice invertido, que siempre se llenan en orden creciente,
+// y para las filas de cada idioma del catálogo columnar
+
+class ListaEnteros {
+    private int[] valores = new int[4];
+    private int tamano;
+
+    void agregar(int valor) {
+        if (tamano == valores.length) {
+            valores = Arrays.copyOf(valores, tamano * 2);
+        }
+        valores[tamano++] = valor;
+    }
+
+    // Inserta el valor en la posición, desplazando los siguientes
+    void insertar(int posicion, int valor) {
+        if (posicion == tamano) {
+            agregar(valor);
+            return;
+        }
+        if (tamano == valores.length) {
+            valores = Arrays.copyOf(valores, tamano * 2);
+        }
+        System.arraycopy(valores, posicion, valores, posicion + 1, tamano - posicion);
+        valores[posicion] = valor;
+        tamano++;
+    }
+
+    int obtener(int posicion) {
+        return valores[posicion];
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    int capacidad() {
+        return valores.length;
+    }
+
+    // Búsqueda binaria; requiere que los valores estén ordenados
+    boolean contiene(int valor) {
+        return Arrays.binarySearch(valores, 0, tamano, valor) >= 0;
+    }
+
+    int[] aArreglo() {
+        return Arrays.copyOf(valores, tamano);
+    }
+}
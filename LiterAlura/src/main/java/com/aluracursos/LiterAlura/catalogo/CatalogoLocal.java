@@ -0,0 +1,179 @@
+package com.aluracursos.LiterAlura.catalogo;
+
+import com.aluracursos.LiterAlura.busqueda.IndiceTexto;
+import com.aluracursos.LiterAlura.configuracion.CatalogoLocalPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.EjecutorTareas;
+import com.aluracursos.LiterAlura.servicio.PersistenciaLibrosServicio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copia local del catálogo de Gutenberg para resolver las búsquedas sin salir a gutendex.com.
+ * Se carga desde el pg_catalog.csv (ver LectorCatalogoCsv) en un índice de trigramas sobre los títulos,
+ * y las búsquedas por título se responden en memoria. Si literalura.catalogo-local.importar-a-base
+ * está activo, los libros también se guardan por lotes en la base de datos.
+ * Para no gastar memoria de más solo se conservan los campos que usa la aplicación y cada autor
+ * se guarda una sola vez aunque aparezca en muchos libros.
+ */
+@Component
+@Slf4j
+public class CatalogoLocal {
+    private final CatalogoLocalPropiedades propiedades;
+    private final PersistenciaLibrosServicio persistenciaLibros;
+    private final EjecutorTareas ejecutorTareas;
+
+    // Se sustituye entero al terminar una carga; mientras tanto se sigue usando el anterior
+    private volatile Contenido contenido = new Contenido(new IndiceTexto(), Map.of(), Map.of());
+
+    public CatalogoLocal(
+            CatalogoLocalPropiedades propiedades,
+            PersistenciaLibrosServicio persistenciaLibros,
+            EjecutorTareas ejecutorTareas) {
+        this.propiedades = propiedades;
+        this.persistenciaLibros = persistenciaLibros;
+        this.ejecutorTareas = ejecutorTareas;
+    }
+
+    /**
+     * Carga el catálogo configurado en literalura.catalogo-local.archivo, si hay uno
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        if (!propiedades.getArchivo().isBlank()) {
+            cargar(Path.of(propiedades.getArchivo())).block();
+        }
+    }
+
+    /**
+     * Lee el catálogo, lo indexa y (si está configurado) lo guarda en la base de datos
+     */
+    public Mono<ResultadoCargaCatalogo> cargar(Path archivo) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            IndiceTexto titulos = new IndiceTexto();
+            Map<Long, GutendexLibro> libros = new HashMap<>();
+            Map<String, GutendexLibro> porTitulo = new HashMap<>();
+            Map<String, GutendexAutor> autores = new HashMap<>();
+            AtomicLong guardados = new AtomicLong();
+            LectorCatalogoCsv lector = new LectorCatalogoCsv(propiedades.getHilos(), propiedades.getTamanoBloque());
+
+            Flux<GutendexLibro> leidos = lector.leer(archivo)
+                    .doOnNext(libro -> {
+                        libro.setAuthors(compartirAutores(libro.getAuthors(), autores));
+                        libros.put(libro.getId(), libro);
+                        titulos.agregar(libro.getId(), libro.getTitle());
+                        porTitulo.putIfAbsent(IndiceTexto.normalizar(libro.getTitle()), libro);
+                    });
+            if (propiedades.isImportarABase()) {
+                leidos = leidos.buffer(propiedades.getTamanoLote())
+                        // Lotes en orden y de uno en uno, como en la importación desde la API
+                        .concatMap(lote -> Mono.fromCallable(() -> persistenciaLibros.importarLote(lote))
+                                .subscribeOn(ejecutorTareas.scheduler())
+                                .doOnNext(guardado -> guardados.addAndGet(guardado.size()))
+                                .thenMany(Flux.fromIterable(lote)));
+            }
+            return leidos
+                    .then(Mono.fromSupplier(() -> {
+                        contenido = new Contenido(titulos, libros, porTitulo);
+                        return new ResultadoCargaCatalogo(libros.size(), autores.size(), guardados.get(),
+                                tamanoArchivo(archivo), Duration.ofNanos(System.nanoTime() - inicio));
+                    }))
+                    .doOnNext(resultado -> log.info("Catálogo local cargado desde {}: {}", archivo, resultado));
+        });
+    }
+
+    /**
+     * Libro que mejor coincide con el título (exacto, prefijo, palabra o subcadena), si hay alguno.
+     * No se hace búsqueda aproximada: un título parecido pero distinto registraría otro libro
+     */
+    public Optional<GutendexLibro> buscarPrimero(String titulo) {
+        Contenido actual = contenido;
+        // Un título completo se resuelve con una sola consulta al mapa, sin intersectar listas de trigramas
+        GutendexLibro exacto = actual.porTitulo().get(IndiceTexto.normalizar(titulo));
+        if (exacto != null) {
+            return Optional.of(exacto);
+        }
+        return actual.titulos().buscarQueContengan(titulo, 1).stream()
+                .findFirst()
+                .map(resultado -> actual.libros().get(resultado.id()));
+    }
+
+    /**
+     * Indica si hay un catálogo cargado
+     */
+    public boolean disponible() {
+        return !contenido.libros().isEmpty();
+    }
+
+    /**
+     * Si se busca en Gutendex lo que no está en el catálogo local
+     */
+    public boolean usaRespaldoRemoto() {
+        return propiedades.isRespaldoRemoto();
+    }
+
+    public int tamano() {
+        return contenido.libros().size();
+    }
+
+    // Sustituye cada autor por la instancia ya conocida con los mismos datos
+    private static List<GutendexAutor> compartirAutores(List<GutendexAutor> autores, Map<String, GutendexAutor> conocidos) {
+        List<GutendexAutor> compartidos = new ArrayList<>(autores.size());
+        for (GutendexAutor autor : autores) {
+            String clave = autor.getName() + '|' + autor.getBirthYear() + '|' + autor.getDeathYear();
+            compartidos.add(conocidos.computeIfAbsent(clave, k -> autor));
+        }
+        return compartidos;
+    }
+
+    private static long tamanoArchivo(Path archivo) {
+        try {
+            return Files.size(archivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Contenido(IndiceTexto titulos, Map<Long, GutendexLibro> libros, Map<String, GutendexLibro> porTitulo) {
+    }
+
+    /**
+     * Resumen de una carga del catálogo con su rendimiento
+     */
+    public record ResultadoCargaCatalogo(long libros, long autores, long librosGuardados, long bytes, Duration duracion) {
+
+        public double librosPorSegundo() {
+            double segundos = duracion.toNanos() / 1_000_000_000.0;
+            return segundos > 0 ? libros / segundos : 0.0;
+        }
+
+        public double megabytesPorSegundo() {
+            double segundos = duracion.toNanos() / 1_000_000_000.0;
+            return segundos > 0 ? bytes / 1_048_576.0 / segundos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d libros, %d autores (%d guardados) en %d ms - %.0f libros/s, %.2f MB/s",
+                    libros, autores, librosGuardados, duracion.toMillis(), librosPorSegundo(), megabytesPorSegundo());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.aluracursos.LiterAlura.catalogo;
+
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lee el catálogo CSV de Project Gutenberg (pg_catalog.csv, columnas Text#, Type, Issued, Title,
+ * Language, Authors, Subjects, LoCC, Bookshelves) y lo convierte en libros con el formato de Gutendex.
+ * El archivo se lee en streaming: un hilo separa los registros (los campos entre comillas pueden
+ * tener saltos de línea) y los agrupa en bloques que se convierten en paralelo. La lectura va al
+ * ritmo del consumidor, así que en memoria solo hay unos pocos bloques aunque el catálogo sea grande.
+ */
+@Slf4j
+public class LectorCatalogoCsv {
+    // Años de un autor en el catálogo: "1775-1817", "1775-", "-1817", "1500?-1560?", "427 BCE-347 BCE"
+    private static final Pattern ANIOS = Pattern.compile("(?:(\\d+)\\??( BCE)?)?-(?:(\\d+)\\??( BCE)?)?");
+    private static final Pattern DIGITO = Pattern.compile("\\d");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final int hilos;
+    private final int tamanoBloque;
+
+    public LectorCatalogoCsv(int hilos, int tamanoBloque) {
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Libros del catálogo en el orden del archivo. Los archivos .gz se descomprimen al vuelo
+     */
+    public Flux<GutendexLibro> leer(Path archivo) {
+        return Flux.using(
+                () -> new Registros(archivo),
+                registros -> Flux.<String>generate(sink -> {
+                            String registro = registros.siguiente();
+                            if (registro == null) {
+                                sink.complete();
+                            } else {
+                                sink.next(registro);
+                            }
+                        })
+                        .buffer(tamanoBloque)
+                        // Cada bloque se convierte en otro hilo; flatMapSequential conserva el orden del archivo
+                        .flatMapSequential(bloque -> Mono.fromCallable(() -> convertir(bloque, registros.columnas))
+                                .subscribeOn(Schedulers.parallel()), hilos, 1)
+                        .flatMapIterable(libros -> libros),
+                Registros::cerrar);
+    }
+
+    private static List<GutendexLibro> convertir(List<String> bloque, Columnas columnas) {
+        List<GutendexLibro> libros = new ArrayList<>(bloque.size());
+        for (String registro : bloque) {
+            List<String> campos = campos(registro);
+            if (campos.size() <= columnas.maxima()) {
+                log.debug("Registro del catálogo incompleto: {}", registro);
+                continue;
+            }
+            try {
+                libros.add(libro(campos, columnas));
+            } catch (NumberFormatException e) {
+                log.debug("Registro del catálogo con número no válido: {}", registro);
+            }
+        }
+        return libros;
+    }
+
+    private static GutendexLibro libro(List<String> campos, Columnas columnas) {
+        GutendexLibro libro = new GutendexLibro();
+        libro.setId(Long.parseLong(campos.get(columnas.id()).strip()));
+        // Los títulos largos traen el subtítulo en otra línea
+        libro.setTitle(ESPACIOS.matcher(campos.get(columnas.titulo())).replaceAll(" ").strip());
+        libro.setAuthors(autores(campos.get(columnas.autores())));
+        List<String> idiomas = new ArrayList<>(1);
+        for (String idioma : campos.get(columnas.idioma()).split(";")) {
+            if (!idioma.isBlank()) {
+                // Hay unas pocas decenas de idiomas: intern() evita una cadena por libro
+                idiomas.add(idioma.strip().intern());
+            }
+        }
+        libro.setLanguages(idiomas);
+        return libro;
+    }
+
+    /**
+     * Autores del campo Authors ("Austen, Jane, 1775-1817; Thomson, Hugh, 1860-1920 [Illustrator]").
+     * Como en Gutendex, solo se incluyen los creadores: los que tienen un rol entre corchetes
+     * (editor, traductor, ilustrador...) se descartan
+     */
+    static List<GutendexAutor> autores(String campo) {
+        List<GutendexAutor> autores = new ArrayList<>(1);
+        for (String parte : campo.split(";")) {
+            String nombre = parte.strip();
+            if (nombre.isEmpty() || (nombre.endsWith("]") && nombre.lastIndexOf('[') >= 0)) {
+                continue;
+            }
+            GutendexAutor autor = new GutendexAutor();
+            int coma = nombre.lastIndexOf(',');
+            if (coma >= 0) {
+                String fechas = nombre.substring(coma + 1).strip();
+                Matcher anios = ANIOS.matcher(fechas);
+                if (anios.matches()) {
+                    autor.setBirthYear(anio(anios.group(1), anios.group(2)));
+                    autor.setDeathYear(anio(anios.group(3), anios.group(4)));
+                    nombre = nombre.substring(0, coma).strip();
+                } else if (DIGITO.matcher(fechas).find()) {
+                    // Fechas aproximadas que Gutendex tampoco da ("active 1200", "15th cent.")
+                    nombre = nombre.substring(0, coma).strip();
+                }
+            }
+            autor.setName(nombre);
+            autores.add(autor);
+        }
+        return autores;
+    }
+
+    // Los años antes de Cristo se guardan en negativo, como en Gutendex
+    private static String anio(String numero, String antesDeCristo) {
+        if (numero == null) {
+            return null;
+        }
+        return antesDeCristo == null ? numero : "-" + numero;
+    }
+
+    // Separa los campos de un registro CSV (RFC 4180: comillas dobles, "" dentro de un campo entre comillas)
+    static List<String> campos(String registro) {
+        List<String> campos = new ArrayList<>(9);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < registro.length(); i++) {
+            char c = registro.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < registro.length() && registro.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Posición de las columnas que se usan, según la cabecera del archivo
+    private record Columnas(int id, int titulo, int idioma, int autores) {
+
+        static Columnas de(List<String> cabecera) {
+            return new Columnas(indice(cabecera, "Text#"), indice(cabecera, "Title"),
+                    indice(cabecera, "Language"), indice(cabecera, "Authors"));
+        }
+
+        private static int indice(List<String> cabecera, String columna) {
+            int indice = cabecera.indexOf(columna);
+            if (indice < 0) {
+                throw new IllegalArgumentException("El catálogo no tiene la columna " + columna);
+            }
+            return indice;
+        }
+
+        int maxima() {
+            return Math.max(Math.max(id, titulo), Math.max(idioma, autores));
+        }
+    }
+
+    // Separa el archivo en registros sin interpretar sus campos; lo usa un único hilo
+    private static final class Registros {
+        private final BufferedReader lector;
+        private final Columnas columnas;
+        private final StringBuilder registro = new StringBuilder(256);
+
+        Registros(Path archivo) throws IOException {
+            InputStream entrada = Files.newInputStream(archivo);
+            try {
+                if (archivo.getFileName().toString().endsWith(".gz")) {
+                    entrada = new GZIPInputStream(entrada, 64 * 1024);
+                }
+                this.lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+                String cabecera = siguiente();
+                if (cabecera == null) {
+                    throw new IllegalArgumentException("El catálogo " + archivo + " está vacío");
+                }
+                // Algunos editores añaden una marca de orden de bytes al principio
+                this.columnas = Columnas.de(campos(cabecera.replace("\uFEFF", "")));
+            } catch (IOException | RuntimeException e) {
+                entrada.close();
+                throw e;
+            }
+        }
+
+        // Siguiente registro completo o null al final del archivo.
+        // Una línea con un número impar de comillas deja abierto un campo que sigue en la línea siguiente
+        String siguiente() {
+            try {
+                String linea = lector.readLine();
+                if (linea == null || !comillasImpares(linea)) {
+                    return linea;
+                }
+                registro.setLength(0);
+                registro.append(linea);
+                while ((linea = lector.readLine()) != null) {
+                    registro.append('\n').append(linea);
+                    if (comillasImpares(linea)) {
+                        break;
+                    }
+                }
+                return registro.toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static boolean comillasImpares(String linea) {
+            boolean impar = false;
+            for (int i = linea.indexOf('"'); i >= 0; i = linea.indexOf('"', i + 1)) {
+                impar = !impar;
+            }
+            return impar;
+        }
+
+        void cerrar() {
+            try {
+                lector.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el catálogo: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.aluracursos.LiterAlura.cliente;
+
+// Se lanza sin llegar a llamar a Gutendex mientras el circuito está abierto
+
+public class CircuitoAbiertoException extends RuntimeException {
+
+    public CircuitoAbiertoException() {
+        super("Gutendex no responde correctamente; se volverá a intentar en unos segundos");
+    }
+}
@@ -0,0 +1,262 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexRespuesta;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodifica en streaming las páginas de Gutendex ({"count", "next", "previous", "results": [...]}).
+ * El cuerpo se analiza con el parser no bloqueante de Jackson a medida que llegan los fragmentos,
+ * y cada libro se emite en cuanto se cierra su objeto, sin esperar al resto de la página.
+ * Solo se leen los campos que usa la aplicación (id, title, authors, languages, download_count);
+ * el resto (formats, subjects, summaries...) se salta contando niveles, sin crear cadenas ni mapas.
+ */
+public class DecodificadorGutendex {
+    private static final JsonFactory FABRICA = new JsonFactory();
+
+    /**
+     * Libros de la página en el orden en que llegan. Con next() se deja de leer el cuerpo tras el primero
+     */
+    public Flux<GutendexLibro> libros(Flux<DataBuffer> cuerpo) {
+        return Flux.defer(() -> analizar(cuerpo, new Analizador()));
+    }
+
+    /**
+     * Página completa con los datos de paginación
+     */
+    public Mono<GutendexRespuesta> pagina(Flux<DataBuffer> cuerpo) {
+        return Mono.defer(() -> {
+            Analizador analizador = new Analizador();
+            return analizar(cuerpo, analizador).collectList().map(analizador::respuesta);
+        });
+    }
+
+    // Prefetch 1: el siguiente fragmento solo se pide cuando ya se han entregado los libros del anterior
+    private static Flux<GutendexLibro> analizar(Flux<DataBuffer> cuerpo, Analizador analizador) {
+        return cuerpo
+                .concatMapIterable(fragmento -> {
+                    try {
+                        return analizador.procesar(fragmento);
+                    } finally {
+                        DataBufferUtils.release(fragmento);
+                    }
+                }, 1)
+                .concatWith(Flux.defer(() -> Flux.fromIterable(analizador.terminar())))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .doFinally(senal -> analizador.cerrar());
+    }
+
+    // Posición dentro del documento
+    private enum Contexto {
+        INICIO, RAIZ, RESULTADOS, LIBRO, AUTORES, AUTOR, IDIOMAS, FIN
+    }
+
+    private static final class Analizador {
+        private final JsonParser parser;
+        private final ByteBufferFeeder alimentador;
+        private Contexto contexto = Contexto.INICIO;
+        // Niveles abiertos dentro de un valor que se está saltando
+        private int ignorados;
+        private String campo;
+        private GutendexLibro libro;
+        private GutendexAutor autor;
+        private int total;
+        private String siguiente;
+        private String anterior;
+
+        Analizador() {
+            try {
+                this.parser = FABRICA.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            this.alimentador = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<GutendexLibro> procesar(DataBuffer fragmento) {
+            List<GutendexLibro> libros = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator buffers = fragmento.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    ByteBuffer buffer = buffers.next();
+                    alimentador.feedInput(buffer);
+                    // Consume todo el buffer antes de devolverlo: el parser no guarda referencias a él
+                    leerTokens(libros);
+                }
+            } catch (IOException e) {
+                throw new DecodingException("Respuesta de Gutendex no válida: " + e.getMessage(), e);
+            }
+            return libros;
+        }
+
+        List<GutendexLibro> terminar() {
+            List<GutendexLibro> libros = new ArrayList<>();
+            alimentador.endOfInput();
+            try {
+                leerTokens(libros);
+            } catch (IOException e) {
+                throw new DecodingException("Respuesta de Gutendex no válida: " + e.getMessage(), e);
+            }
+            if (contexto != Contexto.FIN) {
+                throw new DecodingException("Respuesta de Gutendex incompleta");
+            }
+            return libros;
+        }
+
+        GutendexRespuesta respuesta(List<GutendexLibro> libros) {
+            GutendexRespuesta respuesta = new GutendexRespuesta();
+            respuesta.setCount(total);
+            respuesta.setNext(siguiente);
+            respuesta.setPrevious(anterior);
+            respuesta.setResults(libros);
+            return respuesta;
+        }
+
+        void cerrar() {
+            try {
+                parser.close();
+            } catch (IOException ignorada) {
+                // El parser no tiene recursos externos
+            }
+        }
+
+        private void leerTokens(List<GutendexLibro> libros) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (ignorados > 0) {
+                    if (token.isStructStart()) {
+                        ignorados++;
+                    } else if (token.isStructEnd()) {
+                        ignorados--;
+                    }
+                    continue;
+                }
+                if (token == JsonToken.FIELD_NAME) {
+                    campo = parser.currentName();
+                    continue;
+                }
+                switch (contexto) {
+                    case INICIO -> {
+                        if (token != JsonToken.START_OBJECT) {
+                            throw new DecodingException("Se esperaba un objeto JSON de Gutendex");
+                        }
+                        contexto = Contexto.RAIZ;
+                    }
+                    case RAIZ -> raiz(token);
+                    case RESULTADOS -> resultados(token);
+                    case LIBRO -> {
+                        if (token == JsonToken.END_OBJECT) {
+                            libros.add(libro);
+                            libro = null;
+                            contexto = Contexto.RESULTADOS;
+                        } else {
+                            libro(token);
+                        }
+                    }
+                    case AUTORES -> autores(token);
+                    case AUTOR -> autor(token);
+                    case IDIOMAS -> idiomas(token);
+                    case FIN -> throw new DecodingException("Contenido inesperado tras la respuesta de Gutendex");
+                }
+            }
+        }
+
+        private void raiz(JsonToken token) throws IOException {
+            if (token == JsonToken.END_OBJECT) {
+                contexto = Contexto.FIN;
+            } else if (token == JsonToken.START_ARRAY && "results".equals(campo)) {
+                contexto = Contexto.RESULTADOS;
+            } else if (token.isStructStart()) {
+                ignorados = 1;
+            } else if (token == JsonToken.VALUE_NUMBER_INT && "count".equals(campo)) {
+                total = parser.getIntValue();
+            } else if (token == JsonToken.VALUE_STRING && "next".equals(campo)) {
+                siguiente = parser.getText();
+            } else if (token == JsonToken.VALUE_STRING && "previous".equals(campo)) {
+                anterior = parser.getText();
+            }
+        }
+
+        private void resultados(JsonToken token) {
+            if (token == JsonToken.START_OBJECT) {
+                libro = new GutendexLibro();
+                contexto = Contexto.LIBRO;
+            } else if (token == JsonToken.END_ARRAY) {
+                contexto = Contexto.RAIZ;
+            } else if (token.isStructStart()) {
+                ignorados = 1;
+            }
+        }
+
+        private void libro(JsonToken token) throws IOException {
+            if (token == JsonToken.START_ARRAY && "authors".equals(campo)) {
+                libro.setAuthors(new ArrayList<>());
+                contexto = Contexto.AUTORES;
+            } else if (token == JsonToken.START_ARRAY && "languages".equals(campo)) {
+                libro.setLanguages(new ArrayList<>());
+                contexto = Contexto.IDIOMAS;
+            } else if (token.isStructStart()) {
+                ignorados = 1;
+            } else if (token == JsonToken.VALUE_NUMBER_INT && "id".equals(campo)) {
+                libro.setId(parser.getLongValue());
+            } else if (token == JsonToken.VALUE_NUMBER_INT && "download_count".equals(campo)) {
+                libro.setDownloadCount(parser.getIntValue());
+            } else if (token == JsonToken.VALUE_STRING && "title".equals(campo)) {
+                libro.setTitle(parser.getText());
+            }
+        }
+
+        private void autores(JsonToken token) {
+            if (token == JsonToken.START_OBJECT) {
+                autor = new GutendexAutor();
+                libro.getAuthors().add(autor);
+                contexto = Contexto.AUTOR;
+            } else if (token == JsonToken.END_ARRAY) {
+                contexto = Contexto.LIBRO;
+            } else if (token.isStructStart()) {
+                ignorados = 1;
+            }
+        }
+
+        private void autor(JsonToken token) throws IOException {
+            if (token == JsonToken.END_OBJECT) {
+                autor = null;
+                contexto = Contexto.AUTORES;
+            } else if (token.isStructStart()) {
+                ignorados = 1;
+            } else if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                // Los años llegan como números y se guardan como texto, igual que con el data binding
+                switch (campo) {
+                    case "name" -> autor.setName(parser.getText());
+                    case "birth_year" -> autor.setBirthYear(parser.getText());
+                    case "death_year" -> autor.setDeathYear(parser.getText());
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        private void idiomas(JsonToken token) throws IOException {
+            if (token == JsonToken.END_ARRAY) {
+                contexto = Contexto.LIBRO;
+            } else if (token.isStructStart()) {
+                ignorados = 1;
+            } else if (token == JsonToken.VALUE_STRING) {
+                libro.getLanguages().add(parser.getText());
+            }
+        }
+    }
+}
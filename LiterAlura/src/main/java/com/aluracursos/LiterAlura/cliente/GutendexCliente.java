@@ -0,0 +1,276 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import com.aluracursos.LiterAlura.catalogo.CatalogoLocal;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexRespuesta;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cliente de la API de Gutendex con una caché local de respuestas y tolerancia a fallos.
+ * Cada petición pasa por un interruptor de circuito y se reintenta con espera exponencial y jitter
+ * cuando el fallo es de Gutendex (5xx, 429, tiempo agotado o error de conexión).
+ * Cada endpoint tiene su propia caché Caffeine (W-TinyLFU, acotada en tamaño) con su TTL:
+ * al vencer, la respuesta se sigue sirviendo mientras se revalida en segundo plano con una
+ * petición condicional (If-None-Match / If-Modified-Since), de forma que un 304 renueva la
+ * entrada sin volver a descargar el cuerpo. Las peticiones concurrentes con la misma clave
+ * comparten una única llamada a Gutendex.
+ * Los cuerpos se decodifican en streaming con DecodificadorGutendex en lugar de enlazar la página entera.
+ * Con un catálogo local cargado (CatalogoLocal), las búsquedas de un libro se resuelven primero en él
+ * y gutendex.com solo se consulta como respaldo.
+ * Publica como métricas las cachés de cada endpoint (cache.*) y el estado del circuito (gutendex.circuito);
+ * cada petición indica su endpoint para las métricas de MetricasPeticiones.
+ */
+@Component
+@Slf4j
+public class GutendexCliente implements MeterBinder {
+
+    /**
+     * Endpoints de Gutendex que se guardan en caché
+     */
+    public enum Endpoint {
+        BUSQUEDA
+    }
+
+    // Libros por página que devuelve Gutendex
+    public static final int TAMANO_PAGINA = 32;
+
+    private final WebClient webClient;
+    private final Map<Endpoint, AsyncLoadingCache<String, RespuestaCacheada>> caches = new EnumMap<>(Endpoint.class);
+    private final InterruptorCircuito circuito;
+    private final Retry reintentos;
+    private final DecodificadorGutendex decodificador = new DecodificadorGutendex();
+    private final CatalogoLocal catalogoLocal;
+
+    public GutendexCliente(WebClient gutendexWebClient, GutendexPropiedades propiedades) {
+        this(gutendexWebClient, propiedades, null);
+    }
+
+    @Autowired
+    public GutendexCliente(WebClient gutendexWebClient, GutendexPropiedades propiedades, CatalogoLocal catalogoLocal) {
+        this.webClient = gutendexWebClient;
+        this.catalogoLocal = catalogoLocal;
+        this.circuito = new InterruptorCircuito(propiedades.getCircuito(), GutendexCliente::esFalloDeGutendex);
+        GutendexPropiedades.Reintentos reintento = propiedades.getReintentos();
+        this.reintentos = Retry.backoff(Math.max(0, reintento.getMaxIntentos() - 1), reintento.getEsperaInicial())
+                .maxBackoff(reintento.getEsperaMaxima())
+                .jitter(reintento.getJitter())
+                .filter(GutendexCliente::esFalloDeGutendex)
+                .doBeforeRetry(senal -> log.warn("Reintento {} de la petición a Gutendex: {}",
+                        senal.totalRetries() + 1, senal.failure().getMessage()))
+                // Al agotar los reintentos se propaga el último error, no un RetryExhaustedException
+                .onRetryExhaustedThrow((especificacion, senal) -> senal.failure());
+        GutendexPropiedades.Cache cache = propiedades.getCache();
+        caches.put(Endpoint.BUSQUEDA, crearCache(cache, cache.getTtlBusqueda(), Endpoint.BUSQUEDA));
+    }
+
+    /**
+     * Busca libros por título. La clave de caché es el título normalizado
+     * (sin espacios sobrantes y en minúsculas), igual que la búsqueda de Gutendex.
+     */
+    public Mono<GutendexRespuesta> buscar(String titulo) {
+        return desdeCache(Endpoint.BUSQUEDA, normalizar(titulo));
+    }
+
+    /**
+     * Primer resultado de la búsqueda por título. Si hay catálogo local se busca primero en él
+     * (y sin respaldo remoto la búsqueda termina ahí). En Gutendex pasa por la misma caché que buscar:
+     * la primera página se guarda entera con la misma clave, así que las búsquedas repetidas y las
+     * concurrentes del mismo título comparten una sola petición.
+     */
+    public Mono<GutendexLibro> buscarPrimero(String titulo) {
+        return Mono.defer(() -> {
+            if (catalogoLocal != null && catalogoLocal.disponible()) {
+                Optional<GutendexLibro> local = catalogoLocal.buscarPrimero(titulo);
+                if (local.isPresent() || !catalogoLocal.usaRespaldoRemoto()) {
+                    return Mono.justOrEmpty(local);
+                }
+            }
+            return buscar(titulo)
+                    .flatMap(respuesta -> Mono.justOrEmpty(respuesta.getResults().stream().findFirst()));
+        });
+    }
+
+    /**
+     * Los libros más descargados, del idioma indicado o de todos (idioma null), siguiendo las páginas
+     * de Gutendex hasta reunir la cantidad pedida. Gutendex ordena por descargas con sort=popular
+     * (es el orden por defecto; sort=download_count no existe y se ignora). No pasa por la caché:
+     * el ranking lo guarda RankingDescargas
+     */
+    public Flux<GutendexLibro> masDescargados(String idioma, int cantidad) {
+        Mono<GutendexRespuesta> primera = resiliente(decodificador.pagina(webClient.get()
+                .uri(uriBuilder -> uriBuilder.queryParam("sort", "popular")
+                        .queryParamIfPresent("languages", Optional.ofNullable(idioma))
+                        .build())
+                .attribute(MetricasPeticiones.ENDPOINT, "populares")
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)));
+        int paginas = Math.max(1, (cantidad + TAMANO_PAGINA - 1) / TAMANO_PAGINA);
+        return primera
+                .expand(respuesta -> respuesta.getNext() == null ? Mono.empty() : pagina(respuesta.getNext(), "populares"))
+                .take(paginas, true)
+                .concatMapIterable(GutendexRespuesta::getResults)
+                .take(cantidad, true);
+    }
+
+    /**
+     * Descarga una página del catálogo sin pasar por la caché (importación masiva).
+     * Sin URL se pide la primera página.
+     */
+    public Mono<GutendexRespuesta> pagina(String url) {
+        return pagina(url, "catalogo");
+    }
+
+    private Mono<GutendexRespuesta> pagina(String url, String endpoint) {
+        WebClient.RequestHeadersSpec<?> peticion = url == null ?
+                webClient.get() : webClient.get().uri(URI.create(url));
+        return resiliente(decodificador.pagina(peticion
+                .attribute(MetricasPeticiones.ENDPOINT, endpoint)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)));
+    }
+
+    /**
+     * Aciertos, fallos y desalojos de la caché de un endpoint
+     */
+    public CacheStats estadisticas(Endpoint endpoint) {
+        return caches.get(endpoint).synchronous().stats();
+    }
+
+    /**
+     * Estado actual del interruptor de circuito
+     */
+    public InterruptorCircuito.Estado estadoCircuito() {
+        return circuito.estado();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        caches.forEach((endpoint, cache) -> CaffeineCacheMetrics.monitor(
+                registro, cache, "gutendex", "endpoint", endpoint.name().toLowerCase(Locale.ROOT)));
+        // Un indicador por estado: vale 1 el estado actual y 0 los demás
+        for (InterruptorCircuito.Estado estado : InterruptorCircuito.Estado.values()) {
+            Gauge.builder("gutendex.circuito", circuito, c -> c.estado() == estado ? 1 : 0)
+                    .description("Estado del interruptor de circuito de Gutendex")
+                    .tag("estado", estado.name())
+                    .register(registro);
+        }
+    }
+
+    /**
+     * Indica si el error se debe a que Gutendex está caído o degradado (y por tanto merece reintentarse):
+     * respuestas 5xx o 429, tiempos agotados y errores de conexión. Los 4xx son errores de la petición
+     */
+    static boolean esFalloDeGutendex(Throwable error) {
+        if (error instanceof WebClientResponseException respuesta) {
+            return respuesta.getStatusCode().is5xxServerError()
+                    || respuesta.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    // Cada reintento vuelve a pasar por el circuito, así que un circuito abierto corta también los reintentos
+    private <T> Mono<T> resiliente(Mono<T> llamada) {
+        return circuito.proteger(llamada).retryWhen(reintentos);
+    }
+
+    public static String normalizar(String consulta) {
+        return consulta.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // suppressCancel: si un suscriptor cancela no se cancela la petición compartida con los demás
+    private Mono<GutendexRespuesta> desdeCache(Endpoint endpoint, String clave) {
+        return Mono.fromFuture(() -> caches.get(endpoint).get(clave), true)
+                .map(RespuestaCacheada::cuerpo);
+    }
+
+    private AsyncLoadingCache<String, RespuestaCacheada> crearCache(
+            GutendexPropiedades.Cache propiedades, Duration ttl, Endpoint endpoint) {
+        return Caffeine.newBuilder()
+                .maximumSize(propiedades.getMaxEntradas())
+                // Pasado el TTL la siguiente lectura devuelve la respuesta guardada y dispara la revalidación
+                .refreshAfterWrite(ttl)
+                // Pasado este tiempo sin revalidar la entrada se descarta y se vuelve a descargar
+                .expireAfterWrite(propiedades.getMaxObsolescencia().compareTo(ttl) > 0 ?
+                        propiedades.getMaxObsolescencia() : ttl)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<RespuestaCacheada> asyncLoad(String clave, Executor executor) {
+                        return pedir(endpoint, clave, null).toFuture();
+                    }
+
+                    @Override
+                    public CompletableFuture<RespuestaCacheada> asyncReload(
+                            String clave, RespuestaCacheada anterior, Executor executor) {
+                        return pedir(endpoint, clave, anterior).toFuture();
+                    }
+                });
+    }
+
+    // Hace la petición a Gutendex; si hay una respuesta anterior la petición es condicional
+    private Mono<RespuestaCacheada> pedir(Endpoint endpoint, String clave, RespuestaCacheada anterior) {
+        WebClient.RequestHeadersSpec<?> peticion = switch (endpoint) {
+            case BUSQUEDA -> webClient.get().uri(uriBuilder -> uriBuilder.queryParam("search", clave).build());
+        };
+        peticion = peticion.attribute(MetricasPeticiones.ENDPOINT, endpoint.name().toLowerCase(Locale.ROOT));
+
+        if (anterior != null) {
+            peticion = peticion.headers(cabeceras -> {
+                if (anterior.etag() != null) {
+                    cabeceras.setIfNoneMatch(anterior.etag());
+                }
+                if (anterior.ultimaModificacion() > 0) {
+                    cabeceras.setIfModifiedSince(anterior.ultimaModificacion());
+                }
+            });
+        }
+
+        return resiliente(peticion.exchangeToMono(respuesta -> {
+            if (anterior != null && respuesta.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                log.debug("Respuesta de Gutendex sin cambios para {} '{}'", endpoint, clave);
+                return respuesta.releaseBody().thenReturn(anterior);
+            }
+            // Las redirecciones (por ejemplo, de /books a /books/) ya las sigue el HttpClient
+            if (!respuesta.statusCode().is2xxSuccessful()) {
+                return respuesta.createError();
+            }
+            HttpHeaders cabeceras = respuesta.headers().asHttpHeaders();
+            return decodificador.pagina(respuesta.bodyToFlux(DataBuffer.class))
+                    .map(cuerpo -> new RespuestaCacheada(cuerpo, cabeceras.getETag(), cabeceras.getLastModified()));
+        }));
+    }
+
+    // Respuesta guardada junto con los validadores HTTP para revalidarla
+    private record RespuestaCacheada(GutendexRespuesta cuerpo, String etag, long ultimaModificacion) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Predicate;
+
+/**
+ * Interruptor de circuito (circuit breaker) para las llamadas a Gutendex.
+ * <ul>
+ *   <li>CERRADO: las llamadas pasan y se anota el resultado de las últimas N en una ventana circular.
+ *   Si el porcentaje de fallos supera el umbral, el circuito se abre.</li>
+ *   <li>ABIERTO: las llamadas fallan al instante con CircuitoAbiertoException, sin ocupar conexiones
+ *   ni esperar a que venzan los tiempos máximos, durante el tiempo configurado.</li>
+ *   <li>SEMIABIERTO: se dejan pasar unas pocas llamadas de prueba; si todas van bien el circuito se
+ *   cierra y si alguna falla vuelve a abrirse.</li>
+ * </ul>
+ * Solo cuentan como fallos los errores que indican que Gutendex está degradado (los que decide el predicado).
+ */
+@Slf4j
+public class InterruptorCircuito {
+
+    public enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    private final GutendexPropiedades.Circuito propiedades;
+    private final Predicate<Throwable> esFallo;
+    private final boolean[] ventana;
+
+    // Estado protegido por el monitor de this
+    private Estado estado = Estado.CERRADO;
+    private int posicion;
+    private int llamadas;
+    private int fallos;
+    private long abiertoHasta;
+    private int pruebasEnCurso;
+    private int pruebasCorrectas;
+
+    public InterruptorCircuito(GutendexPropiedades.Circuito propiedades, Predicate<Throwable> esFallo) {
+        this.propiedades = propiedades;
+        this.esFallo = esFallo;
+        this.ventana = new boolean[Math.max(1, propiedades.getVentana())];
+    }
+
+    /**
+     * Ejecuta la llamada si el circuito lo permite y anota su resultado.
+     * Cada suscripción es una llamada distinta, así que se puede combinar con retry()
+     */
+    public <T> Mono<T> proteger(Mono<T> llamada) {
+        return Mono.defer(() -> {
+            if (!permitir()) {
+                return Mono.error(new CircuitoAbiertoException());
+            }
+            return llamada
+                    .doOnSuccess(valor -> registrar(false))
+                    .doOnError(error -> registrar(esFallo.test(error)))
+                    .doOnCancel(this::cancelar);
+        });
+    }
+
+    public synchronized Estado estado() {
+        actualizarSiVencio();
+        return estado;
+    }
+
+    private synchronized boolean permitir() {
+        actualizarSiVencio();
+        return switch (estado) {
+            case CERRADO -> true;
+            case ABIERTO -> false;
+            case SEMIABIERTO -> {
+                if (pruebasEnCurso + pruebasCorrectas >= propiedades.getLlamadasPrueba()) {
+                    yield false;
+                }
+                pruebasEnCurso++;
+                yield true;
+            }
+        };
+    }
+
+    private synchronized void registrar(boolean fallo) {
+        switch (estado) {
+            case CERRADO -> {
+                if (llamadas == ventana.length) {
+                    fallos -= ventana[posicion] ? 1 : 0;
+                } else {
+                    llamadas++;
+                }
+                ventana[posicion] = fallo;
+                fallos += fallo ? 1 : 0;
+                posicion = (posicion + 1) % ventana.length;
+                if (llamadas >= propiedades.getMinLlamadas()
+                        && fallos * 100.0 / llamadas >= propiedades.getUmbralFallos()) {
+                    abrir();
+                }
+            }
+            case SEMIABIERTO -> {
+                pruebasEnCurso--;
+                if (fallo) {
+                    abrir();
+                } else if (++pruebasCorrectas >= propiedades.getLlamadasPrueba()) {
+                    log.info("Circuito de Gutendex cerrado de nuevo");
+                    cambiarA(Estado.CERRADO);
+                }
+            }
+            // Llamadas que empezaron antes de abrirse el circuito: ya no cambian nada
+            case ABIERTO -> {
+            }
+        }
+    }
+
+    private synchronized void cancelar() {
+        if (estado == Estado.SEMIABIERTO) {
+            pruebasEnCurso--;
+        }
+    }
+
+    private void abrir() {
+        log.warn("Circuito de Gutendex abierto durante {} ({} fallos en {} llamadas)",
+                propiedades.getTiempoAbierto(), fallos, llamadas);
+        cambiarA(Estado.ABIERTO);
+        abiertoHasta = System.nanoTime() + propiedades.getTiempoAbierto().toNanos();
+    }
+
+    private void actualizarSiVencio() {
+        if (estado == Estado.ABIERTO && System.nanoTime() - abiertoHasta >= 0) {
+            cambiarA(Estado.SEMIABIERTO);
+        }
+    }
+
+    private void cambiarA(Estado nuevo) {
+        estado = nuevo;
+        posicion = 0;
+        llamadas = 0;
+        fallos = 0;
+        pruebasEnCurso = 0;
+        pruebasCorrectas = 0;
+    }
+}
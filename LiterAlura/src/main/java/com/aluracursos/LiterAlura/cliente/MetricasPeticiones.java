@@ -0,0 +1,65 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro del WebClient de Gutendex que mide cada petición en el temporizador gutendex.peticiones,
+ * con las etiquetas endpoint (el que indica GutendexCliente con el atributo ENDPOINT) y estado
+ * (código HTTP, ERROR_CONEXION, el tipo de la excepción o CANCELADA).
+ * El tiempo va hasta que llegan las cabeceras de la respuesta; la descarga del cuerpo no se incluye.
+ * Cada reintento es una petición distinta.
+ * En lugar de escribir en el log cada petición, se escribe una de cada muestreoLog (todas con DEBUG)
+ */
+@Slf4j
+public class MetricasPeticiones implements ExchangeFilterFunction {
+    public static final String METRICA = "gutendex.peticiones";
+    public static final String ENDPOINT = MetricasPeticiones.class.getName() + ".endpoint";
+
+    private final MeterRegistry registro;
+    private final int muestreoLog;
+    private final AtomicLong peticiones = new AtomicLong();
+
+    public MetricasPeticiones(MeterRegistry registro, int muestreoLog) {
+        this.registro = registro;
+        this.muestreoLog = muestreoLog;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String endpoint = (String) request.attribute(ENDPOINT).orElse("otro");
+        long numero = peticiones.getAndIncrement();
+        if (log.isDebugEnabled()) {
+            log.debug("Petición a Gutendex ({}): {}", endpoint, request.url());
+        } else if (muestreoLog > 0 && numero % muestreoLog == 0) {
+            log.info("Petición a Gutendex ({}, una de cada {}): {}", endpoint, muestreoLog, request.url());
+        }
+        return Mono.defer(() -> {
+            Timer.Sample muestra = Timer.start(registro);
+            return next.exchange(request)
+                    .doOnNext(respuesta -> registrar(muestra, endpoint, String.valueOf(respuesta.statusCode().value())))
+                    .doOnError(error -> registrar(muestra, endpoint, estado(error)))
+                    .doOnCancel(() -> registrar(muestra, endpoint, "CANCELADA"));
+        });
+    }
+
+    private void registrar(Timer.Sample muestra, String endpoint, String estado) {
+        muestra.stop(Timer.builder(METRICA)
+                .description("Peticiones a Gutendex hasta recibir las cabeceras de la respuesta")
+                .tags("endpoint", endpoint, "estado", estado)
+                .register(registro));
+    }
+
+    private static String estado(Throwable error) {
+        return error instanceof WebClientRequestException ? "ERROR_CONEXION" : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,27 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Parámetros de la API HTTP del catálogo (prefijo literalura.api)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.api")
+public class ApiPropiedades {
+
+    // Peticiones a /api que se atienden a la vez; las que llegan por encima se rechazan con 503
+    private int maxPeticiones = 64;
+
+    // Tiempo que una petición espera turno antes de rechazarse
+    private Duration esperaMaxima = Duration.ofMillis(100);
+
+    // Tiempo que los clientes y proxies pueden reutilizar las estadísticas y los rankings (Cache-Control max-age)
+    private Duration maxEdadCache = Duration.ofSeconds(60);
+
+    // Tamaño máximo de página de los listados en JSON
+    private int maxTamanoPagina = 500;
+}
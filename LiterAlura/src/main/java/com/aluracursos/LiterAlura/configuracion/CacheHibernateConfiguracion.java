@@ -0,0 +1,74 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Caché de segundo nivel de Hibernate sobre JCache con Caffeine, con una región acotada por cada tipo de dato.
+// Hibernate mantiene las regiones al escribir: al guardar un libro o un autor actualiza su entrada, y cada
+// escritura invalida solo las consultas cacheadas que leen de esa tabla (región de marcas de tiempo).
+// Las consultas nativas de escritura declaran sus tablas (HINT_NATIVE_SPACES) para no vaciar las demás regiones.
+// Los aciertos y fallos por región se publican con las estadísticas de Hibernate
+// (hibernate.second.level.cache.requests y hibernate.query.cache.requests)
+
+@Configuration
+public class CacheHibernateConfiguracion {
+    public static final String REGION_AUTORES = "autor";
+    public static final String REGION_LIBROS = "libro";
+    public static final String REGION_AUTORES_DE_LIBRO = "libro.autores";
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheHibernatePropiedades propiedades, CacheManager cacheHibernate) {
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, propiedades.isActiva());
+            hibernate.put(AvailableSettings.USE_QUERY_CACHE, propiedades.isActiva());
+            if (propiedades.isActiva()) {
+                hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernate.put(ConfigSettings.CACHE_MANAGER, cacheHibernate);
+                // Una región sin configurar sería una caché sin límite: mejor que falle al arrancar
+                hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    // Cada contexto tiene su propio CacheManager (en las pruebas conviven varios)
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheHibernate(CacheHibernatePropiedades propiedades) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("literalura-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        if (propiedades.isActiva()) {
+            crear(cacheManager, REGION_AUTORES, propiedades.getMaxAutores(), propiedades.getExpiracion());
+            crear(cacheManager, REGION_LIBROS, propiedades.getMaxLibros(), propiedades.getExpiracion());
+            crear(cacheManager, REGION_AUTORES_DE_LIBRO, propiedades.getMaxColecciones(), propiedades.getExpiracion());
+            crear(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    propiedades.getMaxConsultas(), propiedades.getExpiracion());
+            // Las marcas de tiempo (última escritura de cada tabla) no pueden descartarse: son una por tabla
+            crear(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, null);
+        }
+        return cacheManager;
+    }
+
+    private static void crear(CacheManager cacheManager, String region, long maxEntradas, Duration expiracion) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setStoreByValue(false);
+        if (maxEntradas > 0) {
+            configuracion.setMaximumSize(OptionalLong.of(maxEntradas));
+        }
+        if (expiracion != null) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(expiracion.toNanos()));
+        }
+        cacheManager.createCache(region, configuracion);
+    }
+}
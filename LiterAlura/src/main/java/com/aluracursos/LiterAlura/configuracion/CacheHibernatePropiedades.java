@@ -0,0 +1,34 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Parámetros de la caché de segundo nivel y de consultas de Hibernate (prefijo literalura.cache-hibernate)
+// Cada región tiene un máximo de entradas; al llenarse Caffeine descarta las menos usadas
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.cache-hibernate")
+public class CacheHibernatePropiedades {
+
+    // Sin caché, todas las lecturas van a la base de datos
+    private boolean activa = true;
+
+    // Autores por id
+    private long maxAutores = 100_000;
+
+    // Libros por id
+    private long maxLibros = 100_000;
+
+    // Lista de autores de cada libro (ids de la tabla libro_autor)
+    private long maxColecciones = 100_000;
+
+    // Resultados de consultas cacheables (páginas de los listados); cada entrada es una página entera
+    private long maxConsultas = 256;
+
+    // Tiempo máximo de una entrada aunque no se haya invalidado, por si otra aplicación escribe en la base de datos
+    private Duration expiracion = Duration.ofHours(1);
+}
@@ -0,0 +1,32 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Parámetros del catálogo local, cargado desde el catálogo CSV de Project Gutenberg (prefijo literalura.catalogo-local)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.catalogo-local")
+public class CatalogoLocalPropiedades {
+
+    // Ruta del pg_catalog.csv (o pg_catalog.csv.gz); vacío = sin catálogo local, todo se consulta en Gutendex
+    private String archivo = "";
+
+    // Si un título no está en el catálogo local se busca en la API de Gutendex
+    private boolean respaldoRemoto = true;
+
+    // Además de indexarlo en memoria, guarda todo el catálogo en las tablas de libros y autores
+    // (pensado para una base de datos vacía, igual que la importación desde la API)
+    private boolean importarABase = false;
+
+    // Hilos que convierten los registros del CSV (0 = uno por procesador)
+    private int hilos = 0;
+
+    // Registros que se convierten juntos en cada tarea del análisis en paralelo
+    private int tamanoBloque = 500;
+
+    // Libros que se guardan en cada escritura a la base de datos
+    private int tamanoLote = 1000;
+}
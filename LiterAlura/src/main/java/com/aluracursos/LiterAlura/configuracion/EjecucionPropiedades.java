@@ -0,0 +1,20 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Parámetros de ejecución de las tareas bloqueantes: registro de libros e importación (prefijo literalura.ejecucion)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.ejecucion")
+public class EjecucionPropiedades {
+
+    // Ejecuta cada tarea en un hilo virtual en lugar de en un pool de hilos de plataforma
+    private boolean hilosVirtuales = false;
+
+    // Tareas que pueden ejecutarse a la vez; limita las peticiones simultáneas a Gutendex
+    // y las conexiones que se piden a Hikari
+    private int maxConcurrencia = 100;
+}
@@ -0,0 +1,30 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Parámetros de la cola que agrupa en lotes los libros registrados uno a uno (prefijo literalura.escritura)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.escritura")
+public class EscrituraPropiedades {
+
+    // Libros que pueden esperar en la cola; con la cola llena quien registra espera turno
+    private int capacidad = 1_000;
+
+    // Libros que se guardan como máximo en cada transacción
+    private int tamanoLote = 100;
+
+    // Tiempo máximo esperando sitio en la cola antes de rechazar el libro
+    private Duration esperaMaxima = Duration.ofSeconds(30);
+
+    // Intentos de guardar un lote cuando la base de datos falla de forma transitoria
+    private int maxIntentos = 3;
+
+    // Espera antes del primer reintento; se duplica en cada uno
+    private Duration esperaReintento = Duration.ofMillis(100);
+}
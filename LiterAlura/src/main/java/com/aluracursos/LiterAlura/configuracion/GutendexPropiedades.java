@@ -0,0 +1,90 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Parámetros del cliente de la API de Gutendex (prefijo literalura.gutendex)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.gutendex")
+public class GutendexPropiedades {
+
+    // URL base de la API; se puede apuntar a un servidor local
+    private String urlBase = "https://gutendex.com/books/";
+
+    // Conexiones HTTP simultáneas con Gutendex; las peticiones que no caben esperan turno
+    private int maxConexiones = 500;
+
+    // Tiempo máximo para establecer una conexión TCP
+    private Duration tiempoConexion = Duration.ofSeconds(5);
+
+    // Tiempo máximo de espera de la respuesta desde que se envía la petición
+    private Duration tiempoRespuesta = Duration.ofSeconds(10);
+
+    // Tiempo que una conexión keep-alive puede quedar inactiva en el pool antes de cerrarse
+    private Duration maxInactividad = Duration.ofSeconds(30);
+
+    // Negocia HTTP/2 (ALPN) con los servidores HTTPS que lo admiten; si no, se usa HTTP/1.1
+    private boolean http2 = true;
+
+    // Una de cada tantas peticiones se escribe en el log (0 = ninguna); con DEBUG se escriben todas
+    private int muestreoLog = 100;
+
+    private Cache cache = new Cache();
+
+    private Reintentos reintentos = new Reintentos();
+
+    private Circuito circuito = new Circuito();
+
+    @Data
+    public static class Cache {
+
+        // Número máximo de respuestas guardadas por cada endpoint
+        private long maxEntradas = 10_000;
+
+        // Tiempo tras el cual una búsqueda por título se revalida con Gutendex
+        private Duration ttlBusqueda = Duration.ofHours(1);
+
+        // Tiempo máximo que una respuesta vencida se sigue sirviendo mientras se revalida
+        private Duration maxObsolescencia = Duration.ofDays(7);
+    }
+
+    @Data
+    public static class Reintentos {
+
+        // Intentos en total por petición (1 = sin reintentos)
+        private int maxIntentos = 3;
+
+        // Espera antes del primer reintento; se duplica en cada intento
+        private Duration esperaInicial = Duration.ofMillis(200);
+
+        // Límite de la espera entre reintentos
+        private Duration esperaMaxima = Duration.ofSeconds(5);
+
+        // Variación aleatoria de cada espera (0 a 1) para que los clientes no reintenten todos a la vez
+        private double jitter = 0.5;
+    }
+
+    @Data
+    public static class Circuito {
+
+        // Número de llamadas recientes que se tienen en cuenta para decidir si Gutendex está degradado
+        private int ventana = 20;
+
+        // Llamadas mínimas en la ventana antes de poder abrir el circuito
+        private int minLlamadas = 10;
+
+        // Porcentaje de fallos en la ventana a partir del cual se abre el circuito
+        private double umbralFallos = 50;
+
+        // Tiempo que el circuito permanece abierto rechazando llamadas antes de probar de nuevo
+        private Duration tiempoAbierto = Duration.ofSeconds(30);
+
+        // Llamadas de prueba que deben ir bien en estado semiabierto para volver a cerrar el circuito
+        private int llamadasPrueba = 3;
+    }
+}
@@ -0,0 +1,22 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Parámetros de la importación masiva del catálogo de Gutendex (prefijo literalura.importacion)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.importacion")
+public class ImportacionPropiedades {
+
+    // Número máximo de páginas que se descargan en paralelo
+    private int concurrencia = 4;
+
+    // Cantidad de libros que se guardan en cada escritura a la base de datos
+    private int tamanoLote = 100;
+
+    // Límite de páginas a importar (0 = todo el catálogo)
+    private int maxPaginas = 0;
+}
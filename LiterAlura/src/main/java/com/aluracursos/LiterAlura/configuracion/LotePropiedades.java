@@ -0,0 +1,28 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Parámetros del modo por lotes, que ejecuta los comandos de un archivo en lugar de mostrar el menú (prefijo literalura.lote)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = LotePropiedades.PREFIJO)
+public class LotePropiedades {
+    public static final String PREFIJO = "literalura.lote";
+    public static final String ENTRADA_ESTANDAR = "-";
+
+    // Archivo con un comando por línea ("-" = entrada estándar); vacío para usar el menú interactivo
+    private String archivo = "";
+
+    // Archivo donde se escriben los resultados en NDJSON; vacío para la salida estándar
+    private String salida = "";
+
+    // Comandos que se ejecutan a la vez
+    private int trabajadores = 16;
+
+    public boolean isActivo() {
+        return !archivo.isBlank();
+    }
+}
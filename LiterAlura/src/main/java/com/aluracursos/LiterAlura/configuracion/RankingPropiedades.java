@@ -0,0 +1,28 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Parámetros del ranking de libros más descargados de Gutendex (prefijo literalura.ranking)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.ranking")
+public class RankingPropiedades {
+
+    // Cantidad de libros que se guardan en cada ranking
+    private int tamano = 10;
+
+    // Idiomas con ranking propio, además del ranking general
+    private List<String> idiomas = List.of("es", "en", "fr", "pt");
+
+    // Tiempo entre dos actualizaciones en segundo plano
+    private Duration intervalo = Duration.ofHours(6);
+
+    // Si se actualiza en segundo plano; sin actualizar los rankings quedan vacíos
+    private boolean actualizar = true;
+}
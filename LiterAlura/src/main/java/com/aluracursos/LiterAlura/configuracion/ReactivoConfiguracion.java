@@ -0,0 +1,19 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Configuración del scheduler donde la API reactiva ejecuta las llamadas bloqueantes a JPA
+// Al estar acotado, como mucho hilosJpa consultas usan la base de datos a la vez y el resto espera en cola
+// sin ocupar hilos de Reactor Netty
+
+@Configuration
+public class ReactivoConfiguracion {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(ReactivoPropiedades propiedades) {
+        return Schedulers.newBoundedElastic(propiedades.getHilosJpa(), propiedades.getColaJpa(), "jpa");
+    }
+}
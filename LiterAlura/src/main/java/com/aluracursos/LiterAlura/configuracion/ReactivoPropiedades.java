@@ -0,0 +1,19 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Parámetros de la API reactiva (prefijo literalura.reactivo)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.reactivo")
+public class ReactivoPropiedades {
+
+    // Hilos dedicados al trabajo bloqueante de JPA; conviene que no supere el tamaño del pool de Hikari
+    private int hilosJpa = 10;
+
+    // Tareas de JPA que pueden esperar turno antes de rechazar nuevas
+    private int colaJpa = 10_000;
+}
@@ -0,0 +1,19 @@
+package com.aluracursos.LiterAlura.configuracion;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Parámetros del registro de varios títulos en una sola llamada (prefijo literalura.registro)
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "literalura.registro")
+public class RegistroPropiedades {
+
+    // Búsquedas en Gutendex en curso a la vez
+    private int concurrencia = 32;
+
+    // Cantidad de libros que se guardan en cada transacción
+    private int tamanoLote = 100;
+}
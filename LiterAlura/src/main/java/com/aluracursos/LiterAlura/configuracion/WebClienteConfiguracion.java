@@ -1,20 +1,65 @@
 package com.aluracursos.LiterAlura.configuracion;
 
+import com.aluracursos.LiterAlura.cliente.MetricasPeticiones;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 // Configuración para el cliente HTTP WebClient
-// Proporciona un builder para crear instancias de WebClient
+// El WebClient.Builder lo proporciona Spring Boot, que ya le añade las métricas de las peticiones
+// (http.client.requests, con los percentiles de latencia configurados en application.properties).
+// Como las URIs se construyen sin plantilla, esas métricas no distinguen endpoints: para eso está gutendex.peticiones
 
 @Configuration
 public class WebClienteConfiguracion {
 
-    //Bean que proporciona un builder para WebClient
-    // @return WebClient.Builder configurado
+    // Cliente compartido para la API de Gutendex
+    // La URL base se puede cambiar con literalura.gutendex.url-base (por ejemplo, para apuntar a un servidor local)
 
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient gutendexWebClient(
+            WebClient.Builder webClientBuilder, GutendexPropiedades propiedades, MeterRegistry registro) {
+        // clone() evita modificar el builder compartido
+        return webClientBuilder.clone()
+                .clientConnector(conector(propiedades))
+                .baseUrl(propiedades.getUrlBase())
+                // Mide la latencia y el estado por endpoint y escribe en el log una muestra de las peticiones
+                .filter(new MetricasPeticiones(registro, propiedades.getMuestreoLog()))
+                .build();
+    }
+
+    // Conector Reactor Netty con pool de conexiones keep-alive, tiempos máximos, gzip y seguimiento de redirecciones
+    public static ReactorClientHttpConnector conector(GutendexPropiedades propiedades) {
+        HttpClient cliente = HttpClient.create(conexiones(propiedades))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) propiedades.getTiempoConexion().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(propiedades.getTiempoRespuesta())
+                // Envía Accept-Encoding: gzip y descomprime la respuesta
+                .compress(true)
+                // gutendex.com redirige, por ejemplo, /books a /books/
+                .followRedirect(true);
+        if (propiedades.isHttp2()) {
+            cliente = cliente.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return new ReactorClientHttpConnector(cliente);
+    }
+
+    // Pool de conexiones propio: el pool por defecto de Reactor Netty solo admite unas pocas
+    // decenas de peticiones en curso y rechaza las que exceden su cola de espera.
+    // Las conexiones inactivas se cierran antes de que lo haga el servidor para no reutilizar una cerrada
+    private static ConnectionProvider conexiones(GutendexPropiedades propiedades) {
+        return ConnectionProvider.builder("gutendex")
+                .maxConnections(propiedades.getMaxConexiones())
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(propiedades.getMaxInactividad())
+                .evictInBackground(propiedades.getMaxInactividad())
+                .metrics(true)
+                .build();
     }
 }
@@ -0,0 +1,240 @@
+package com.aluracursos.LiterAlura.menuUsuario;
+
+import com.aluracursos.LiterAlura.configuracion.LotePropiedades;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.servicio.EjecutorTareas;
+import com.aluracursos.LiterAlura.servicio.ImportacionCatalogoServicio;
+import com.aluracursos.LiterAlura.servicio.LibroDuplicadoException;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modo por lotes: ejecuta los comandos de un archivo (o de la entrada estándar), uno por línea,
+ * sin pasar por el menú. Las líneas se leen a medida que se ejecutan, así que el archivo no se
+ * carga entero, y hasta literalura.lote.trabajadores comandos se ejecutan a la vez en EjecutorTareas.
+ * Cada resultado se escribe en cuanto termina como una línea JSON (NDJSON) con el número de línea
+ * del comando, de modo que el orden de salida no tiene por qué ser el de entrada.
+ * Formato de la entrada:
+ *   Título de un libro                 busca el libro en Gutendex y lo registra
+ *   registrar: Título de un libro      lo mismo, explícito
+ *   autor: Nombre                      autores registrados con ese nombre
+ *   vivos: 1850                        autores vivos en ese año
+ *   estadisticas:                      estadísticas del catálogo registrado
+ *   importar:                          importa el catálogo completo de Gutendex
+ * Las líneas vacías y las que empiezan por # se ignoran.
+ */
+@Component
+@Slf4j
+public class LoteComandos {
+    public static final String OK = "ok";
+    public static final String NO_ENCONTRADO = "no_encontrado";
+    public static final String DUPLICADO = "duplicado";
+    public static final String ERROR = "error";
+    private static final List<String> COMANDOS = List.of("registrar", "autor", "vivos", "estadisticas", "importar");
+
+    private final LiteraturaServicio literaturaServicio;
+    private final ImportacionCatalogoServicio importacionCatalogoServicio;
+    private final EjecutorTareas ejecutorTareas;
+    private final LotePropiedades propiedades;
+    private final ObjectMapper mapper;
+
+    public LoteComandos(
+            LiteraturaServicio literaturaServicio,
+            ImportacionCatalogoServicio importacionCatalogoServicio,
+            EjecutorTareas ejecutorTareas,
+            LotePropiedades propiedades,
+            ObjectMapper mapper) {
+        this.literaturaServicio = literaturaServicio;
+        this.importacionCatalogoServicio = importacionCatalogoServicio;
+        this.ejecutorTareas = ejecutorTareas;
+        this.propiedades = propiedades;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Ejecuta el lote configurado y escribe el resumen en la salida de errores
+     * @return código de salida del proceso: 0 si todos los comandos se ejecutaron sin error, 1 si no
+     */
+    public int ejecutar() {
+        try (Reader entrada = abrirEntrada(); Writer salida = abrirSalida()) {
+            ResumenLote resumen = ejecutar(entrada, salida);
+            System.err.println(resumen);
+            return resumen.errores() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            log.error("No se pudo ejecutar el lote {}: {}", propiedades.getArchivo(), e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Ejecuta los comandos de la entrada y escribe un resultado NDJSON por cada uno
+     */
+    public ResumenLote ejecutar(Reader entrada, Writer salida) {
+        BufferedReader lector = entrada instanceof BufferedReader buffered ? buffered : new BufferedReader(entrada);
+        AtomicLong numeroLinea = new AtomicLong();
+        Contadores contadores = new Contadores();
+        long inicio = System.nanoTime();
+
+        Flux.fromStream(lector.lines())
+                .map(linea -> new Comando(numeroLinea.incrementAndGet(), linea.strip()))
+                .filter(comando -> !comando.texto().isEmpty() && !comando.texto().startsWith("#"))
+                .flatMap(comando -> Mono.fromCallable(() -> ejecutar(comando))
+                        .subscribeOn(ejecutorTareas.scheduler()), Math.max(1, propiedades.getTrabajadores()))
+                // flatMap entrega los resultados de uno en uno, así que se escriben sin sincronizar
+                .doOnNext(resultado -> {
+                    contadores.contar(resultado.estado());
+                    escribir(salida, resultado);
+                })
+                .blockLast();
+
+        return contadores.resumen(Duration.ofNanos(System.nanoTime() - inicio));
+    }
+
+    private ResultadoComando ejecutar(Comando comando) {
+        String nombre = "registrar";
+        String argumento = comando.texto();
+        int dosPuntos = argumento.indexOf(':');
+        if (dosPuntos > 0 && COMANDOS.contains(argumento.substring(0, dosPuntos).strip().toLowerCase(Locale.ROOT))) {
+            nombre = argumento.substring(0, dosPuntos).strip().toLowerCase(Locale.ROOT);
+            argumento = argumento.substring(dosPuntos + 1).strip();
+        }
+
+        long inicio = System.nanoTime();
+        String estado = OK;
+        Object resultado = null;
+        String error = null;
+        try {
+            resultado = switch (nombre) {
+                case "registrar" -> literaturaServicio.buscarYRegistrarLibro(argumento)
+                        .map(LibroResumen::de)
+                        .orElse(null);
+                case "autor" -> literaturaServicio.buscarAutorPorNombre(argumento).stream()
+                        .map(AutorResumen::de)
+                        .toList();
+                case "vivos" -> literaturaServicio.listarAutoresVivos(Integer.parseInt(argumento)).stream()
+                        .map(AutorResumen::de)
+                        .toList();
+                case "estadisticas" -> literaturaServicio.generarEstadisticas();
+                case "importar" -> importacionCatalogoServicio.importarCatalogo().block();
+                default -> throw new IllegalStateException("Comando desconocido: " + nombre);
+            };
+            if (resultado == null) {
+                estado = NO_ENCONTRADO;
+            }
+        } catch (LibroDuplicadoException e) {
+            estado = DUPLICADO;
+        } catch (NumberFormatException e) {
+            estado = ERROR;
+            error = "Número inválido: " + argumento;
+        } catch (RuntimeException e) {
+            estado = ERROR;
+            error = e.getMessage();
+        }
+        return new ResultadoComando(comando.linea(), nombre, argumento, estado, resultado, error,
+                Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+    }
+
+    private void escribir(Writer salida, ResultadoComando resultado) {
+        try {
+            salida.write(mapper.writeValueAsString(resultado));
+            salida.write('\n');
+            salida.flush();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo convertir el resultado a JSON", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Reader abrirEntrada() throws IOException {
+        return LotePropiedades.ENTRADA_ESTANDAR.equals(propiedades.getArchivo()) ?
+                new InputStreamReader(System.in, StandardCharsets.UTF_8) :
+                Files.newBufferedReader(Path.of(propiedades.getArchivo()), StandardCharsets.UTF_8);
+    }
+
+    // La salida estándar no se cierra al terminar
+    private Writer abrirSalida() throws IOException {
+        if (propiedades.getSalida().isBlank()) {
+            return new OutputStreamWriter(System.out, StandardCharsets.UTF_8) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        return Files.newBufferedWriter(Path.of(propiedades.getSalida()), StandardCharsets.UTF_8);
+    }
+
+    private record Comando(long linea, String texto) {
+    }
+
+    /**
+     * Resultado de un comando tal como se escribe en la salida (los campos nulos se omiten)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ResultadoComando(long linea, String comando, String entrada, String estado,
+                                   Object resultado, String error, long milisegundos) {
+    }
+
+    /**
+     * Resumen del lote con su rendimiento
+     */
+    public record ResumenLote(long comandos, long ok, long noEncontrados, long duplicados, long errores,
+                              Duration duracion) {
+
+        public double comandosPorSegundo() {
+            double segundos = duracion.toNanos() / 1_000_000_000.0;
+            return segundos > 0 ? comandos / segundos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Lote terminado: %d comandos en %d ms (%.2f comandos/s) - "
+                            + "%d correctos, %d no encontrados, %d duplicados, %d errores",
+                    comandos, duracion.toMillis(), comandosPorSegundo(), ok, noEncontrados, duplicados, errores);
+        }
+    }
+
+    private static final class Contadores {
+        private long ok;
+        private long noEncontrados;
+        private long duplicados;
+        private long errores;
+
+        void contar(String estado) {
+            switch (estado) {
+                case OK -> ok++;
+                case NO_ENCONTRADO -> noEncontrados++;
+                case DUPLICADO -> duplicados++;
+                default -> errores++;
+            }
+        }
+
+        ResumenLote resumen(Duration duracion) {
+            return new ResumenLote(ok + noEncontrados + duplicados + errores,
+                    ok, noEncontrados, duplicados, errores, duracion);
+        }
+    }
+}
@@ -3,22 +3,31 @@ package com.aluracursos.LiterAlura.menuUsuario;
 
 import com.aluracursos.LiterAlura.modelo.Autor;
 import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.PaginaPorClave;
+import com.aluracursos.LiterAlura.servicio.ImportacionCatalogoServicio;
 import com.aluracursos.LiterAlura.servicio.LiteraturaServicio;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.Function;
+
+import static com.aluracursos.LiterAlura.servicio.LiteraturaServicio.TAMANO_PAGINA_LISTADOS;
 
 // Clase que gestiona el menú interactivo de la aplicación
 
 @Component
 public class Menu {
     private final LiteraturaServicio literaturaServicio;
+    private final ImportacionCatalogoServicio importacionCatalogoServicio;
     private final Scanner scanner;
 
-    public Menu(LiteraturaServicio literaturaServicio) {
+    public Menu(LiteraturaServicio literaturaServicio, ImportacionCatalogoServicio importacionCatalogoServicio) {
         this.literaturaServicio = literaturaServicio;
+        this.importacionCatalogoServicio = importacionCatalogoServicio;
         this.scanner = new Scanner(System.in);
     }
 
@@ -35,8 +44,10 @@ public class Menu {
             System.out.println("7. Ver Top 10 libros más descargados");
             System.out.println("8. Buscar autor por nombre");
             System.out.println("9. Listar autores por rango de nacimiento");
+            System.out.println("10. Importar catálogo completo de Gutendex");
+            System.out.println("11. Ver Top 10 libros registrados más descargados");
             System.out.println("0. Salir");
-            System.out.print("Seleccione una opción del 0 al 9: ");
+            System.out.print("Seleccione una opción del 0 al 11: ");
 
             opcion = obtenerOpcion();
             procesarOpcion(opcion);
@@ -64,6 +75,8 @@ public class Menu {
                 case 7 -> mostrarTop10Libros();
                 case 8 -> buscarAutorPorNombre();
                 case 9 -> listarAutoresPorRangoNacimiento();
+                case 10 -> importarCatalogo();
+                case 11 -> mostrarTop10Registrados();
                 case 0 -> System.out.println("Saliendo de la aplicación");
                 default -> System.out.println("Opción inválida");
             }
@@ -87,11 +100,21 @@ public class Menu {
     }
 
     private void listarLibros() {
-        literaturaServicio.listarLibros().forEach(System.out::println);
+        imprimirPaginas(desde -> literaturaServicio.listarLibros(desde, TAMANO_PAGINA_LISTADOS));
     }
 
     private void listarAutores() {
-        literaturaServicio.listarAutores().forEach(System.out::println);
+        imprimirPaginas(desde -> literaturaServicio.listarAutores(desde, TAMANO_PAGINA_LISTADOS));
+    }
+
+    // Imprime un listado página a página para no cargar el catálogo entero en memoria
+    private static <T> void imprimirPaginas(Function<Long, PaginaPorClave<T>> pedirPagina) {
+        PaginaPorClave<T> pagina = pedirPagina.apply(null);
+        pagina.elementos().forEach(System.out::println);
+        while (pagina.haySiguiente()) {
+            pagina = pedirPagina.apply(pagina.siguiente());
+            pagina.elementos().forEach(System.out::println);
+        }
     }
 
     private void listarAutoresVivos() {
@@ -105,26 +128,32 @@ public class Menu {
     }
 
     private void listarLibrosPorIdioma() {
+        // Los idiomas con libros registrados, con cuántos tiene cada uno, salen del catálogo en memoria
+        Map<String, Long> cantidades = literaturaServicio.contarLibrosPorIdioma();
+        List<String> idiomas = List.copyOf(cantidades.keySet());
+        if (idiomas.isEmpty()) {
+            System.out.println("No hay libros registrados");
+            return;
+        }
         System.out.println("\nIdiomas disponibles:");
-        System.out.println("1. Español - es");
-        System.out.println("2. Inglés - en");
-        System.out.println("3. Francés - fr");
-        System.out.println("4. Portugués - pt");
-        System.out.print("Seleccione un idioma (1-4): ");
+        for (int i = 0; i < idiomas.size(); i++) {
+            System.out.println((i + 1) + ". " + idiomas.get(i) + " (" + cantidades.get(idiomas.get(i)) + " libros)");
+        }
+        System.out.print("Seleccione un idioma (1-" + idiomas.size() + " o su código): ");
 
+        String respuesta = scanner.nextLine().strip();
+        String idioma;
         try {
-            int idiomaOpcion = Integer.parseInt(scanner.nextLine());
-            String idioma = switch (idiomaOpcion) {
-                case 1 -> "es";
-                case 2 -> "en";
-                case 3 -> "fr";
-                case 4 -> "pt";
-                default -> throw new IllegalArgumentException("Opción de idioma inválida");
-            };
-            literaturaServicio.listarLibrosPorIdioma(idioma).forEach(System.out::println);
+            int idiomaOpcion = Integer.parseInt(respuesta);
+            if (idiomaOpcion < 1 || idiomaOpcion > idiomas.size()) {
+                throw new IllegalArgumentException("Opción de idioma inválida");
+            }
+            idioma = idiomas.get(idiomaOpcion - 1);
         } catch (NumberFormatException e) {
-            System.out.println("Por favor, ingrese un número válido");
+            idioma = respuesta.toLowerCase(Locale.ROOT);
         }
+        String seleccionado = idioma;
+        imprimirPaginas(desde -> literaturaServicio.listarLibrosPorIdioma(seleccionado, desde, TAMANO_PAGINA_LISTADOS));
     }
 
     private void mostrarEstadisticas() {
@@ -141,14 +170,25 @@ public class Menu {
     }
 
     private void mostrarTop10Libros() {
+        System.out.print("Idioma (es, en, fr, pt; vacío para todos): ");
+        String idioma = scanner.nextLine().strip();
         System.out.println("\n=== TOP 10 LIBROS MÁS DESCARGADOS ===");
-        literaturaServicio.obtenerTop10Libros()
+        literaturaServicio.obtenerTopLibros(idioma, 10)
                 .forEach(libro ->
                         System.out.println(libro.getTitulo() +
                                 " por " + libro.getAutor() +
                                 " (" + libro.getDescargas() + " descargas)"));
     }
 
+    private void mostrarTop10Registrados() {
+        System.out.println("\n=== TOP 10 LIBROS REGISTRADOS MÁS DESCARGADOS ===");
+        literaturaServicio.listarLibrosMasDescargados(10)
+                .forEach(libro ->
+                        System.out.println(libro.titulo() +
+                                " por " + libro.autor() +
+                                " (" + libro.descargas() + " descargas)"));
+    }
+
     private void buscarAutorPorNombre() {
         System.out.print("Ingrese el nombre del autor: ");
         String nombre = scanner.nextLine();
@@ -188,4 +228,10 @@ public class Menu {
         }
     }
 
+    private void importarCatalogo() {
+        System.out.println("Importando el catálogo de Gutendex, esto puede tardar varios minutos...");
+        var resultado = importacionCatalogoServicio.importarCatalogo().block();
+        System.out.println("Importación finalizada: " + resultado);
+    }
+
 }
\ No newline at end of file
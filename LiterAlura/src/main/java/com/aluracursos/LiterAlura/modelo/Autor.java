@@ -1,26 +1,49 @@
 package com.aluracursos.LiterAlura.modelo;
 
+import com.aluracursos.LiterAlura.configuracion.CacheHibernateConfiguracion;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 //Entidad que representa un autor en la base de datos
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheHibernateConfiguracion.REGION_AUTORES)
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
+// Un autor por nombre normalizado: "Austen, Jane" y "austen,  JANE" son el mismo autor.
+// El índice por años de vida sirve a las consultas SQL "vivos en el año X" y "nacidos entre A y B";
+// la aplicación las responde con el árbol de intervalos de IndiceBusqueda
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_autor_nombre_normalizado", columnNames = "nombre_normalizado"),
+        indexes = @Index(name = "idx_autor_nacimiento_muerte", columnList = "anio_nacimiento, anio_muerte"))
 public class Autor {
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Secuencia con asignación por bloques (optimizador pooled) para permitir JDBC batching;
+    // con IDENTITY Hibernate tiene que insertar fila por fila para conocer el id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "autor_seq")
+    @SequenceGenerator(name = "autor_seq", sequenceName = "autor_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre del autor no puede estar vacío")
     private String nombre;
 
+    // Clave de búsqueda del autor (ver normalizarNombre); se calcula al guardar
+    @JsonIgnore
+    @Column(name = "nombre_normalizado")
+    private String nombreNormalizado;
+
     private boolean vivo;
 
     @Min(value = 0, message = "El año de nacimiento no puede ser negativo")
@@ -29,13 +52,30 @@ public class Autor {
     @Min(value = 0, message = "El año de muerte no puede ser negativo")
     private int anioMuerte;
 
+    public Autor(Long id, String nombre, boolean vivo, int anioNacimiento, int anioMuerte) {
+        this.id = id;
+        this.nombre = nombre;
+        this.vivo = vivo;
+        this.anioNacimiento = anioNacimiento;
+        this.anioMuerte = anioMuerte;
+    }
+
+    /**
+     * Normaliza un nombre de autor: forma NFC, espacios colapsados y minúsculas
+     */
+    public static String normalizarNombre(String nombre) {
+        String compuesto = Normalizer.normalize(nombre, Normalizer.Form.NFC);
+        return ESPACIOS.matcher(compuesto.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
     @PrePersist
     @PreUpdate
-    private void validarFechas() {
+    private void validarYCompletar() {
         if (anioMuerte > 0 && anioMuerte < anioNacimiento) {
             throw new IllegalStateException("El año de muerte no puede ser anterior al año de nacimiento");
         }
         vivo = anioMuerte == 0;
+        nombreNormalizado = nombre == null ? null : normalizarNombre(nombre);
     }
 }
 
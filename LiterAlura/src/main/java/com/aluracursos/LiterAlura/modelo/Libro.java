@@ -1,42 +1,104 @@
 // Clase Libro
 package com.aluracursos.LiterAlura.modelo;
 
+import com.aluracursos.LiterAlura.configuracion.CacheHibernateConfiguracion;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
 
 //Entidad que representa un libro en la base de datos
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheHibernateConfiguracion.REGION_LIBROS)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+// Índice para paginar por clave los listados por idioma (WHERE idioma = ? AND id > ? ORDER BY id)
+// y un libro de Gutendex como mucho una vez
+@Table(indexes = {
+        @Index(name = "idx_libro_idioma_id", columnList = "idioma, id"),
+        @Index(name = "uk_libro_gutendex_id", columnList = "gutendex_id", unique = true)})
+// Plan de carga para traer los libros junto con sus autores en una sola consulta
+@NamedEntityGraph(name = Libro.GRAFO_AUTORES, attributeNodes = @NamedAttributeNode("autores"))
 public class Libro {
+    public static final String GRAFO_AUTORES = "Libro.autores";
+    public static final String PATRON_IDIOMA = "^[a-z]{2,3}$";
+
+    // Secuencia con asignación por bloques (optimizador pooled) para permitir JDBC batching;
+    // con IDENTITY Hibernate tiene que insertar fila por fila para conocer el id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "libro_seq")
+    @SequenceGenerator(name = "libro_seq", sequenceName = "libro_seq", allocationSize = 50)
     private Long id;
 
+    // Id del libro en Gutendex (el número de Project Gutenberg), para no guardarlo dos veces al repetir
+    // una importación. Nulo en los libros registrados antes de que se guardara
+    @Column(name = "gutendex_id")
+    private Long gutendexId;
+
     @NotBlank(message = "El título no puede estar vacío")
     private String titulo;
 
-    @Pattern(regexp = "^(es|en|fr|pt)$", message = "Idioma no válido")
+    // Idioma principal (el primero que da Gutendex): código ISO 639 de dos o tres letras
+    @Pattern(regexp = PATRON_IDIOMA, message = "Idioma no válido")
     private String idioma;
 
+    // Todos los idiomas que da Gutendex, sin repetir y con el principal primero.
+    // En la base de datos la clave de libro_idioma empieza por el idioma, así que los libros
+    // de cada idioma quedan juntos y en orden de id
+    @ElementCollection
+    @CollectionTable(name = "libro_idioma",
+            joinColumns = @JoinColumn(name = "libro_id"),
+            indexes = @Index(name = "idx_libro_idioma_libro", columnList = "libro_id"))
+    @Column(name = "idioma", length = 3, nullable = false)
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<@Pattern(regexp = PATRON_IDIOMA, message = "Idioma no válido") String> idiomas = new ArrayList<>();
+
+    // Nombre del autor principal, copiado de autores para los listados y el catálogo en memoria,
+    // que así no necesitan unir tablas
     @NotBlank(message = "El autor no puede estar vacío")
     private String autor;
 
     @Min(value = 0, message = "El número de descargas no puede ser negativo")
     private int descargas;
 
+    // Todos los autores que da Gutendex, en su orden (el primero es el principal).
+    // Perezosa: se trae con el grafo GRAFO_AUTORES o, si se recorre sin él, en bloques de hasta 50 libros
+    @ManyToMany
+    @JoinTable(name = "libro_autor",
+            joinColumns = @JoinColumn(name = "libro_id"),
+            inverseJoinColumns = @JoinColumn(name = "autor_id"),
+            indexes = @Index(name = "idx_libro_autor_autor", columnList = "autor_id"))
+    @OrderColumn(name = "posicion")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheHibernateConfiguracion.REGION_AUTORES_DE_LIBRO)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Autor> autores = new ArrayList<>();
+
     public Libro(String titulo, String idioma, String autor, int descargas) {
         this.titulo = titulo;
         this.idioma = idioma;
         this.autor = autor;
         this.descargas = descargas;
+        if (idioma != null) {
+            this.idiomas.add(idioma);
+        }
     }
 
     public Libro(String title, String s, String autorNombre, Integer downloadCount) {
@@ -0,0 +1,6 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+// Proyección de solo lectura con el id y el nombre de un autor
+
+public record AutorIdNombre(Long id, String nombre) {
+}
@@ -0,0 +1,6 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+// Proyección de solo lectura con un autor de un libro (una fila de libro_autor)
+
+public record AutorLibro(Long libroId, Long autorId) {
+}
@@ -0,0 +1,13 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+
+// Proyección de solo lectura de un autor para los listados
+
+public record AutorResumen(Long id, String nombre, boolean vivo, int anioNacimiento, int anioMuerte) {
+
+    public static AutorResumen de(Autor autor) {
+        return new AutorResumen(autor.getId(), autor.getNombre(), autor.isVivo(),
+                autor.getAnioNacimiento(), autor.getAnioMuerte());
+    }
+}
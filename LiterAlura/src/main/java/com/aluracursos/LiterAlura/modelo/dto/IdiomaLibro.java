@@ -0,0 +1,6 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+// Proyección de solo lectura con un idioma de un libro (una fila de libro_idioma)
+
+public record IdiomaLibro(Long libroId, String idioma) {
+}
@@ -0,0 +1,14 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+import com.aluracursos.LiterAlura.modelo.Libro;
+
+// Proyección de solo lectura de un libro para los listados: no es una entidad gestionada,
+// así que Hibernate no guarda copias para detectar cambios ni la retiene en el contexto de persistencia
+
+public record LibroResumen(Long id, String titulo, String idioma, String autor, int descargas) {
+
+    // Las entidades no se serializan directamente: la relación libro-autor es perezosa
+    public static LibroResumen de(Libro libro) {
+        return new LibroResumen(libro.getId(), libro.getTitulo(), libro.getIdioma(), libro.getAutor(), libro.getDescargas());
+    }
+}
@@ -0,0 +1,15 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+import java.util.List;
+
+// Página de un listado con paginación por clave (keyset): en lugar de un OFFSET se guarda el último id
+// devuelto y la página siguiente se pide con "id > siguiente", que usa el índice de la clave primaria
+// y cuesta lo mismo sea cual sea la página
+
+public record PaginaPorClave<T>(List<T> elementos, Long siguiente) {
+
+    // Indica si puede haber más elementos después de esta página
+    public boolean haySiguiente() {
+        return siguiente != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.aluracursos.LiterAlura.modelo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Resultado del registro de un título dentro de un registro de varios títulos (los campos nulos se omiten en JSON)
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultadoRegistro(String titulo, Estado estado, LibroResumen libro, String error) {
+
+    public enum Estado {
+        // Encontrado en Gutendex y guardado
+        REGISTRADO,
+        // Ya registrado, repetido en la misma llamada o resuelto al mismo libro que otro título
+        DUPLICADO,
+        // Gutendex no devolvió ningún libro
+        NO_ENCONTRADO,
+        // Título vacío, libro inválido o fallo de Gutendex o de la base de datos
+        ERROR
+    }
+
+    public static ResultadoRegistro registrado(String titulo, LibroResumen libro) {
+        return new ResultadoRegistro(titulo, Estado.REGISTRADO, libro, null);
+    }
+
+    public static ResultadoRegistro de(String titulo, Estado estado) {
+        return new ResultadoRegistro(titulo, estado, null, null);
+    }
+
+    public static ResultadoRegistro error(String titulo, String error) {
+        return new ResultadoRegistro(titulo, Estado.ERROR, null, error);
+    }
+}
@@ -9,9 +9,10 @@ import lombok.Data;
 public class GutendexAutor {
     private String name;
 
-    @JsonProperty("Año de nacimiento")
+    // Gutendex envía los años como números (negativos antes de Cristo) o null si no se conocen
+    @JsonProperty("birth_year")
     private String birthYear;
 
-    @JsonProperty("Año de muerte")
+    @JsonProperty("death_year")
     private String deathYear;
 }
@@ -13,6 +13,6 @@ public class GutendexLibro {
     private List<GutendexAutor> authors;
     private List<String> languages;
 
-    @JsonProperty("Numero de descargas")
+    @JsonProperty("download_count")
     private Integer downloadCount;
 }
@@ -1,23 +1,57 @@
 package com.aluracursos.LiterAlura.repositorio;
 
 import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 //Repositorio para realizar operaciones CRUD con la entidad Autor
 
-public interface AutorRepositorio extends JpaRepository<Autor, Long> {
+public interface AutorRepositorio extends JpaRepository<Autor, Long>, RepositorioLotes<Autor>, RepositorioCacheado<Autor> {
 
-    // Búsqueda de autores vivos en un año específico
-    List<Autor> findByVivoTrueAndAnioNacimientoLessThanEqualAndAnioMuerteGreaterThanEqual(int anioNacimiento, int anioMuerte);
+    // Autores de los ids en ese orden, desde la caché de segundo nivel si están (ver RepositorioCacheado)
+    default List<Autor> cargarPorIds(List<Long> ids) {
+        return cargarPorIds(Autor.class, ids);
+    }
 
-    // Búsqueda de autor por nombre
-    Optional<Autor> findByNombre(String nombre);
+    // Id de un autor por nombre normalizado (ver Autor.normalizarNombre), sin cargar la entidad.
+    // Usa el índice único uk_autor_nombre_normalizado
+    @Query("select a.id from Autor a where a.nombreNormalizado = :nombreNormalizado")
+    Optional<Long> findIdByNombreNormalizado(@Param("nombreNormalizado") String nombreNormalizado);
 
-    // Búsqueda de autores por nombre parcial
-    List<Autor> findByNombreContainingIgnoreCase(String nombre);
+    // Autores con id mayor que el dado, en orden de id (paginación por clave).
+    // El tipo es la proyección que se quiere (AutorIdNombre para la caché y el índice, AutorResumen para los listados).
+    // Las páginas se guardan en la caché de consultas hasta que se escribe en la tabla autor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit, Class<T> tipo);
 
-    // Búsqueda de autores por rango de años de nacimiento
-    List<Autor> findByAnioNacimientoBetween(int anioInicio, int anioFin);
+    // Recorrido completo con un cursor (ver LibroRepositorio.streamAllByOrderByIdAsc)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LibroRepositorio.FETCH_SIZE_STREAM))
+    Stream<AutorResumen> streamAllByOrderByIdAsc();
+
+    // Inserta el autor solo si no existe otro con el mismo nombre normalizado (uk_autor_nombre_normalizado).
+    // No falla ante una inserción concurrente, así que no aborta la transacción en curso.
+    // Devuelve 1 si se insertó y 0 si ya existía.
+    // Declara la tabla que modifica para que Hibernate solo invalide las cachés de autores
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "autor"))
+    @Query(value = "INSERT INTO autor (id, nombre, nombre_normalizado, vivo, anio_nacimiento, anio_muerte) " +
+            "VALUES (nextval('autor_seq'), :nombre, :nombreNormalizado, :vivo, :anioNacimiento, :anioMuerte) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertarSiNoExiste(@Param("nombre") String nombre,
+                           @Param("nombreNormalizado") String nombreNormalizado,
+                           @Param("vivo") boolean vivo,
+                           @Param("anioNacimiento") int anioNacimiento,
+                           @Param("anioMuerte") int anioMuerte);
 }
\ No newline at end of file
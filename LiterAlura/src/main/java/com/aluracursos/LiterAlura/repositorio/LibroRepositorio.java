@@ -1,15 +1,61 @@
 package com.aluracursos.LiterAlura.repositorio;
 
 import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.AutorLibro;
+import com.aluracursos.LiterAlura.modelo.dto.IdiomaLibro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 // Repositorio para realizar operaciones CRUD con la entidad Libro
-public interface LibroRepositorio extends JpaRepository<Libro, Long> {
+public interface LibroRepositorio extends JpaRepository<Libro, Long>, RepositorioLotes<Libro>, RepositorioCacheado<Libro> {
+    // Filas que trae el driver en cada viaje a la base de datos al recorrer un Stream
+    String FETCH_SIZE_STREAM = "500";
 
-    // Búsqueda de libros por título parcial
-    List<Libro> findByTituloContainingIgnoreCase(String titulo);
+    // Ids de Gutendex de la colección que ya están guardados (usa el índice uk_libro_gutendex_id)
+    @Query("select l.gutendexId from Libro l where l.gutendexId in :ids")
+    List<Long> findGutendexIdsIn(@Param("ids") Collection<Long> ids);
 
-    // Búsqueda de libros por idioma
-    List<Libro> findByIdioma(String idioma);
+    boolean existsByGutendexId(Long gutendexId);
+
+    // Libros con sus autores en una sola consulta (JOIN con libro_autor y autor), sin N+1
+    @EntityGraph(Libro.GRAFO_AUTORES)
+    List<Libro> findConAutoresByIdIn(Collection<Long> ids);
+
+    // Libros con id mayor que el dado, en orden de id (paginación por clave).
+    // El tipo es la proyección que se quiere (LibroResumen para el índice y los listados).
+    // Las páginas se guardan en la caché de consultas hasta que se escribe en la tabla libro
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit, Class<T> tipo);
+
+    // Recorrido completo con un cursor: el driver trae las filas de FETCH_SIZE_STREAM en FETCH_SIZE_STREAM.
+    // Necesita una transacción abierta (en PostgreSQL el fetch size solo se aplica sin autocommit)
+    // y hay que cerrar el Stream al terminar
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_STREAM))
+    Stream<LibroResumen> streamAllByOrderByIdAsc();
+
+    // Recorrido de los libros de un idioma, principal o no (clave de libro_idioma, que empieza por el idioma)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_STREAM))
+    @Query("select new com.aluracursos.LiterAlura.modelo.dto.LibroResumen(l.id, l.titulo, l.idioma, l.autor, l.descargas) " +
+            "from Libro l join l.idiomas i where i = :idioma order by l.id")
+    Stream<LibroResumen> streamByIdiomaOrderByIdAsc(@Param("idioma") String idioma);
+
+    // Todos los idiomas de los libros con id en (desdeId, hastaId], para cargar el catálogo en memoria por rangos
+    @Query("select new com.aluracursos.LiterAlura.modelo.dto.IdiomaLibro(l.id, i) from Libro l join l.idiomas i " +
+            "where l.id > :desdeId and l.id <= :hastaId")
+    List<IdiomaLibro> findIdiomasByIdEntre(@Param("desdeId") long desdeId, @Param("hastaId") long hastaId);
+
+    // Ids de los autores de los libros con id en (desdeId, hastaId], para las estadísticas por autor del catálogo en memoria
+    @Query("select new com.aluracursos.LiterAlura.modelo.dto.AutorLibro(l.id, a.id) from Libro l join l.autores a " +
+            "where l.id > :desdeId and l.id <= :hastaId")
+    List<AutorLibro> findAutoresByIdEntre(@Param("desdeId") long desdeId, @Param("hastaId") long hastaId);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import java.util.List;
+
+// Fragmento de repositorio para cargar entidades por id pasando por la caché de segundo nivel
+// Lo implementan LibroRepositorio y AutorRepositorio
+
+public interface RepositorioCacheado<T> {
+
+    // Entidades de los ids en el mismo orden, sin las que no existen. Las que están en la caché
+    // de segundo nivel no se consultan; el resto se pide a la base de datos en bloques con IN.
+    // findAllById, en cambio, es una consulta JPQL y siempre va a la base de datos
+    <S extends T> List<S> cargarPorIds(Class<S> tipo, List<Long> ids);
+}
@@ -0,0 +1,33 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+// Implementación del fragmento RepositorioCacheado con la carga múltiple de Hibernate (multiLoad)
+
+public class RepositorioCacheadoImpl<T> implements RepositorioCacheado<T> {
+    private static final int MAX_IDS_POR_CONSULTA = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public <S extends T> List<S> cargarPorIds(Class<S> tipo, List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(tipo)
+                // Sin un CacheMode explícito multiLoad no consulta la caché de segundo nivel
+                .with(CacheMode.NORMAL)
+                .withBatchSize(MAX_IDS_POR_CONSULTA)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
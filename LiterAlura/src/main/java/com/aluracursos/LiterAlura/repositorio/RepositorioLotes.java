@@ -0,0 +1,14 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import java.util.List;
+
+// Fragmento de repositorio para inserciones masivas con JDBC batching
+// Lo implementan LibroRepositorio y AutorRepositorio
+
+public interface RepositorioLotes<T> {
+
+    // Guarda las entidades en lotes de hibernate.jdbc.batch_size, vaciando y limpiando
+    // el contexto de persistencia después de cada lote para que no crezca sin límite.
+    // Las entidades devueltas quedan desconectadas (detached) del contexto de persistencia.
+    <S extends T> List<S> saveAllBatched(Iterable<S> entidades);
+}
@@ -0,0 +1,46 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Implementación del fragmento RepositorioLotes usando directamente el EntityManager
+
+public class RepositorioLotesImpl<T> implements RepositorioLotes<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanoLote;
+
+    @Override
+    @Transactional
+    public <S extends T> List<S> saveAllBatched(Iterable<S> entidades) {
+        List<S> guardadas = new ArrayList<>();
+        int pendientes = 0;
+        for (S entidad : entidades) {
+            // Las entidades sin id son nuevas; el resto se fusiona como hace save()
+            if (entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entidad) == null) {
+                entityManager.persist(entidad);
+                guardadas.add(entidad);
+            } else {
+                guardadas.add(entityManager.merge(entidad));
+            }
+
+            // Cada lote completo se envía a la base de datos y se libera de la caché de primer nivel
+            if (++pendientes == tamanoLote) {
+                entityManager.flush();
+                entityManager.clear();
+                pendientes = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return guardadas;
+    }
+}
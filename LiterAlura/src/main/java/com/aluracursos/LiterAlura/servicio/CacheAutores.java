@@ -0,0 +1,137 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.dto.AutorIdNombre;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.repositorio.AutorRepositorio;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Caché concurrente y acotada de nombre de autor (normalizado) a id.
+ * Evita consultar la base de datos por cada libro importado: en el caso común resolver
+ * un autor es un acierto en memoria. Los fallos usan una inserción "insert-or-get"
+ * respaldada por el índice único sobre el nombre normalizado (la misma clave que la caché),
+ * por lo que dos hilos (o dos instancias) que registran el mismo autor a la vez, aunque
+ * escriban el nombre de forma distinta, terminan con una sola fila.
+ * Las consultas e inserciones se hacen fuera de la caché, sin bloquear a otros hilos, y un id
+ * solo se guarda en ella cuando su fila está confirmada: si la transacción que insertó el autor
+ * se revierte, la caché no se queda con un id que no existe.
+ * Sus aciertos, fallos y tamaño se publican como métricas cache.* con cache=autores.
+ */
+@Component
+@Slf4j
+public class CacheAutores implements MeterBinder {
+    private static final int TAMANO_PAGINA_PRECARGA = 1_000;
+
+    private final AutorRepositorio autorRepository;
+    private final Cache<String, Long> ids;
+    private final int maxEntradas;
+
+    public CacheAutores(
+            AutorRepositorio autorRepository,
+            @Value("${literalura.autores.cache.max-entradas:100000}") int maxEntradas) {
+        this.autorRepository = autorRepository;
+        this.maxEntradas = maxEntradas;
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Normaliza un nombre para usarlo como clave (ver Autor.normalizarNombre)
+     */
+    public static String normalizar(String nombre) {
+        return Autor.normalizarNombre(nombre);
+    }
+
+    /**
+     * Devuelve el id del autor, creándolo en la base de datos si todavía no existe
+     */
+    public Long obtenerOCrear(GutendexAutor gutendexAutor) {
+        String clave = normalizar(gutendexAutor.getName());
+        Long id = ids.getIfPresent(clave);
+        if (id != null) {
+            return id;
+        }
+
+        id = buscarOInsertar(gutendexAutor, clave);
+        guardarAlConfirmar(clave, id);
+        return id;
+    }
+
+    private Long buscarOInsertar(GutendexAutor gutendexAutor, String clave) {
+        return autorRepository.findIdByNombreNormalizado(clave).orElseGet(() -> {
+            Autor autor = ConversorGutendex.aAutor(gutendexAutor);
+            // Si otro hilo lo insertó antes, ON CONFLICT DO NOTHING no inserta nada y se lee su id
+            autorRepository.insertarSiNoExiste(autor.getNombre(), clave,
+                    autor.isVivo(), autor.getAnioNacimiento(), autor.getAnioMuerte());
+            return autorRepository.findIdByNombreNormalizado(clave)
+                    .orElseThrow(() -> new IllegalStateException("No se pudo registrar el autor " + autor.getNombre()));
+        });
+    }
+
+    // Dentro de una transacción la fila puede ser todavía de esta transacción (y revertirse):
+    // el id se guarda en la caché cuando se confirma
+    private void guardarAlConfirmar(String clave, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.put(clave, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.put(clave, id);
+            }
+        });
+    }
+
+    /**
+     * Precarga la caché con los autores existentes al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        int cargados = 0;
+        long ultimoId = 0;
+        while (cargados < maxEntradas) {
+            List<AutorIdNombre> autores = autorRepository.findByIdGreaterThanOrderByIdAsc(
+                    ultimoId, Limit.of(TAMANO_PAGINA_PRECARGA), AutorIdNombre.class);
+            for (AutorIdNombre autor : autores) {
+                ids.put(normalizar(autor.nombre()), autor.id());
+                ultimoId = autor.id();
+            }
+            cargados += autores.size();
+            if (autores.size() < TAMANO_PAGINA_PRECARGA) {
+                break;
+            }
+        }
+        log.info("Caché de autores precargada con {} autores", cargados);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        CaffeineCacheMetrics.monitor(registro, ids, "autores");
+    }
+
+    public long tamano() {
+        return ids.estimatedSize();
+    }
+
+    public void limpiar() {
+        ids.invalidateAll();
+    }
+}
@@ -0,0 +1,183 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.configuracion.EscrituraPropiedades;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de escritura entre las búsquedas en Gutendex y la base de datos.
+ * Quien registra un libro lo deja en una cola acotada y un único hilo escritor guarda lo que
+ * haya acumulado (hasta literalura.escritura.tamano-lote libros) en una transacción corta con
+ * guardarLote. Así ninguna conexión del pool queda reservada durante una petición HTTP y, con
+ * muchos registros a la vez, cada transacción guarda varios libros.
+ * Con la cola llena, encolar espera turno (backpressure sobre las búsquedas).
+ * Si un lote falla por un error transitorio se reintenta con espera exponencial; si aun así
+ * falla, o el error no es transitorio, sus libros se guardan de uno en uno para que solo
+ * fallen los que dan error. La cola vive en memoria: el hilo escritor arranca cuando el bean
+ * está listo (iniciar) y al cerrar la aplicación termina de escribir lo pendiente (destroy).
+ */
+@Component
+@Slf4j
+public class ColaEscritura implements DisposableBean, MeterBinder {
+    private static final long ESPERA_COLA_MS = 100;
+    private static final long ESPERA_CIERRE_MS = 30_000;
+
+    private final PersistenciaLibrosServicio persistenciaLibros;
+    private final EscrituraPropiedades propiedades;
+    private final BlockingQueue<Pendiente> cola;
+    private Thread escritor;
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong reintentos = new AtomicLong();
+    private volatile boolean cerrada;
+
+    public ColaEscritura(PersistenciaLibrosServicio persistenciaLibros, EscrituraPropiedades propiedades) {
+        this.persistenciaLibros = persistenciaLibros;
+        this.propiedades = propiedades;
+        this.cola = new ArrayBlockingQueue<>(Math.max(1, propiedades.getCapacidad()));
+    }
+
+    // Arranca el hilo escritor; lo que se encole antes espera en la cola
+    @PostConstruct
+    public synchronized void iniciar() {
+        if (escritor == null) {
+            escritor = Thread.ofPlatform().name("escritor-libros").daemon().start(this::escribir);
+        }
+    }
+
+    /**
+     * Deja el libro en la cola; el resultado termina cuando el libro está guardado
+     * @throws IllegalArgumentException si el libro no supera la validación
+     * @throws IllegalStateException si la cola sigue llena pasado literalura.escritura.espera-maxima
+     */
+    public CompletableFuture<Libro> encolar(GutendexLibro libro) {
+        // Se valida antes de encolar para que guardarLote no omita ninguno y sus libros coincidan uno a uno
+        ConversorGutendex.aLibro(libro);
+        if (cerrada) {
+            throw new IllegalStateException("La cola de escritura está cerrada");
+        }
+        Pendiente pendiente = new Pendiente(libro, new CompletableFuture<>());
+        try {
+            if (!cola.offer(pendiente, propiedades.getEsperaMaxima().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("La cola de escritura está llena");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando sitio en la cola de escritura", e);
+        }
+        return pendiente.resultado();
+    }
+
+    /**
+     * Libros esperando a guardarse
+     */
+    public int pendientes() {
+        return cola.size();
+    }
+
+    // Bucle del hilo escritor: espera el primer libro y se lleva también los que ya estén en la cola
+    private void escribir() {
+        int tamanoLote = Math.max(1, propiedades.getTamanoLote());
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (!cerrada || !cola.isEmpty()) {
+            try {
+                Pendiente primero = cola.poll(ESPERA_COLA_MS, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                guardar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el escritor de libros: {}", e.getMessage(), e);
+                lote.forEach(pendiente -> pendiente.resultado().completeExceptionally(e));
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void guardar(List<Pendiente> lote) throws InterruptedException {
+        long espera = propiedades.getEsperaReintento().toMillis();
+        for (int intento = 1; ; intento++) {
+            try {
+                List<Libro> guardados = persistenciaLibros.guardarLote(lote.stream().map(Pendiente::libro).toList());
+                lotes.incrementAndGet();
+                for (int i = 0; i < lote.size(); i++) {
+                    lote.get(i).resultado().complete(guardados.get(i));
+                }
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException | CannotCreateTransactionException e) {
+                if (intento >= propiedades.getMaxIntentos()) {
+                    log.warn("El lote de {} libros falló {} veces: {}", lote.size(), intento, e.getMessage());
+                    break;
+                }
+                reintentos.incrementAndGet();
+                log.warn("Error transitorio guardando {} libros, reintento en {} ms: {}", lote.size(), espera, e.getMessage());
+                Thread.sleep(espera);
+                espera *= 2;
+            } catch (RuntimeException e) {
+                log.warn("No se pudo guardar el lote de {} libros: {}", lote.size(), e.getMessage());
+                break;
+            }
+        }
+
+        // Uno a uno para aislar los libros que fallan
+        for (Pendiente pendiente : lote) {
+            try {
+                pendiente.resultado().complete(persistenciaLibros.guardarLibro(pendiente.libro()));
+            } catch (RuntimeException e) {
+                pendiente.resultado().completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        Gauge.builder("literalura.escritura.pendientes", cola, BlockingQueue::size)
+                .description("Libros esperando en la cola de escritura")
+                .register(registro);
+        Gauge.builder("literalura.escritura.capacidad", () -> propiedades.getCapacidad())
+                .register(registro);
+        // Contadores de función: crecen aunque el registro se cree después que la cola
+        registro.more().counter("literalura.escritura.lotes", List.of(), lotes, AtomicLong::get);
+        registro.more().counter("literalura.escritura.reintentos", List.of(), reintentos, AtomicLong::get);
+    }
+
+    // Deja de aceptar libros y espera a que el escritor guarde los que quedan en la cola
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        cerrada = true;
+        if (escritor == null) {
+            return;
+        }
+        escritor.join(ESPERA_CIERRE_MS);
+        if (escritor.isAlive()) {
+            log.warn("Quedan {} libros sin guardar al cerrar la cola de escritura", cola.size());
+            escritor.interrupt();
+        }
+    }
+
+    private record Pendiente(GutendexLibro libro, CompletableFuture<Libro> resultado) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte los objetos recibidos de Gutendex a las entidades del modelo.
+ * No accede a la base de datos, por lo que se puede usar tanto en la búsqueda
+ * individual como en la importación masiva.
+ */
+@Slf4j
+public final class ConversorGutendex {
+
+    public static final String AUTOR_DESCONOCIDO = "Desconocido";
+    private static final Pattern IDIOMA = Pattern.compile(Libro.PATRON_IDIOMA);
+
+    private ConversorGutendex() {
+    }
+
+    /**
+     * Valida un libro de Gutendex y lo convierte a nuestro modelo
+     * @throws IllegalArgumentException si falta el título, el autor o un idioma válido
+     */
+    public static Libro aLibro(GutendexLibro gutendexBook) {
+        // Validar título
+        String titulo = gutendexBook.getTitle();
+        if (titulo == null || titulo.isBlank()) {
+            throw new IllegalArgumentException("El título del libro no puede estar vacío.");
+        }
+
+        // Validar idioma: el principal es el primero que da Gutendex
+        List<String> idiomas = idiomas(gutendexBook);
+        if (idiomas.isEmpty()) {
+            throw new IllegalArgumentException("El idioma del libro no puede estar vacío.");
+        }
+
+        // Validar autor
+        String autorNombre = nombreAutorPrincipal(gutendexBook);
+        if (autorNombre == null || autorNombre.isBlank()) {
+            throw new IllegalArgumentException("El autor del libro no puede estar vacío.");
+        }
+
+        // Crear instancia de Libro con los datos validados
+        Libro libro = new Libro(titulo, idiomas.get(0), autorNombre,
+                gutendexBook.getDownloadCount() != null ? gutendexBook.getDownloadCount() : 0);
+        libro.setIdiomas(idiomas);
+        libro.setGutendexId(gutendexBook.getId());
+        return libro;
+    }
+
+    /**
+     * Los idiomas del libro en el orden de Gutendex, en minúsculas, sin repetidos y solo los que
+     * acepta Libro (códigos ISO 639 de dos o tres letras): uno no válido haría fallar al guardar
+     * todo el lote en el que va el libro
+     */
+    public static List<String> idiomas(GutendexLibro gutendexBook) {
+        if (gutendexBook.getLanguages() == null) {
+            return new ArrayList<>(0);
+        }
+        List<String> idiomas = new ArrayList<>(gutendexBook.getLanguages().size());
+        for (String idioma : gutendexBook.getLanguages()) {
+            if (idioma != null) {
+                String codigo = idioma.strip().toLowerCase(Locale.ROOT);
+                if (IDIOMA.matcher(codigo).matches() && !idiomas.contains(codigo)) {
+                    idiomas.add(codigo);
+                }
+            }
+        }
+        return idiomas;
+    }
+
+    /**
+     * Devuelve el nombre del primer autor o "Desconocido" si el libro no tiene autores
+     */
+    public static String nombreAutorPrincipal(GutendexLibro gutendexBook) {
+        return gutendexBook.getAuthors() == null || gutendexBook.getAuthors().isEmpty() ?
+                AUTOR_DESCONOCIDO : gutendexBook.getAuthors().get(0).getName();
+    }
+
+    /**
+     * Convierte un autor de Gutendex a nuestro modelo
+     */
+    public static Autor aAutor(GutendexAutor gutendexAuthor) {
+        Autor autor = new Autor();
+        autor.setNombre(gutendexAuthor.getName());
+
+        // Intenta convertir los años a números
+        try {
+            autor.setAnioNacimiento(
+                    gutendexAuthor.getBirthYear() != null ?
+                            Integer.parseInt(gutendexAuthor.getBirthYear()) : 0
+            );
+            autor.setAnioMuerte(
+                    gutendexAuthor.getDeathYear() != null ?
+                            Integer.parseInt(gutendexAuthor.getDeathYear()) : 0
+            );
+        } catch (NumberFormatException e) {
+            log.warn("Error al parsear año para autor {}: {}",
+                    gutendexAuthor.getName(), e.getMessage());
+            autor.setAnioNacimiento(0);
+            autor.setAnioMuerte(0);
+        }
+
+        autor.setVivo(gutendexAuthor.getDeathYear() == null);
+        return autor;
+    }
+}
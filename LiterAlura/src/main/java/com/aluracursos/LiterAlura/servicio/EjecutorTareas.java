@@ -0,0 +1,135 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Ejecuta las tareas bloqueantes (llamadas a Gutendex con block() y escrituras JDBC)
+ * con un límite de concurrencia.
+ * Con hilos virtuales cada tarea tiene su propio hilo virtual y un semáforo limita cuántas
+ * se ejecutan a la vez; las que esperan el semáforo o una respuesta quedan aparcadas sin
+ * ocupar un hilo de plataforma. Sin hilos virtuales se usa un pool fijo de hilos de plataforma
+ * del mismo tamaño, un hilo por tarea en curso. En los dos modos el scheduler de Reactor ejecuta
+ * sobre el mismo ejecutor, así que los pipelines respetan el mismo límite que enviar.
+ * Las tareas en curso y las que esperan turno se publican como métricas literalura.tareas.*
+ */
+@Component
+@Slf4j
+public class EjecutorTareas implements DisposableBean, MeterBinder {
+    private final boolean hilosVirtuales;
+    private final int maxConcurrencia;
+    private final ExecutorService ejecutor;
+    private final Semaphore permisos;
+    private final Scheduler scheduler;
+
+    public EjecutorTareas(EjecucionPropiedades propiedades) {
+        this.hilosVirtuales = propiedades.isHilosVirtuales();
+        this.maxConcurrencia = propiedades.getMaxConcurrencia();
+        this.permisos = new Semaphore(propiedades.getMaxConcurrencia());
+        if (hilosVirtuales) {
+            this.ejecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tarea-", 0).factory());
+            this.scheduler = Schedulers.fromExecutor(this::ejecutarConPermiso);
+        } else {
+            this.ejecutor = Executors.newFixedThreadPool(propiedades.getMaxConcurrencia());
+            this.scheduler = Schedulers.fromExecutorService(ejecutor, "tareas");
+        }
+        log.info("Tareas bloqueantes en hilos {} (máximo {} a la vez)",
+                hilosVirtuales ? "virtuales" : "de plataforma", propiedades.getMaxConcurrencia());
+    }
+
+    /**
+     * Ejecuta la tarea de forma asíncrona respetando el límite de concurrencia
+     */
+    public <T> CompletableFuture<T> enviar(Callable<T> tarea) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return conPermiso(tarea);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, ejecutor);
+    }
+
+    /**
+     * Scheduler de Reactor para el trabajo bloqueante de los pipelines (por ejemplo, guardar lotes)
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        Gauge.builder("literalura.tareas.en.curso", this, EjecutorTareas::enCurso)
+                .description("Tareas bloqueantes ejecutándose")
+                .register(registro);
+        Gauge.builder("literalura.tareas.en.espera", this, EjecutorTareas::enEspera)
+                .description("Tareas esperando turno por el límite de concurrencia")
+                .register(registro);
+        Gauge.builder("literalura.tareas.max.concurrencia", () -> maxConcurrencia)
+                .register(registro);
+    }
+
+    private void ejecutarConPermiso(Runnable tarea) {
+        ejecutor.execute(() -> {
+            try {
+                permisos.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                tarea.run();
+            } finally {
+                permisos.release();
+            }
+        });
+    }
+
+    // Con el pool fijo, los hilos ocupados (también por el scheduler, que no pasa por el semáforo)
+    private int enCurso() {
+        return ejecutor instanceof ThreadPoolExecutor pool
+                ? pool.getActiveCount() : maxConcurrencia - permisos.availablePermits();
+    }
+
+    // Con hilos virtuales esperan en el semáforo; con el pool fijo, en la cola del pool
+    private int enEspera() {
+        int enCola = ejecutor instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+        return permisos.getQueueLength() + enCola;
+    }
+
+    // En un hilo virtual la espera del semáforo solo aparca el hilo
+    private <T> T conPermiso(Callable<T> tarea) throws Exception {
+        permisos.acquire();
+        try {
+            return tarea.call();
+        } finally {
+            permisos.release();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.ImportacionPropiedades;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexRespuesta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importa el catálogo completo de Gutendex siguiendo los enlaces "next" de la paginación.
+ * Las páginas se descargan en paralelo (con un límite de concurrencia) y los libros
+ * fluyen por un pipeline de Reactor que los agrupa en lotes antes de guardarlos.
+ * Como los lotes se guardan de uno en uno, la escritura en la base de datos regula
+ * el ritmo de las descargas (backpressure).
+ * Los libros ya guardados se omiten, así que la importación se puede repetir para traer solo
+ * los nuevos; si un lote falla, sus libros se guardan de uno en uno y solo se pierden los que dan error.
+ */
+@Service
+@Slf4j
+public class ImportacionCatalogoServicio {
+    private final GutendexCliente gutendexCliente;
+    private final PersistenciaLibrosServicio persistenciaLibros;
+    private final ImportacionPropiedades propiedades;
+    private final EjecutorTareas ejecutorTareas;
+
+    public ImportacionCatalogoServicio(
+            GutendexCliente gutendexCliente,
+            PersistenciaLibrosServicio persistenciaLibros,
+            ImportacionPropiedades propiedades,
+            EjecutorTareas ejecutorTareas) {
+        this.gutendexCliente = gutendexCliente;
+        this.persistenciaLibros = persistenciaLibros;
+        this.propiedades = propiedades;
+        this.ejecutorTareas = ejecutorTareas;
+    }
+
+    /**
+     * Recorre todas las páginas del catálogo y guarda cada libro.
+     * La primera página se usa para conocer el total de libros y el formato del enlace "next";
+     * el resto de páginas se piden en paralelo.
+     */
+    public Mono<ResultadoImportacion> importarCatalogo() {
+        AtomicLong paginas = new AtomicLong();
+        AtomicLong libros = new AtomicLong();
+        AtomicLong guardados = new AtomicLong();
+        long inicio = System.nanoTime();
+
+        return obtenerPagina(null)
+                .flatMapMany(primera -> Flux.just(primera).concatWith(paginasRestantes(primera)))
+                .doOnNext(pagina -> paginas.incrementAndGet())
+                .flatMapIterable(GutendexRespuesta::getResults)
+                .doOnNext(libro -> libros.incrementAndGet())
+                .buffer(propiedades.getTamanoLote())
+                // Guarda los lotes en orden y de uno en uno; JPA es bloqueante
+                // (en un hilo virtual si literalura.ejecucion.hilos-virtuales está activo)
+                .concatMap(lote -> Mono.fromCallable(() -> persistenciaLibros.importarLote(lote))
+                        .onErrorResume(e -> Mono.fromCallable(() -> guardarDeUnoEnUno(lote, e)))
+                        .subscribeOn(ejecutorTareas.scheduler()))
+                .doOnNext(lote -> guardados.addAndGet(lote.size()))
+                .then(Mono.fromSupplier(() -> new ResultadoImportacion(
+                        paginas.get(), libros.get(), guardados.get(),
+                        Duration.ofNanos(System.nanoTime() - inicio))))
+                .doOnNext(resultado -> log.info("Importación finalizada: {}", resultado));
+    }
+
+    // Cada libro en su propia transacción: un libro que no se puede guardar no se lleva el lote entero
+    private List<Libro> guardarDeUnoEnUno(List<GutendexLibro> lote, Throwable error) {
+        log.warn("No se pudo guardar el lote de {} libros ({}); se guardan de uno en uno", lote.size(), error.getMessage());
+        List<Libro> guardados = new ArrayList<>(lote.size());
+        for (GutendexLibro libro : lote) {
+            try {
+                guardados.add(persistenciaLibros.guardarLibro(libro));
+            } catch (LibroDuplicadoException e) {
+                log.debug("El libro {} de Gutendex ya estaba guardado", libro.getId());
+            } catch (RuntimeException e) {
+                log.warn("Se omite el libro {} de Gutendex: {}", libro.getId(), e.getMessage());
+            }
+        }
+        return guardados;
+    }
+
+    /**
+     * Genera las páginas siguientes a partir de la primera.
+     * Si el enlace "next" tiene el parámetro "page" se calculan todas las URL y se piden en paralelo;
+     * si no, se sigue la cadena de enlaces de forma secuencial.
+     */
+    private Flux<GutendexRespuesta> paginasRestantes(GutendexRespuesta primera) {
+        if (primera.getNext() == null || primera.getResults() == null || primera.getResults().isEmpty()) {
+            return Flux.empty();
+        }
+
+        String paginaSiguiente = UriComponentsBuilder.fromUriString(primera.getNext())
+                .build()
+                .getQueryParams()
+                .getFirst("page");
+        if (paginaSiguiente == null) {
+            return obtenerPagina(primera.getNext())
+                    .expand(pagina -> pagina.getNext() == null ? Mono.empty() : obtenerPagina(pagina.getNext()))
+                    .take(limitePaginas() - 1L, true);
+        }
+
+        int tamanoPagina = primera.getResults().size();
+        long totalPaginas = Math.min((primera.getCount() + tamanoPagina - 1) / tamanoPagina, limitePaginas());
+        int desde = Integer.parseInt(paginaSiguiente);
+
+        return Flux.range(desde, (int) Math.max(0, totalPaginas - desde + 1))
+                .map(numero -> UriComponentsBuilder.fromUriString(primera.getNext())
+                        .replaceQueryParam("page", numero)
+                        .build(true)
+                        .toUriString())
+                .flatMapSequential(this::obtenerPagina, propiedades.getConcurrencia());
+    }
+
+    private long limitePaginas() {
+        return propiedades.getMaxPaginas() > 0 ? propiedades.getMaxPaginas() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Descarga una página del catálogo. Sin URL se pide la primera página.
+     */
+    private Mono<GutendexRespuesta> obtenerPagina(String url) {
+        return gutendexCliente.pagina(url);
+    }
+
+    /**
+     * Resumen de una importación con su rendimiento
+     */
+    public record ResultadoImportacion(long paginas, long libros, long librosGuardados, Duration duracion) {
+
+        public double paginasPorSegundo() {
+            return porSegundo(paginas);
+        }
+
+        public double librosPorSegundo() {
+            return porSegundo(libros);
+        }
+
+        private double porSegundo(long cantidad) {
+            double segundos = duracion.toNanos() / 1_000_000_000.0;
+            return segundos > 0 ? cantidad / segundos : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d páginas, %d libros (%d guardados) en %d ms - %.2f páginas/s, %.2f libros/s",
+                    paginas, libros, librosGuardados, duracion.toMillis(), paginasPorSegundo(), librosPorSegundo());
+        }
+    }
+}
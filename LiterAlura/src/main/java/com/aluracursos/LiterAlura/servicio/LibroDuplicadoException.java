@@ -0,0 +1,10 @@
+package com.aluracursos.LiterAlura.servicio;
+
+// Se lanza al intentar registrar un libro cuyo título (o id de Gutendex) ya está en la base de datos
+
+public class LibroDuplicadoException extends RuntimeException {
+
+    public LibroDuplicadoException() {
+        super("No se permite registrar el mismo libro más de una vez");
+    }
+}
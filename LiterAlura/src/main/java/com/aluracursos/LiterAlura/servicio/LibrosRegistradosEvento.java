@@ -0,0 +1,12 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+
+import java.util.List;
+
+// Evento que se publica cada vez que se guardan libros nuevos
+// Permite mantener sincronizadas las estructuras en memoria (índices, estadísticas...) sin acoplarlas a la persistencia
+
+public record LibrosRegistradosEvento(List<Libro> libros, List<AutorResumen> autores) {
+}
@@ -1,251 +1,354 @@
 package com.aluracursos.LiterAlura.servicio;
 
 // Importaciones necesarias
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.busqueda.IndiceTexto;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.RegistroPropiedades;
 import com.aluracursos.LiterAlura.modelo.*;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.modelo.dto.PaginaPorClave;
+import com.aluracursos.LiterAlura.modelo.dto.ResultadoRegistro;
+import com.aluracursos.LiterAlura.modelo.dto.ResultadoRegistro.Estado;
 import com.aluracursos.LiterAlura.modelo.gutendex.*;
 import com.aluracursos.LiterAlura.repositorio.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Servicio principal que maneja la lógica de negocio para libros y autores.
  * @Service indica que es un componente de servicio de Spring
  * @Slf4j proporciona un logger automáticamente (viene de Lombok)
+ * @Timed mide cada método público en la métrica literalura.servicio (etiquetas method y exception);
+ * los métodos asíncronos se miden hasta que termina el CompletableFuture
  */
 @Service
 @Slf4j
+@Timed(value = "literalura.servicio", description = "Tiempo de los métodos de LiteraturaServicio")
 public class LiteraturaServicio {
+    private static final int MAX_RESULTADOS_BUSQUEDA = 100;
+    public static final int TAMANO_PAGINA_LISTADOS = 500;
+    private static final int MAX_IDS_POR_CONSULTA = 1_000;
+
     // Inyección de dependencias mediante campos finales
     private final LibroRepositorio libroRepository;
     private final AutorRepositorio autorRepository;
-    private final WebClient webClient;
+    private final PersistenciaLibrosServicio persistenciaLibros;
+    private final IndiceBusqueda indiceBusqueda;
+    private final GutendexCliente gutendexCliente;
+    private final EjecutorTareas ejecutorTareas;
+    private final RankingDescargas rankingDescargas;
+    private final RegistroPropiedades registroPropiedades;
+    private final ColaEscritura colaEscritura;
 
     /**
-     * Constructor que inicializa los repositorios y configura el cliente web.
+     * Constructor que inicializa los repositorios y el cliente de Gutendex.
      * Spring inyectará automáticamente las dependencias necesarias.
      */
     public LiteraturaServicio(
             LibroRepositorio libroRepository,
             AutorRepositorio autorRepository,
-            WebClient.Builder webClientBuilder) {
+            PersistenciaLibrosServicio persistenciaLibros,
+            IndiceBusqueda indiceBusqueda,
+            GutendexCliente gutendexCliente,
+            EjecutorTareas ejecutorTareas,
+            RankingDescargas rankingDescargas,
+            RegistroPropiedades registroPropiedades,
+            ColaEscritura colaEscritura) {
         this.libroRepository = libroRepository;
         this.autorRepository = autorRepository;
-
-        // Configura el cliente web con URL base y un filtro para logging
-        this.webClient = webClientBuilder
-                .baseUrl("https://gutendex.com/books/")
-                // Añade un filtro para logear todas las peticiones
-                .filter((request, next) -> {
-                    log.info("Realizando petición a: {}", request.url());
-                    return next.exchange(request);
-                })
-                .build();
+        this.persistenciaLibros = persistenciaLibros;
+        this.indiceBusqueda = indiceBusqueda;
+        this.gutendexCliente = gutendexCliente;
+        this.ejecutorTareas = ejecutorTareas;
+        this.rankingDescargas = rankingDescargas;
+        this.registroPropiedades = registroPropiedades;
+        this.colaEscritura = colaEscritura;
     }
 
     /**
      * Busca un libro por título en la API Gutendex y lo registra en la base de datos.
-     * @Transactional asegura que toda la operación se realice como una única transacción
+     * No es @Transactional: la búsqueda no ocupa ninguna conexión y el libro se guarda desde
+     * ColaEscritura en una transacción corta, junto con los que se estén registrando a la vez.
      */
-    @Transactional
     public Optional<Libro> buscarYRegistrarLibro(String titulo) {
-        // Verifica si el libro ya existe en la base de datos
-        if (libroRepository.findByTituloContainingIgnoreCase(titulo)
-                .stream()
-                .findAny()
-                .isPresent()) {
-            throw new RuntimeException("No se permite registrar el mismo libro más de una vez");
+        // Verifica si el libro ya existe usando el índice en memoria (sin recorrer la tabla)
+        if (indiceBusqueda.existeTitulo(titulo)) {
+            throw new LibroDuplicadoException();
         }
 
+        // Realiza la petición a Gutendex (o la resuelve desde la caché local) y se queda con el primer libro
+        GutendexLibro encontrado;
         try {
-            // Realiza la petición HTTP a Gutendex
-            return Optional.ofNullable(webClient.get()
-                            .uri(uriBuilder -> uriBuilder
-                                    .queryParam("search", titulo)
-                                    .build())
-                            .retrieve()
-                            // Maneja específicamente las redirecciones 3xx
-                            .onStatus(
-                                    status -> status.is3xxRedirection(),
-                                    response -> {
-                                        log.info("Redirección detectada a: {}",
-                                                response.headers().asHttpHeaders().getLocation());
-                                        return Mono.error(new RuntimeException("Error de redirección"));
-                                    }
-                            )
-                            // Convierte la respuesta al tipo GutendexRespuesta
-                            .bodyToMono(GutendexRespuesta.class)
-                            .block())
-                    // Procesa la respuesta
-                    .map(response -> response.getResults().stream().findFirst())
-                    .flatMap(optionalBook -> optionalBook.map(this::convertirYGuardarLibro));
+            encontrado = gutendexCliente.buscarPrimero(titulo).block();
         } catch (Exception e) {
             log.error("Error al buscar el libro en Gutendex: {}", e.getMessage());
             throw new RuntimeException("No se pudo encontrar el libro. Por favor, intente de nuevo.");
         }
+        if (encontrado == null) {
+            return Optional.empty();
+        }
+
+        // Espera a que la cola de escritura lo guarde
+        try {
+            return Optional.of(colaEscritura.encolar(encontrado).join());
+        } catch (IllegalArgumentException e) {
+            // El libro de Gutendex no supera la validación: reintentar no cambia nada
+            log.warn("El libro encontrado para '{}' no es válido: {}", titulo, e.getMessage());
+            throw e;
+        } catch (IllegalStateException e) {
+            // Cola llena o cerrada: no se guardó, se puede volver a intentar
+            log.warn("No se pudo encolar el libro: {}", e.getMessage());
+            throw new RuntimeException("No se pudo registrar el libro. Por favor, intente de nuevo.");
+        } catch (CompletionException e) {
+            // Otro título ya había registrado el mismo libro de Gutendex
+            if (e.getCause() instanceof LibroDuplicadoException duplicado) {
+                throw duplicado;
+            }
+            log.error("Error al guardar el libro: {}", e.getMessage());
+            throw new RuntimeException("No se pudo registrar el libro. Por favor, intente de nuevo.");
+        }
     }
 
     /**
-     * Convierte un libro de Gutendex a nuestro modelo y lo guarda en la base de datos
+     * Igual que buscarYRegistrarLibro pero sin bloquear al que llama: la búsqueda se ejecuta en
+     * EjecutorTareas (en un hilo virtual si están activados) respetando el límite de concurrencia.
+     * La transacción la abre ColaEscritura al guardar el libro.
      */
-    private Libro convertirYGuardarLibro(GutendexLibro gutendexBook) {
-        // Validar título
-        String titulo = gutendexBook.getTitle();
-        if (titulo == null || titulo.isBlank()) {
-            throw new IllegalArgumentException("El título del libro no puede estar vacío.");
-        }
+    public CompletableFuture<Optional<Libro>> buscarYRegistrarLibroAsync(String titulo) {
+        return ejecutorTareas.enviar(() -> buscarYRegistrarLibro(titulo));
+    }
 
-        // Validar idioma
-        String idioma = gutendexBook.getLanguages().isEmpty() ? null : gutendexBook.getLanguages().get(0);
-        if (idioma == null || idioma.isBlank()) {
-            throw new IllegalArgumentException("El idioma del libro no puede estar vacío.");
+    /**
+     * Registra varios títulos en una sola llamada y devuelve un resultado por título, en el orden recibido.
+     * Los títulos se normalizan (mayúsculas, tildes y separadores) y cada uno se busca una sola vez;
+     * los ya registrados se descartan con el índice en memoria antes de pedir nada a Gutendex.
+     * El resto se busca con hasta literalura.registro.concurrencia peticiones a la vez y los libros
+     * encontrados se guardan en lotes de literalura.registro.tamano-lote, uno por transacción, mientras
+     * siguen llegando respuestas. Si un lote falla, sus libros se guardan de uno en uno para que
+     * solo fallen los que dan error.
+     */
+    public List<ResultadoRegistro> buscarYRegistrarLibros(Collection<String> titulos) {
+        List<String> entrada = new ArrayList<>(titulos);
+        ResultadoRegistro[] resultados = new ResultadoRegistro[entrada.size()];
+
+        // Posición del primer título con cada forma normalizada; los repetidos no se buscan
+        Map<String, Integer> primeros = new LinkedHashMap<>();
+        for (int posicion = 0; posicion < entrada.size(); posicion++) {
+            String titulo = entrada.get(posicion);
+            String normalizado = IndiceTexto.normalizar(titulo);
+            if (normalizado.isEmpty()) {
+                resultados[posicion] = ResultadoRegistro.error(titulo, "El título del libro no puede estar vacío.");
+            } else if (primeros.putIfAbsent(normalizado, posicion) != null) {
+                resultados[posicion] = ResultadoRegistro.de(titulo, Estado.DUPLICADO);
+            }
         }
 
-        // Validar autor
-        String autorNombre = gutendexBook.getAuthors().isEmpty() ?
-                "Desconocido" : gutendexBook.getAuthors().get(0).getName();
+        Set<String> existentes = indiceBusqueda.titulosExistentes(primeros.keySet());
+        List<Integer> pendientes = new ArrayList<>(primeros.size());
+        primeros.forEach((normalizado, posicion) -> {
+            if (existentes.contains(normalizado)) {
+                resultados[posicion] = ResultadoRegistro.de(entrada.get(posicion), Estado.DUPLICADO);
+            } else {
+                pendientes.add(posicion);
+            }
+        });
+
+        Set<Long> idsGutendex = new HashSet<>();
+        Flux.fromIterable(pendientes)
+                .flatMap(posicion -> buscarParaRegistrar(posicion, entrada.get(posicion)),
+                        Math.max(1, registroPropiedades.getConcurrencia()))
+                // Dos títulos distintos pueden llevar al mismo libro de Gutendex: se guarda el primero
+                .map(busqueda -> busqueda.libro() != null && !idsGutendex.add(busqueda.libro().getId()) ?
+                        busqueda.con(ResultadoRegistro.de(busqueda.titulo(), Estado.DUPLICADO)) : busqueda)
+                .buffer(Math.max(1, registroPropiedades.getTamanoLote()))
+                // Los lotes se guardan de uno en uno mientras continúan las búsquedas
+                .concatMap(lote -> Mono.fromCallable(() -> guardarBusquedas(lote))
+                        .subscribeOn(ejecutorTareas.scheduler()))
+                .doOnNext(lote -> lote.forEach(busqueda -> resultados[busqueda.posicion()] = busqueda.resultado()))
+                .blockLast();
+
+        return Arrays.asList(resultados);
+    }
+
+    // Primer libro de Gutendex para el título; la búsqueda no falla, los errores quedan en el resultado
+    private Mono<Busqueda> buscarParaRegistrar(int posicion, String titulo) {
+        return gutendexCliente.buscarPrimero(titulo)
+                .map(libro -> new Busqueda(posicion, titulo, libro, null))
+                .defaultIfEmpty(new Busqueda(posicion, titulo, null, ResultadoRegistro.de(titulo, Estado.NO_ENCONTRADO)))
+                .onErrorResume(e -> {
+                    log.error("Error al buscar el libro {} en Gutendex: {}", titulo, e.getMessage());
+                    return Mono.just(new Busqueda(posicion, titulo, null,
+                            ResultadoRegistro.error(titulo, "No se pudo buscar el libro en Gutendex.")));
+                });
+    }
 
-        if (autorNombre == null || autorNombre.isBlank()) {
-            throw new IllegalArgumentException("El autor del libro no puede estar vacío.");
+    // Guarda los libros encontrados del lote y devuelve todas las búsquedas con su resultado
+    private List<Busqueda> guardarBusquedas(List<Busqueda> lote) {
+        List<Busqueda> resueltas = new ArrayList<>(lote.size());
+        List<Busqueda> aGuardar = new ArrayList<>(lote.size());
+        for (Busqueda busqueda : lote) {
+            if (busqueda.resultado() != null) {
+                resueltas.add(busqueda);
+                continue;
+            }
+            // Se validan antes para que guardarLote no omita ninguno y sus libros coincidan uno a uno
+            try {
+                ConversorGutendex.aLibro(busqueda.libro());
+                aGuardar.add(busqueda);
+            } catch (IllegalArgumentException e) {
+                resueltas.add(busqueda.con(ResultadoRegistro.error(busqueda.titulo(), e.getMessage())));
+            }
         }
+        if (aGuardar.isEmpty()) {
+            return resueltas;
+        }
+
+        try {
+            List<Libro> guardados = persistenciaLibros.guardarLote(aGuardar.stream().map(Busqueda::libro).toList());
+            for (int i = 0; i < aGuardar.size(); i++) {
+                resueltas.add(aGuardar.get(i).registrado(guardados.get(i)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar el lote de {} libros ({}); se guardan de uno en uno", aGuardar.size(), e.getMessage());
+            for (Busqueda busqueda : aGuardar) {
+                try {
+                    resueltas.add(busqueda.registrado(persistenciaLibros.guardarLibro(busqueda.libro())));
+                } catch (LibroDuplicadoException duplicado) {
+                    resueltas.add(busqueda.con(ResultadoRegistro.de(busqueda.titulo(), Estado.DUPLICADO)));
+                } catch (RuntimeException errorLibro) {
+                    resueltas.add(busqueda.con(ResultadoRegistro.error(busqueda.titulo(), errorLibro.getMessage())));
+                }
+            }
+        }
+        return resueltas;
+    }
 
-        // Crear instancia de Libro con los datos validados
-        Libro libro = new Libro(titulo, idioma, autorNombre,
-                gutendexBook.getDownloadCount() != null ? gutendexBook.getDownloadCount() : 0);
+    // Un título en curso de registro: el libro encontrado y, cuando ya se sabe, su resultado
+    private record Busqueda(int posicion, String titulo, GutendexLibro libro, ResultadoRegistro resultado) {
 
-        // Guardar autor si no es "Desconocido" y no existe
-        if (!autorNombre.equals("Desconocido")) {
-            guardarAutorSiNoExiste(gutendexBook.getAuthors().get(0));
+        Busqueda con(ResultadoRegistro nuevo) {
+            return new Busqueda(posicion, titulo, libro, nuevo);
         }
 
-        // Guardar y retornar el libro
-        return libroRepository.save(libro);
+        Busqueda registrado(Libro guardado) {
+            return con(ResultadoRegistro.registrado(titulo, LibroResumen.de(guardado)));
+        }
     }
 
+    // Métodos de consulta que utilizan los repositorios JPA
 
     /**
-     * Guarda un autor en la base de datos si no existe
-     * @Transactional asegura la integridad de la operación
+     * Página de libros registrados en orden de id, a partir del id siguiente a desdeId (null = primera página).
+     * Paginación por clave con proyecciones de solo lectura: cada página cuesta lo mismo y no se cargan entidades
      */
-    @Transactional
-    private void guardarAutorSiNoExiste(GutendexAutor gutendexAuthor) {
-        // Busca el autor por nombre y si no existe lo crea
-        autorRepository.findByNombre(gutendexAuthor.getName())
-                .orElseGet(() -> {
-                    Autor autor = new Autor();
-                    autor.setNombre(gutendexAuthor.getName());
-
-                    // Intenta convertir los años a números
-                    try {
-                        autor.setAnioNacimiento(
-                                gutendexAuthor.getBirthYear() != null ?
-                                        Integer.parseInt(gutendexAuthor.getBirthYear()) : 0
-                        );
-                        autor.setAnioMuerte(
-                                gutendexAuthor.getDeathYear() != null ?
-                                        Integer.parseInt(gutendexAuthor.getDeathYear()) : 0
-                        );
-                    } catch (NumberFormatException e) {
-                        log.warn("Error al parsear año para autor {}: {}",
-                                gutendexAuthor.getName(), e.getMessage());
-                        autor.setAnioNacimiento(0);
-                        autor.setAnioMuerte(0);
-                    }
-
-                    autor.setVivo(gutendexAuthor.getDeathYear() == null);
-                    return autorRepository.save(autor);
-                });
+    public PaginaPorClave<LibroResumen> listarLibros(Long desdeId, int tamano) {
+        return pagina(libroRepository.findByIdGreaterThanOrderByIdAsc(
+                primerId(desdeId), Limit.of(tamano), LibroResumen.class), tamano, LibroResumen::id);
     }
 
-    // Métodos de consulta que utilizan los repositorios JPA
+    /**
+     * Página de autores registrados en orden de id (ver listarLibros)
+     */
+    public PaginaPorClave<AutorResumen> listarAutores(Long desdeId, int tamano) {
+        return pagina(autorRepository.findByIdGreaterThanOrderByIdAsc(
+                primerId(desdeId), Limit.of(tamano), AutorResumen.class), tamano, AutorResumen::id);
+    }
 
     /**
-     * Obtiene todos los libros de la base de datos
+     * Recorre todos los libros con un cursor de la base de datos, para exportar catálogos grandes
+     * sin tenerlos enteros en memoria. El destino se llama con cada libro dentro de la transacción.
+     * @return cantidad de libros recorridos
      */
-    public List<Libro> listarLibros() {
-        return libroRepository.findAll();
+    @Transactional(readOnly = true)
+    public long recorrerLibros(Consumer<LibroResumen> destino) {
+        return recorrer(libroRepository.streamAllByOrderByIdAsc(), destino);
     }
 
     /**
-     * Obtiene todos los autores de la base de datos
+     * Recorre todos los autores con un cursor de la base de datos (ver recorrerLibros)
      */
-    public List<Autor> listarAutores() {
-        return autorRepository.findAll();
+    @Transactional(readOnly = true)
+    public long recorrerAutores(Consumer<AutorResumen> destino) {
+        return recorrer(autorRepository.streamAllByOrderByIdAsc(), destino);
     }
 
     /**
-     * Lista los autores que estaban vivos en un año específico
+     * Lista los autores que estaban vivos en un año específico, ordenados por año de nacimiento.
+     * La consulta la resuelve el árbol de intervalos del índice en memoria y los autores salen
+     * de la caché de segundo nivel (solo los que no están se piden a la base de datos)
      */
     public List<Autor> listarAutoresVivos(int anio) {
-        return autorRepository
-                .findByVivoTrueAndAnioNacimientoLessThanEqualAndAnioMuerteGreaterThanEqual(anio, anio);
+        return autorRepository.cargarPorIds(indiceBusqueda.autoresVivosEn(anio));
     }
 
     /**
-     * Lista los libros por idioma
+     * Página de libros de un idioma (principal o no) en orden de id (ver listarLibros).
+     * La resuelve el catálogo columnar del índice en memoria, sin consultar la base de datos
      */
-    public List<Libro> listarLibrosPorIdioma(String idioma) {
-        return libroRepository.findByIdioma(idioma);
+    public PaginaPorClave<LibroResumen> listarLibrosPorIdioma(String idioma, Long desdeId, int tamano) {
+        return pagina(indiceBusqueda.librosPorIdioma(idioma, primerId(desdeId), tamano), tamano, LibroResumen::id);
     }
 
     /**
-     * Genera estadísticas de los libros usando Stream API
+     * Cantidad de libros de cada idioma, de más a menos, desde los contadores del catálogo en memoria.
+     * Un libro en varios idiomas cuenta en cada uno
+     */
+    public Map<String, Long> contarLibrosPorIdioma() {
+        return indiceBusqueda.contarLibrosPorIdioma();
+    }
+
+    /**
+     * Los libros registrados con más descargas, de más a menos, desde el catálogo en memoria
+     */
+    public List<LibroResumen> listarLibrosMasDescargados(int cantidad) {
+        return indiceBusqueda.masDescargados(cantidad);
+    }
+
+    /**
+     * Recorre todos los libros de un idioma con un cursor de la base de datos (ver recorrerLibros)
+     */
+    @Transactional(readOnly = true)
+    public long recorrerLibrosPorIdioma(String idioma, Consumer<LibroResumen> destino) {
+        return recorrer(libroRepository.streamByIdiomaOrderByIdAsc(idioma), destino);
+    }
+
+    /**
+     * Estadísticas del catálogo a partir de los contadores del catálogo en memoria,
+     * sin recorrer la tabla de libros
      */
     public EstadisticasLibros generarEstadisticas() {
-        List<Libro> libros = libroRepository.findAll();
-
-        // Cuenta autores únicos usando Stream
-        long totalAutores = libros.stream()
-                .map(Libro::getAutor)
-                .distinct()
-                .count();
-
-        // Agrupa libros por idioma y cuenta
-        Map<String, Long> librosPorIdioma = libros.stream()
-                .collect(Collectors.groupingBy(
-                        Libro::getIdioma,
-                        Collectors.counting()
-                ));
-
-        double promedioLibrosPorAutor = calcularPromedioLibrosPorAutor(libros);
-
-        return new EstadisticasLibros(
-                libros.size(),
-                totalAutores,
-                librosPorIdioma,
-                promedioLibrosPorAutor
-        );
+        return indiceBusqueda.estadisticas();
     }
 
     /**
-     * Obtiene los 10 libros más descargados de Gutendex
+     * Obtiene los 10 libros más descargados de Gutendex, o menos si los rankings son más pequeños (ver obtenerTopLibros)
      */
     public List<LibroPopular> obtenerTop10Libros() {
-        try {
-            return webClient.get()
-                    .uri("?sort=download_count")
-                    .retrieve()
-                    .bodyToMono(GutendexRespuesta.class)
-                    .map(response -> response.getResults().stream()
-                            .limit(10)
-                            .map(book -> new LibroPopular(
-                                    book.getTitle(),
-                                    book.getDownloadCount() != null ? book.getDownloadCount() : 0,
-                                    book.getAuthors().isEmpty() ? "Desconocido" : book.getAuthors().get(0).getName()
-                            ))
-                            .collect(Collectors.toList())
-                    )
-                    .block();
-        } catch (Exception e) {
-            log.error("Error al obtener top 10 libros: {}", e.getMessage());
-            return new ArrayList<>();
-        }
+        return obtenerTopLibros(null, Math.min(10, rankingDescargas.tamano()));
+    }
+
+    /**
+     * Los libros más descargados de Gutendex en un idioma (null = todos), desde el ranking en memoria
+     * que se actualiza en segundo plano: no hace ninguna petición.
+     * Como mucho literalura.ranking.tamano libros (ver RankingDescargas.top)
+     */
+    public List<LibroPopular> obtenerTopLibros(String idioma, int cantidad) {
+        return rankingDescargas.top(idioma, cantidad);
     }
 
     // Clases internas para manejar datos específicos
@@ -265,35 +368,72 @@ public class LiteraturaServicio {
         private String titulo;
         private int descargas;
         private String autor;
+
+        public static LibroPopular de(GutendexLibro book) {
+            return new LibroPopular(
+                    book.getTitle(),
+                    book.getDownloadCount() != null ? book.getDownloadCount() : 0,
+                    ConversorGutendex.nombreAutorPrincipal(book));
+        }
     }
 
     /**
-     * Calcula el promedio de libros por autor
+     * Busca autores por nombre (búsqueda parcial, ignora mayúsculas/minúsculas y tildes)
+     * usando el índice en memoria; los resultados vienen ordenados por relevancia
      */
-    private double calcularPromedioLibrosPorAutor(List<Libro> libros) {
-        Map<String, Long> librosPorAutor = libros.stream()
-                .collect(Collectors.groupingBy(
-                        Libro::getAutor,
-                        Collectors.counting()
-                ));
-
-        return librosPorAutor.values().stream()
-                .mapToDouble(Long::doubleValue)
-                .average()
-                .orElse(0.0);
+    public List<Autor> buscarAutorPorNombre(String nombre) {
+        return autorRepository.cargarPorIds(indiceBusqueda.buscarAutores(nombre, MAX_RESULTADOS_BUSQUEDA));
     }
 
     /**
-     * Busca autores por nombre (búsqueda parcial, ignora mayúsculas/minúsculas)
+     * Busca libros registrados por título (prefijo, subcadena o aproximado) ordenados por relevancia.
+     * Los libros vienen con sus autores cargados (una consulta por bloque de ids). Esta consulta no pasa por
+     * la caché de segundo nivel: cargar cada libro de la caché y luego sus autores costaría más viajes en los fallos
      */
-    public List<Autor> buscarAutorPorNombre(String nombre) {
-        return autorRepository.findByNombreContainingIgnoreCase(nombre);
+    public List<Libro> buscarLibrosPorTitulo(String titulo) {
+        return cargarEnOrden(libroRepository::findConAutoresByIdIn,
+                indiceBusqueda.buscarLibros(titulo, MAX_RESULTADOS_BUSQUEDA), Libro::getId);
+    }
+
+    // Entrega cada elemento al destino y cierra el Stream (y con él el cursor) al terminar
+    private static <T> long recorrer(Stream<T> elementos, Consumer<T> destino) {
+        try (elementos) {
+            long total = 0;
+            for (Iterator<T> iterador = elementos.iterator(); iterador.hasNext(); total++) {
+                destino.accept(iterador.next());
+            }
+            return total;
+        }
+    }
+
+    private static long primerId(Long desdeId) {
+        return desdeId != null ? desdeId : 0L;
+    }
+
+    // Si la página viene completa puede haber más elementos a partir de su último id
+    private static <T> PaginaPorClave<T> pagina(List<T> elementos, int tamano, Function<T, Long> obtenerId) {
+        Long siguiente = elementos.size() == tamano && !elementos.isEmpty() ?
+                obtenerId.apply(elementos.get(elementos.size() - 1)) : null;
+        return new PaginaPorClave<>(elementos, siguiente);
+    }
+
+    // Carga las entidades de los ids (una consulta IN por cada bloque de ids) y respeta el orden del índice
+    private static <T> List<T> cargarEnOrden(
+            Function<List<Long>, ? extends Iterable<T>> cargar,
+            List<Long> ids,
+            Function<T, Long> obtenerId) {
+        Map<Long, T> porId = new HashMap<>();
+        for (int desde = 0; desde < ids.size(); desde += MAX_IDS_POR_CONSULTA) {
+            List<Long> bloque = ids.subList(desde, Math.min(ids.size(), desde + MAX_IDS_POR_CONSULTA));
+            cargar.apply(bloque).forEach(entidad -> porId.put(obtenerId.apply(entidad), entidad));
+        }
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
     }
 
     /**
-     * Lista autores nacidos entre dos años específicos
+     * Lista autores nacidos entre dos años específicos, ordenados por año de nacimiento
      */
     public List<Autor> listarAutoresPorRangoNacimiento(int anioInicio, int anioFin) {
-        return autorRepository.findByAnioNacimientoBetween(anioInicio, anioFin);
+        return autorRepository.cargarPorIds(indiceBusqueda.autoresNacidosEntre(anioInicio, anioFin));
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.modelo.dto.PaginaPorClave;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.EstadisticasLibros;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.LibroPopular;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import static com.aluracursos.LiterAlura.servicio.LiteraturaServicio.TAMANO_PAGINA_LISTADOS;
+
+/**
+ * Variante reactiva de LiteraturaServicio.
+ * Las llamadas a Gutendex no bloquean ningún hilo y el trabajo de JPA, que sí es bloqueante,
+ * se ejecuta en un scheduler acotado (jpaScheduler). Los libros se registran, como en LiteraturaServicio,
+ * a través de ColaEscritura, que los agrupa en transacciones cortas. Así una sola instancia puede tener
+ * cientos de búsquedas en curso sin reservar un hilo por cada una.
+ */
+@Service
+@Slf4j
+public class LiteraturaServicioReactivo {
+    private final LiteraturaServicio literaturaServicio;
+    private final ColaEscritura colaEscritura;
+    private final IndiceBusqueda indiceBusqueda;
+    private final GutendexCliente gutendexCliente;
+    private final Scheduler jpaScheduler;
+
+    public LiteraturaServicioReactivo(
+            LiteraturaServicio literaturaServicio,
+            ColaEscritura colaEscritura,
+            IndiceBusqueda indiceBusqueda,
+            GutendexCliente gutendexCliente,
+            @Qualifier("jpaScheduler") Scheduler jpaScheduler) {
+        this.literaturaServicio = literaturaServicio;
+        this.colaEscritura = colaEscritura;
+        this.indiceBusqueda = indiceBusqueda;
+        this.gutendexCliente = gutendexCliente;
+        this.jpaScheduler = jpaScheduler;
+    }
+
+    /**
+     * Busca un libro por título en Gutendex y lo registra en la base de datos.
+     * Termina vacío si Gutendex no encuentra el libro y con LibroDuplicadoException si ya estaba registrado.
+     */
+    public Mono<Libro> buscarYRegistrarLibro(String titulo) {
+        return Mono.defer(() -> indiceBusqueda.existeTitulo(titulo) ?
+                        Mono.<Libro>error(new LibroDuplicadoException()) :
+                        gutendexCliente.buscarPrimero(titulo)
+                                .flatMap(this::registrar))
+                .doOnError(e -> !(e instanceof LibroDuplicadoException),
+                        e -> log.error("Error al buscar el libro en Gutendex: {}", e.getMessage()));
+    }
+
+    /**
+     * Los 10 libros más descargados de Gutendex, desde el ranking en memoria
+     */
+    public Flux<LibroPopular> obtenerTop10Libros() {
+        return Flux.defer(() -> Flux.fromIterable(literaturaServicio.obtenerTop10Libros()));
+    }
+
+    /**
+     * Todos los libros registrados, pedidos a la base de datos página a página (paginación por clave)
+     */
+    public Flux<LibroResumen> listarLibros() {
+        return paginas(desde -> literaturaServicio.listarLibros(desde, TAMANO_PAGINA_LISTADOS));
+    }
+
+    public Flux<AutorResumen> listarAutores() {
+        return paginas(desde -> literaturaServicio.listarAutores(desde, TAMANO_PAGINA_LISTADOS));
+    }
+
+    public Flux<Autor> listarAutoresVivos(int anio) {
+        return enJpaFlux(() -> literaturaServicio.listarAutoresVivos(anio));
+    }
+
+    public Flux<LibroResumen> listarLibrosPorIdioma(String idioma) {
+        return paginas(desde -> literaturaServicio.listarLibrosPorIdioma(idioma, desde, TAMANO_PAGINA_LISTADOS));
+    }
+
+    public Mono<EstadisticasLibros> generarEstadisticas() {
+        return enJpa(literaturaServicio::generarEstadisticas);
+    }
+
+    public Flux<Autor> buscarAutorPorNombre(String nombre) {
+        return enJpaFlux(() -> literaturaServicio.buscarAutorPorNombre(nombre));
+    }
+
+    public Flux<Autor> listarAutoresPorRangoNacimiento(int anioInicio, int anioFin) {
+        return enJpaFlux(() -> literaturaServicio.listarAutoresPorRangoNacimiento(anioInicio, anioFin));
+    }
+
+    // Deja el libro en la cola de escritura y termina cuando está guardado. Encolar solo espera si la cola
+    // está llena, pero esa espera tampoco debe ocupar un hilo de Netty: se hace en el scheduler de JPA
+    private Mono<Libro> registrar(GutendexLibro libro) {
+        return Mono.fromFuture(() -> colaEscritura.encolar(libro)).subscribeOn(jpaScheduler);
+    }
+
+    // Ejecuta una llamada bloqueante en el scheduler de JPA
+    private <T> Mono<T> enJpa(Callable<T> llamada) {
+        return Mono.fromCallable(llamada).subscribeOn(jpaScheduler);
+    }
+
+    // Recorre un listado página a página en el scheduler de JPA sin mantener un cursor abierto.
+    // Con prefetch 1 la página siguiente solo se pide cuando el suscriptor empieza a consumir la anterior,
+    // así que en memoria hay como mucho dos páginas aunque el listado tenga millones de filas
+    private <T> Flux<T> paginas(Function<Long, PaginaPorClave<T>> pedirPagina) {
+        return enJpa(() -> pedirPagina.apply(null))
+                .expand(pagina -> pagina.haySiguiente() ?
+                        enJpa(() -> pedirPagina.apply(pagina.siguiente())) : Mono.empty())
+                .concatMapIterable(PaginaPorClave::elementos, 1);
+    }
+
+    private <T> Flux<T> enJpaFlux(Callable<List<T>> llamada) {
+        return enJpa(llamada).flatMapIterable(lista -> lista);
+    }
+}
@@ -0,0 +1,136 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.dto.AutorResumen;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.repositorio.LibroRepositorio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Servicio que guarda en la base de datos los libros obtenidos de Gutendex.
+ * Al ser un bean independiente, sus métodos @Transactional pasan por el proxy de Spring
+ * tanto desde la búsqueda individual como desde la importación masiva.
+ * Después de guardar publica un LibrosRegistradosEvento para las estructuras en memoria.
+ */
+@Service
+@Slf4j
+public class PersistenciaLibrosServicio {
+    private final LibroRepositorio libroRepository;
+    private final CacheAutores cacheAutores;
+    private final ApplicationEventPublisher eventos;
+
+    public PersistenciaLibrosServicio(
+            LibroRepositorio libroRepository,
+            CacheAutores cacheAutores,
+            ApplicationEventPublisher eventos) {
+        this.libroRepository = libroRepository;
+        this.cacheAutores = cacheAutores;
+        this.eventos = eventos;
+    }
+
+    /**
+     * Convierte un libro de Gutendex a nuestro modelo y lo guarda en la base de datos
+     * @throws IllegalArgumentException si el libro no supera la validación
+     * @throws LibroDuplicadoException si ya hay un libro guardado con el mismo id de Gutendex
+     */
+    @Transactional
+    public Libro guardarLibro(GutendexLibro gutendexBook) {
+        Libro libro = ConversorGutendex.aLibro(gutendexBook);
+        if (libro.getGutendexId() != null && libroRepository.existsByGutendexId(libro.getGutendexId())) {
+            throw new LibroDuplicadoException();
+        }
+        List<AutorResumen> autores = new ArrayList<>(1);
+
+        // Guardar los autores que no existan y vincularlos con el libro
+        vincularAutores(libro, gutendexBook, autores);
+
+        // Guardar y retornar el libro
+        Libro guardado = libroRepository.save(libro);
+        eventos.publishEvent(new LibrosRegistradosEvento(List.of(guardado), autores));
+        return guardado;
+    }
+
+    /**
+     * Guarda un lote de libros en una sola transacción.
+     * Los libros que no superan la validación se omiten (con un aviso en el log)
+     * para que un registro incompleto no detenga la importación de todo el catálogo.
+     */
+    @Transactional
+    public List<Libro> guardarLote(List<GutendexLibro> lote) {
+        List<Libro> libros = new ArrayList<>(lote.size());
+        List<AutorResumen> autores = new ArrayList<>(lote.size());
+        for (GutendexLibro gutendexBook : lote) {
+            try {
+                Libro libro = ConversorGutendex.aLibro(gutendexBook);
+                vincularAutores(libro, gutendexBook, autores);
+                libros.add(libro);
+            } catch (IllegalArgumentException e) {
+                log.warn("Se omite el libro {} de Gutendex: {}", gutendexBook.getId(), e.getMessage());
+            }
+        }
+        List<Libro> guardados = libroRepository.saveAllBatched(libros);
+        eventos.publishEvent(new LibrosRegistradosEvento(guardados, autores));
+        return guardados;
+    }
+
+    /**
+     * Guarda un lote de una importación del catálogo: como guardarLote, pero omite también los libros
+     * que ya están guardados (por su id de Gutendex) y los repetidos dentro del lote, así que repetir
+     * una importación no duplica libros. Los ya guardados se buscan con una consulta por lote
+     */
+    @Transactional
+    public List<Libro> importarLote(List<GutendexLibro> lote) {
+        List<Long> ids = lote.stream().map(GutendexLibro::getId).filter(Objects::nonNull).toList();
+        Set<Long> vistos = ids.isEmpty() ? new HashSet<>() : new HashSet<>(libroRepository.findGutendexIdsIn(ids));
+        List<GutendexLibro> nuevos = new ArrayList<>(lote.size());
+        for (GutendexLibro gutendexBook : lote) {
+            if (gutendexBook.getId() == null || vistos.add(gutendexBook.getId())) {
+                nuevos.add(gutendexBook);
+            }
+        }
+        if (nuevos.size() < lote.size()) {
+            log.debug("Se omiten {} libros ya guardados o repetidos", lote.size() - nuevos.size());
+        }
+        return guardarLote(nuevos);
+    }
+
+    /**
+     * Guarda cada autor del libro que no exista y los agrega al libro en el orden de Gutendex.
+     * Los autores se agregan ya con su id y sin cargarlos: al guardar el libro solo se insertan
+     * las filas de libro_autor
+     */
+    private void vincularAutores(Libro libro, GutendexLibro gutendexBook, List<AutorResumen> registrados) {
+        if (gutendexBook.getAuthors() == null) {
+            return;
+        }
+        for (GutendexAutor gutendexAuthor : gutendexBook.getAuthors()) {
+            if (gutendexAuthor.getName() == null || gutendexAuthor.getName().isBlank()) {
+                continue;
+            }
+            Autor autor = guardarAutorSiNoExiste(gutendexAuthor);
+            libro.getAutores().add(autor);
+            registrados.add(AutorResumen.de(autor));
+        }
+    }
+
+    /**
+     * Guarda un autor en la base de datos si no existe.
+     * La caché resuelve en memoria los autores ya conocidos y solo va a la base de datos en los fallos.
+     */
+    private Autor guardarAutorSiNoExiste(GutendexAutor gutendexAuthor) {
+        Autor autor = ConversorGutendex.aAutor(gutendexAuthor);
+        autor.setId(cacheAutores.obtenerOCrear(gutendexAuthor));
+        return autor;
+    }
+}
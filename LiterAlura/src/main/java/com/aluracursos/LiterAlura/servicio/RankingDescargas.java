@@ -0,0 +1,168 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.RankingPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.LibroPopular;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Rankings de los libros más descargados de Gutendex, uno general y uno por cada idioma configurado.
+ * Se guardan en memoria y se actualizan en segundo plano cada literalura.ranking.intervalo, así que
+ * consultarlos no hace ninguna petición: copiar los N primeros de una lista ya ordenada.
+ * Cada actualización sigue las páginas de Gutendex y se queda con los N libros con más descargas
+ * (N = literalura.ranking.tamano) mediante un montículo acotado; un libro que cambia de página entre
+ * dos peticiones no se repite. Como solo se guardan N libros, no se pueden pedir más de N.
+ * Si la actualización de un ranking falla se sigue sirviendo el anterior. Hasta que termina la primera
+ * actualización (o si nunca se actualiza, con literalura.ranking.actualizar=false) los rankings no están
+ * disponibles y consultarlos lanza RankingNoDisponibleException.
+ */
+@Component
+@Slf4j
+public class RankingDescargas implements DisposableBean {
+    public static final String TODOS = "todos";
+
+    // Más descargas primero; a igual número, el de menor id
+    private static final Comparator<GutendexLibro> POR_DESCARGAS =
+            Comparator.comparingInt(RankingDescargas::descargas).reversed()
+                    .thenComparing(GutendexLibro::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final GutendexCliente gutendexCliente;
+    private final RankingPropiedades propiedades;
+    private volatile Map<String, List<LibroPopular>> rankings = Map.of();
+    private volatile Disposable actualizacion;
+
+    public RankingDescargas(GutendexCliente gutendexCliente, RankingPropiedades propiedades) {
+        this.gutendexCliente = gutendexCliente;
+        this.propiedades = propiedades;
+    }
+
+    /**
+     * Programa la actualización periódica, empezando al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!propiedades.isActualizar()) {
+            return;
+        }
+        actualizacion = Flux.interval(Duration.ZERO, propiedades.getIntervalo())
+                // Si una actualización tarda más que el intervalo, los ticks intermedios se descartan
+                .onBackpressureDrop()
+                .concatMap(tick -> actualizar(), 0)
+                .subscribe();
+    }
+
+    /**
+     * Descarga los rankings y reemplaza los que se han podido obtener
+     */
+    public Mono<Map<String, List<LibroPopular>>> actualizar() {
+        List<String> claves = new ArrayList<>();
+        claves.add(TODOS);
+        claves.addAll(propiedades.getIdiomas());
+        return Flux.fromIterable(claves)
+                .concatMap(clave -> ranking(clave)
+                        .map(ranking -> Map.entry(clave, ranking))
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo actualizar el ranking '{}': {}", clave, e.getMessage());
+                            return Mono.justOrEmpty(rankings.get(clave)).map(anterior -> Map.entry(clave, anterior));
+                        }))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new)
+                .map(nuevos -> {
+                    rankings = Map.copyOf(nuevos);
+                    log.info("Rankings de descargas actualizados: {}", nuevos.keySet());
+                    return rankings;
+                });
+    }
+
+    /**
+     * Los cantidad libros más descargados del idioma (null o vacío = todos los idiomas), sin ir a Gutendex.
+     * La cantidad va de 1 al tamaño de los rankings (IllegalArgumentException si no).
+     * Vacío si el idioma no tiene ranking propio; RankingNoDisponibleException si lo tiene pero todavía no se ha cargado
+     */
+    public List<LibroPopular> top(String idioma, int cantidad) {
+        int tamano = propiedades.getTamano();
+        if (cantidad < 1 || cantidad > tamano) {
+            throw new IllegalArgumentException(
+                    "La cantidad debe estar entre 1 y " + tamano + " (literalura.ranking.tamano)");
+        }
+        String clave = idioma == null || idioma.isBlank() ? TODOS : idioma;
+        List<LibroPopular> ranking = rankings.get(clave);
+        if (ranking == null) {
+            if (TODOS.equals(clave) || propiedades.getIdiomas().contains(clave)) {
+                throw new RankingNoDisponibleException(clave);
+            }
+            return List.of();
+        }
+        return List.copyOf(ranking.subList(0, Math.min(cantidad, ranking.size())));
+    }
+
+    /**
+     * Cantidad máxima de libros de cada ranking (literalura.ranking.tamano)
+     */
+    public int tamano() {
+        return propiedades.getTamano();
+    }
+
+    @Override
+    public void destroy() {
+        if (actualizacion != null) {
+            actualizacion.dispose();
+        }
+    }
+
+    private Mono<List<LibroPopular>> ranking(String clave) {
+        int tamano = propiedades.getTamano();
+        return gutendexCliente.masDescargados(TODOS.equals(clave) ? null : clave, tamano)
+                .collect(() -> new Seleccion(tamano), Seleccion::agregar)
+                .map(Seleccion::ordenados);
+    }
+
+    private static int descargas(GutendexLibro libro) {
+        return libro.getDownloadCount() != null ? libro.getDownloadCount() : 0;
+    }
+
+    // Los N mejores libros vistos: montículo de mínimos con el peor de los N en la raíz
+    private static final class Seleccion {
+        private final int tamano;
+        private final PriorityQueue<GutendexLibro> mejores;
+        private final Set<Long> ids = new HashSet<>();
+
+        Seleccion(int tamano) {
+            this.tamano = tamano;
+            this.mejores = new PriorityQueue<>(Math.max(1, tamano), POR_DESCARGAS.reversed());
+        }
+
+        void agregar(GutendexLibro libro) {
+            if (tamano <= 0 || !ids.add(libro.getId())) {
+                return;
+            }
+            if (mejores.size() < tamano) {
+                mejores.add(libro);
+            } else if (POR_DESCARGAS.compare(libro, mejores.peek()) < 0) {
+                ids.remove(mejores.poll().getId());
+                mejores.add(libro);
+            }
+        }
+
+        List<LibroPopular> ordenados() {
+            return mejores.stream().sorted(POR_DESCARGAS).map(LibroPopular::de).toList();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aluracursos.LiterAlura.servicio;
+
+// Se lanza al consultar un ranking de descargas que todavía no se ha podido cargar
+// (al iniciar la aplicación, hasta que termina la primera actualización)
+
+public class RankingNoDisponibleException extends RuntimeException {
+
+    public RankingNoDisponibleException(String clave) {
+        super("El ranking '" + clave + "' todavía no está disponible; se carga en segundo plano al iniciar");
+    }
+}
@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lleva libro_seq y autor_seq más allá del mayor id de su tabla.
+ * Las bases de datos creadas cuando los ids eran IDENTITY ya tienen filas con ids que las secuencias
+ * (que empiezan en 1) volverían a dar, y la primera inserción chocaría con la clave primaria.
+ * Hibernate reparte los ids por bloques (optimizador pooled): cada nextval reserva los 50 ids que
+ * terminan en el valor devuelto, así que la secuencia se reinicia en el mayor id más 50.
+ * Si la secuencia ya va por delante no se toca (solo se consume un bloque).
+ * En Java y no en SQL porque PostgreSQL (setval) y H2 no comparten una forma de mover una secuencia
+ * a un valor calculado; ALTER SEQUENCE ... RESTART WITH con un número sí es común a los dos.
+ */
+public class V4__AvanzarSecuencias extends BaseJavaMigration {
+    // allocationSize de Libro y Autor
+    static final int INCREMENTO = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexion = context.getConnection();
+        avanzar(conexion, "libro", "libro_seq");
+        avanzar(conexion, "autor", "autor_seq");
+    }
+
+    private static void avanzar(Connection conexion, String tabla, String secuencia) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            long maximo = valor(sentencia, "SELECT COALESCE(MAX(id), 0) FROM " + tabla);
+            long siguiente = valor(sentencia, "SELECT nextval('" + secuencia + "')");
+            if (siguiente - INCREMENTO < maximo) {
+                sentencia.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + (maximo + INCREMENTO));
+            }
+        }
+    }
+
+    private static long valor(Statement sentencia, String consulta) throws SQLException {
+        try (ResultSet fila = sentencia.executeQuery(consulta)) {
+            fila.next();
+            return fila.getLong(1);
+        }
+    }
+}
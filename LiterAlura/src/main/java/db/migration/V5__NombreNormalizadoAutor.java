@@ -0,0 +1,145 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Añade autor.nombre_normalizado con su índice único y lo usa como clave del autor en lugar del nombre exacto.
+ * Hasta ahora "Austen, Jane" y "austen,  JANE" podían guardarse como dos autores. Los autores cuyo
+ * nombre normalizado coincide se unen en el de menor id: sus libros pasan a apuntar a él y el resto se borra.
+ * Si un libro estaba vinculado a dos formas del mismo autor se conserva el vínculo de menor posición y las
+ * posiciones de sus autores se renumeran sin huecos (la lista ordenada de Libro.autores no admite huecos).
+ * En Java y no en SQL porque la normalización (NFC, espacios y minúsculas) tiene que ser la misma que la de
+ * Autor.normalizarNombre. Es una copia congelada: si la aplicación cambia su normalización, esta migración
+ * no cambia lo que ya calculó.
+ */
+public class V5__NombreNormalizadoAutor extends BaseJavaMigration {
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexion = context.getConnection();
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("ALTER TABLE autor ADD COLUMN nombre_normalizado VARCHAR(255)");
+        }
+
+        Map<String, Long> primeros = new HashMap<>();
+        List<long[]> repetidos = new ArrayList<>();
+        try (Statement consulta = conexion.createStatement();
+             ResultSet autores = consulta.executeQuery(
+                     "SELECT id, nombre FROM autor WHERE nombre IS NOT NULL ORDER BY id");
+             PreparedStatement normalizar = conexion.prepareStatement(
+                     "UPDATE autor SET nombre_normalizado = ? WHERE id = ?")) {
+            while (autores.next()) {
+                long id = autores.getLong(1);
+                String normalizado = normalizar(autores.getString(2));
+                Long primero = primeros.putIfAbsent(normalizado, id);
+                if (primero == null) {
+                    normalizar.setString(1, normalizado);
+                    normalizar.setLong(2, id);
+                    normalizar.addBatch();
+                } else {
+                    repetidos.add(new long[]{primero, id});
+                }
+            }
+            normalizar.executeBatch();
+        }
+        for (long[] repetido : repetidos) {
+            unir(conexion, repetido[0], repetido[1]);
+        }
+
+        try (Statement sentencia = conexion.createStatement()) {
+            // El índice sobre el nombre exacto queda cubierto por el del nombre normalizado
+            sentencia.execute("DROP INDEX IF EXISTS uk_autor_nombre");
+            sentencia.execute("CREATE UNIQUE INDEX uk_autor_nombre_normalizado ON autor (nombre_normalizado)");
+        }
+    }
+
+    // Pasa los libros del autor repetido al que se conserva y borra el repetido
+    private static void unir(Connection conexion, long conservado, long repetido) throws SQLException {
+        // Libros vinculados a los dos: se borra el vínculo de mayor posición
+        List<Long> librosConLosDos = new ArrayList<>();
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT libro_id FROM libro_autor WHERE autor_id = ? "
+                        + "AND libro_id IN (SELECT libro_id FROM libro_autor WHERE autor_id = ?)")) {
+            consulta.setLong(1, repetido);
+            consulta.setLong(2, conservado);
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    librosConLosDos.add(filas.getLong(1));
+                }
+            }
+        }
+        try (PreparedStatement borrarVinculo = conexion.prepareStatement(
+                "DELETE FROM libro_autor WHERE libro_id = ? AND autor_id IN (?, ?) AND posicion = "
+                        + "(SELECT MAX(posicion) FROM libro_autor WHERE libro_id = ? AND autor_id IN (?, ?))")) {
+            for (long libro : librosConLosDos) {
+                borrarVinculo.setLong(1, libro);
+                borrarVinculo.setLong(2, conservado);
+                borrarVinculo.setLong(3, repetido);
+                borrarVinculo.setLong(4, libro);
+                borrarVinculo.setLong(5, conservado);
+                borrarVinculo.setLong(6, repetido);
+                borrarVinculo.executeUpdate();
+            }
+        }
+
+        try (PreparedStatement moverLibros = conexion.prepareStatement(
+                "UPDATE libro_autor SET autor_id = ? WHERE autor_id = ?");
+             PreparedStatement borrar = conexion.prepareStatement("DELETE FROM autor WHERE id = ?")) {
+            moverLibros.setLong(1, conservado);
+            moverLibros.setLong(2, repetido);
+            moverLibros.executeUpdate();
+            borrar.setLong(1, repetido);
+            borrar.executeUpdate();
+        }
+
+        for (long libro : librosConLosDos) {
+            renumerar(conexion, libro);
+        }
+    }
+
+    // Posiciones 0..n-1 en el orden actual. En orden ascendente cada posición nueva ya está libre
+    private static void renumerar(Connection conexion, long libro) throws SQLException {
+        List<Integer> posiciones = new ArrayList<>();
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT posicion FROM libro_autor WHERE libro_id = ? ORDER BY posicion")) {
+            consulta.setLong(1, libro);
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    posiciones.add(filas.getInt(1));
+                }
+            }
+        }
+        try (PreparedStatement mover = conexion.prepareStatement(
+                "UPDATE libro_autor SET posicion = ? WHERE libro_id = ? AND posicion = ?")) {
+            for (int nueva = 0; nueva < posiciones.size(); nueva++) {
+                if (posiciones.get(nueva) != nueva) {
+                    mover.setInt(1, nueva);
+                    mover.setLong(2, libro);
+                    mover.setInt(3, posiciones.get(nueva));
+                    mover.executeUpdate();
+                }
+            }
+        }
+    }
+
+    // Copia congelada de Autor.normalizarNombre tal como era al escribir esta migración
+    private static String normalizar(String nombre) {
+        String compuesto = Normalizer.normalize(nombre, Normalizer.Form.NFC);
+        return ESPACIOS.matcher(compuesto.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
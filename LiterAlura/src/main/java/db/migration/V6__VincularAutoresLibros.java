@@ -0,0 +1,61 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Completa libro_autor para los libros guardados cuando solo se conservaba el nombre del autor en
+ * Libro.autor: cada libro sin autores vinculados se une, en la posición 0, con el autor cuyo
+ * nombre_normalizado (V5) coincide con el de Libro.autor normalizado. Esos libros solo tenían el primer
+ * autor de Gutendex, así que quedan con uno solo; los que no tienen autor registrado quedan sin vincular.
+ * La normalización es una copia congelada de Autor.normalizarNombre, igual que la de V5.
+ */
+public class V6__VincularAutoresLibros extends BaseJavaMigration {
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexion = context.getConnection();
+        Map<String, Long> autores = new HashMap<>();
+        try (Statement consulta = conexion.createStatement();
+             ResultSet filas = consulta.executeQuery(
+                     "SELECT id, nombre_normalizado FROM autor WHERE nombre_normalizado IS NOT NULL")) {
+            while (filas.next()) {
+                autores.put(filas.getString(2), filas.getLong(1));
+            }
+        }
+
+        try (Statement consulta = conexion.createStatement();
+             ResultSet libros = consulta.executeQuery("SELECT l.id, l.autor FROM libro l WHERE l.autor IS NOT NULL "
+                     + "AND NOT EXISTS (SELECT 1 FROM libro_autor la WHERE la.libro_id = l.id)");
+             PreparedStatement vincular = conexion.prepareStatement(
+                     "INSERT INTO libro_autor (libro_id, autor_id, posicion) VALUES (?, ?, 0)")) {
+            while (libros.next()) {
+                Long autor = autores.get(normalizar(libros.getString(2)));
+                if (autor != null) {
+                    vincular.setLong(1, libros.getLong(1));
+                    vincular.setLong(2, autor);
+                    vincular.addBatch();
+                }
+            }
+            vincular.executeBatch();
+        }
+    }
+
+    // Copia congelada de Autor.normalizarNombre tal como era al escribir esta migración
+    private static String normalizar(String nombre) {
+        String compuesto = Normalizer.normalize(nombre, Normalizer.Form.NFC);
+        return ESPACIOS.matcher(compuesto.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+-- Esquema inicial: el mismo que generaba Hibernate con ddl-auto=update a partir de las entidades.
+-- Las bases de datos creadas antes de usar Flyway se registran en la versión 0
+-- (spring.flyway.baseline-on-migrate) y este script las completa: cada sentencia solo crea lo que
+-- falta, así que sirve tanto para una base vacía como para una creada por versiones anteriores
+-- (con ids IDENTITY, sin secuencias, sin libro_autor ni índices). V4 mueve después las secuencias
+-- más allá de los ids existentes
+
+-- Secuencias con asignación por bloques de 50 (allocationSize de Libro y Autor)
+CREATE SEQUENCE IF NOT EXISTS autor_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS libro_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS autor (
+    id BIGINT NOT NULL,
+    nombre VARCHAR(255),
+    vivo BOOLEAN NOT NULL,
+    anio_nacimiento INTEGER NOT NULL CHECK (anio_nacimiento >= 0),
+    anio_muerte INTEGER NOT NULL CHECK (anio_muerte >= 0),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS libro (
+    id BIGINT NOT NULL,
+    titulo VARCHAR(255),
+    idioma VARCHAR(255),
+    autor VARCHAR(255),
+    descargas INTEGER NOT NULL CHECK (descargas >= 0),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS libro_autor (
+    libro_id BIGINT NOT NULL,
+    posicion INTEGER NOT NULL,
+    autor_id BIGINT NOT NULL,
+    PRIMARY KEY (posicion, libro_id),
+    CONSTRAINT fk_libro_autor_libro FOREIGN KEY (libro_id) REFERENCES libro,
+    CONSTRAINT fk_libro_autor_autor FOREIGN KEY (autor_id) REFERENCES autor
+);
+
+-- Un autor por nombre. Las versiones anteriores podían guardar dos veces el mismo nombre con
+-- registros simultáneos: se conserva el de menor id y los que ya tengan libros vinculados
+DELETE FROM autor
+WHERE id NOT IN (SELECT MIN(id) FROM autor GROUP BY nombre)
+  AND id NOT IN (SELECT autor_id FROM libro_autor);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_autor_nombre ON autor (nombre);
+
+-- Autores vivos en un año y nacidos en un rango
+CREATE INDEX IF NOT EXISTS idx_autor_nacimiento_muerte ON autor (anio_nacimiento, anio_muerte);
+-- Paginación por clave de los listados por idioma
+CREATE INDEX IF NOT EXISTS idx_libro_idioma_id ON libro (idioma, id);
+-- Libros de un autor
+CREATE INDEX IF NOT EXISTS idx_libro_autor_autor ON libro_autor (autor_id);
@@ -0,0 +1,16 @@
+-- Todos los idiomas de cada libro, no solo el principal (libro.idioma).
+-- La clave empieza por el idioma: los libros de un idioma quedan juntos en el índice y en orden de id,
+-- así que contar o paginar los libros de un idioma solo lee su parte del índice
+CREATE TABLE libro_idioma (
+    libro_id BIGINT NOT NULL,
+    idioma VARCHAR(3) NOT NULL,
+    PRIMARY KEY (idioma, libro_id),
+    CONSTRAINT fk_libro_idioma_libro FOREIGN KEY (libro_id) REFERENCES libro
+);
+
+-- Idiomas de un libro (carga de la colección Libro.idiomas)
+CREATE INDEX idx_libro_idioma_libro ON libro_idioma (libro_id);
+
+-- Los libros ya registrados solo guardaban su idioma principal
+INSERT INTO libro_idioma (libro_id, idioma)
+SELECT id, idioma FROM libro WHERE idioma IS NOT NULL;
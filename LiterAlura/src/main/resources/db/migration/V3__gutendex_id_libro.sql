@@ -0,0 +1,5 @@
+-- Id del libro en Gutendex, para que repetir una importación no vuelva a guardar los mismos libros.
+-- Los libros ya registrados quedan sin él (nulo); el índice único admite varios nulos
+ALTER TABLE libro ADD COLUMN gutendex_id BIGINT;
+
+CREATE UNIQUE INDEX uk_libro_gutendex_id ON libro (gutendex_id);
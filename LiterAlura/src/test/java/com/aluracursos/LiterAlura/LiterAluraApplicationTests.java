@@ -1,13 +1,49 @@
 package com.aluracursos.LiterAlura;
 
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
 @SpringBootTest
 class LiterAluraApplicationTests {
 
+	@Autowired
+	private LiteraturaServicio literaturaServicio;
+
+	@Autowired
+	private MeterRegistry registro;
+
 	@Test
 	void contextLoads() {
 	}
 
+	// En las pruebas Spring Boot no exporta las métricas y usa un SimpleMeterRegistry
+	@Test
+	void registraLasMetricasDelServicioLosRepositoriosLasCachesYHibernate() {
+		assertInstanceOf(SimpleMeterRegistry.class, registro);
+		// Al iniciar, el índice de búsqueda ya recorre los libros con la misma consulta
+		long consultasAlIniciar = registro.get("spring.data.repository.invocations")
+				.tags("repository", "LibroRepositorio", "method", "findByIdGreaterThanOrderByIdAsc").timer().count();
+
+		literaturaServicio.listarLibros(null, 10);
+		literaturaServicio.generarEstadisticas();
+
+		assertEquals(1, registro.get("literalura.servicio")
+				.tags("method", "listarLibros", "exception", "none").timer().count());
+		assertEquals(1, registro.get("literalura.servicio").tag("method", "generarEstadisticas").timer().count());
+		assertEquals(consultasAlIniciar + 1, registro.get("spring.data.repository.invocations")
+				.tags("repository", "LibroRepositorio", "method", "findByIdGreaterThanOrderByIdAsc").timer().count());
+		assertNotNull(registro.get("cache.size").tag("cache", "autores").gauge());
+		assertNotNull(registro.get("cache.size").tags("cache", "gutendex", "endpoint", "busqueda").gauge());
+		assertNotNull(registro.get("literalura.tareas.en.curso").gauge());
+		assertNotNull(registro.get("hibernate.statements").functionCounter());
+	}
+
 }
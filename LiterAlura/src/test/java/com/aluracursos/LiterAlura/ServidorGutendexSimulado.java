@@ -0,0 +1,266 @@
+package com.aluracursos.LiterAlura;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Servidor HTTP local que imita la API de Gutendex con un catálogo generado
+// Sirve páginas de 32 libros en /books/ (parámetros page y search) y cuenta las peticiones recibidas
+// Cada respuesta lleva un ETag y las peticiones con If-None-Match coincidente reciben un 304 sin cuerpo
+// Se puede inyectar una latencia fija; las respuestas retrasadas se programan sin bloquear hilos del servidor
+// También se pueden inyectar fallos (las próximas N peticiones responden con un código de error),
+// /books redirige a /books/ como gutendex.com y el cuerpo se comprime con gzip si el cliente lo acepta
+// Por defecto los libros están en español (id múltiplo de 3) o en inglés; setIdiomas cambia los idiomas de cada id
+
+public class ServidorGutendexSimulado implements AutoCloseable {
+    public static final int TAMANO_PAGINA = 32;
+
+    private final HttpServer servidor;
+    private final int totalLibros;
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private final AtomicInteger noModificadas = new AtomicInteger();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final AtomicInteger maxEnCurso = new AtomicInteger();
+    private final ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger fallosPendientes = new AtomicInteger();
+    private final AtomicInteger comprimidas = new AtomicInteger();
+    private volatile int codigoFallo = 503;
+    private volatile Duration latencia = Duration.ZERO;
+    private volatile IntFunction<List<String>> idiomas = ServidorGutendexSimulado::idiomasPorDefecto;
+
+    public ServidorGutendexSimulado(int totalLibros) throws IOException {
+        this.totalLibros = totalLibros;
+        this.servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.servidor.createContext("/books/", this::responder);
+        this.servidor.createContext("/books", this::redirigir);
+        this.servidor.setExecutor(Executors.newCachedThreadPool());
+        this.servidor.start();
+    }
+
+    public String urlBase() {
+        return "http://localhost:" + servidor.getAddress().getPort() + "/books/";
+    }
+
+    // URL sin la barra final, que el servidor redirige con un 301
+    public String urlSinBarra() {
+        return "http://localhost:" + servidor.getAddress().getPort() + "/books";
+    }
+
+    public int peticiones() {
+        return peticiones.get();
+    }
+
+    public void setLatencia(Duration latencia) {
+        this.latencia = latencia;
+    }
+
+    // Idiomas de cada libro según su id, en el orden en que los da Gutendex
+    public void setIdiomas(IntFunction<List<String>> idiomas) {
+        this.idiomas = idiomas;
+    }
+
+    // Las próximas peticiones responden con el código indicado en lugar del catálogo
+    public void fallarProximas(int cantidad, int codigo) {
+        this.codigoFallo = codigo;
+        this.fallosPendientes.set(cantidad);
+    }
+
+    // Respuestas enviadas con Content-Encoding: gzip
+    public int comprimidas() {
+        return comprimidas.get();
+    }
+
+    // Máximo de peticiones atendidas simultáneamente
+    public int maxEnCurso() {
+        return maxEnCurso.get();
+    }
+
+    // Peticiones condicionales respondidas con 304
+    public int noModificadas() {
+        return noModificadas.get();
+    }
+
+    // Página de ejemplo con los libros 1..cantidad, con todos los campos que envía Gutendex
+    public static String ejemploPagina(int cantidad) {
+        StringBuilder resultados = new StringBuilder();
+        for (int id = 1; id <= cantidad; id++) {
+            if (resultados.length() > 0) {
+                resultados.append(',');
+            }
+            resultados.append(libro(id, idiomasPorDefecto(id)));
+        }
+        return respuesta(cantidad, "null", resultados.toString());
+    }
+
+    public static String tituloLibro(int id) {
+        return "Libro de prueba " + id;
+    }
+
+    private void responder(HttpExchange intercambio) throws IOException {
+        peticiones.incrementAndGet();
+        if (fallosPendientes.getAndUpdate(pendientes -> Math.max(0, pendientes - 1)) > 0) {
+            intercambio.sendResponseHeaders(codigoFallo, -1);
+            intercambio.close();
+            return;
+        }
+        maxEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+        if (latencia.isZero()) {
+            completar(intercambio);
+        } else {
+            programador.schedule(() -> {
+                try {
+                    completar(intercambio);
+                } catch (IOException e) {
+                    intercambio.close();
+                }
+            }, latencia.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void redirigir(HttpExchange intercambio) throws IOException {
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        intercambio.getResponseHeaders().add("Location", urlBase() + (consulta == null ? "" : "?" + consulta));
+        intercambio.sendResponseHeaders(301, -1);
+        intercambio.close();
+    }
+
+    private void completar(HttpExchange intercambio) throws IOException {
+        enCurso.decrementAndGet();
+        Map<String, String> parametros = parametros(intercambio.getRequestURI().getRawQuery());
+        String json = parametros.containsKey("search") ?
+                busqueda(parametros.get("search")) :
+                pagina(Integer.parseInt(parametros.getOrDefault("page", "1")), parametros.get("languages"));
+        String etag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+        if (etag.equals(intercambio.getRequestHeaders().getFirst("If-None-Match"))) {
+            noModificadas.incrementAndGet();
+            intercambio.getResponseHeaders().add("ETag", etag);
+            intercambio.sendResponseHeaders(304, -1);
+            intercambio.close();
+            return;
+        }
+        intercambio.getResponseHeaders().add("ETag", etag);
+        enviar(intercambio, json);
+    }
+
+    // Los libros se sirven en orden de id, que es también el de más a menos descargas (como sort=popular)
+    private String pagina(int numero, String idioma) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= totalLibros; id++) {
+            if (idioma == null || idioma.equals(idiomas.apply(id).get(0))) {
+                ids.add(id);
+            }
+        }
+        int desde = (numero - 1) * TAMANO_PAGINA;
+        int hasta = Math.min(ids.size(), desde + TAMANO_PAGINA);
+        StringBuilder resultados = new StringBuilder();
+        for (int i = desde; i < hasta; i++) {
+            if (resultados.length() > 0) {
+                resultados.append(',');
+            }
+            resultados.append(libro(ids.get(i), idiomas.apply(ids.get(i))));
+        }
+        String siguiente = hasta < ids.size() ? "\"" + urlBase() + "?page=" + (numero + 1)
+                + (idioma == null ? "" : "&languages=" + idioma) + "\"" : "null";
+        return respuesta(ids.size(), siguiente, resultados.toString());
+    }
+
+    private static List<String> idiomasPorDefecto(int id) {
+        return List.of(id % 3 == 0 ? "es" : "en");
+    }
+
+    private String busqueda(String texto) {
+        String buscado = texto.toLowerCase(Locale.ROOT);
+        for (int id = 1; id <= totalLibros; id++) {
+            if (tituloLibro(id).toLowerCase(Locale.ROOT).contains(buscado)) {
+                return respuesta(1, "null", libro(id, idiomas.apply(id)));
+            }
+        }
+        return respuesta(0, "null", "");
+    }
+
+    private static String respuesta(int total, String siguiente, String resultados) {
+        return "{\"count\":" + total + ",\"next\":" + siguiente + ",\"previous\":null,\"results\":[" + resultados + "]}";
+    }
+
+    // Mismos campos y orden que un libro de gutendex.com (formats, summaries, etc. no los usa la aplicación)
+    private static String libro(int id, List<String> idiomasLibro) {
+        String ebook = "https://www.gutenberg.org/ebooks/" + id;
+        return "{\"id\":" + id
+                + ",\"title\":\"" + tituloLibro(id) + "\""
+                + ",\"authors\":[{\"name\":\"Autor " + (id % 50) + "\",\"birth_year\":1800,\"death_year\":1870}]"
+                + ",\"summaries\":[\"\\\"" + tituloLibro(id) + "\\\" is a novel written in the nineteenth century. "
+                + "The story follows several families through marriages, inheritances and misunderstandings, "
+                + "with a sharp eye for the manners of the time. (This is an automatically generated summary.)\"]"
+                + ",\"translators\":[],\"subjects\":[\"Fiction\",\"Domestic fiction\",\"England -- Fiction\"]"
+                + ",\"bookshelves\":[\"Best Books Ever Listings\",\"Category: Novels\",\"Category: Classics of Literature\"]"
+                + ",\"languages\":[" + idiomasLibro.stream().map(i -> "\"" + i + "\"").collect(Collectors.joining(",")) + "]"
+                + ",\"copyright\":false,\"media_type\":\"Text\""
+                + ",\"formats\":{\"text/html\":\"" + ebook + ".html.images\""
+                + ",\"application/epub+zip\":\"" + ebook + ".epub3.images\""
+                + ",\"application/x-mobipocket-ebook\":\"" + ebook + ".kf8.images\""
+                + ",\"text/plain; charset=us-ascii\":\"" + ebook + ".txt.utf-8\""
+                + ",\"application/rdf+xml\":\"" + ebook + ".rdf\""
+                + ",\"image/jpeg\":\"https://www.gutenberg.org/cache/epub/" + id + "/pg" + id + ".cover.medium.jpg\""
+                + ",\"application/octet-stream\":\"https://www.gutenberg.org/cache/epub/" + id + "/pg" + id + "-h.zip\"}"
+                + ",\"download_count\":" + (10_000 - id) + "}";
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(par.substring(0, igual),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private void enviar(HttpExchange intercambio, String json) throws IOException {
+        byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+        String codificacion = intercambio.getRequestHeaders().getFirst("Accept-Encoding");
+        if (codificacion != null && codificacion.contains("gzip")) {
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                gzip.write(cuerpo);
+            }
+            cuerpo = comprimido.toByteArray();
+            comprimidas.incrementAndGet();
+            intercambio.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        programador.shutdownNow();
+    }
+}
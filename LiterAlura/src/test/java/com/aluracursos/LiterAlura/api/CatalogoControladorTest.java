@@ -0,0 +1,118 @@
+package com.aluracursos.LiterAlura.api;
+
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.PersistenciaLibrosServicio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// La API sobre Tomcat en un puerto aleatorio, con los libros guardados como al registrarlos desde Gutendex
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CatalogoControladorTest {
+    private static final int LIBROS = 30;
+
+    @Autowired
+    private WebTestClient cliente;
+
+    @Autowired
+    private PersistenciaLibrosServicio persistenciaLibros;
+
+    private static boolean guardados;
+
+    @BeforeEach
+    void preparar() {
+        if (guardados) {
+            return;
+        }
+        List<GutendexLibro> libros = new ArrayList<>();
+        for (int i = 0; i < LIBROS; i++) {
+            GutendexAutor autor = new GutendexAutor();
+            autor.setName("Autor Api " + i);
+            autor.setBirthYear(String.valueOf(1800 + i));
+            autor.setDeathYear(String.valueOf(1860 + i));
+            GutendexLibro libro = new GutendexLibro();
+            libro.setId(900_000L + i);
+            libro.setTitle("Libro Api " + i);
+            libro.setAuthors(List.of(autor));
+            libro.setLanguages(List.of(i % 3 == 0 ? "pt" : "en"));
+            libro.setDownloadCount(i);
+            libros.add(libro);
+        }
+        persistenciaLibros.guardarLote(libros);
+        guardados = true;
+    }
+
+    @Test
+    void listaEnJsonPorPaginasYEnNdjsonEntero() {
+        cliente.get().uri("/api/libros?idioma=pt&tamano=4")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.elementos.length()").isEqualTo(4)
+                .jsonPath("$.siguiente").isNumber();
+
+        List<LibroResumen> todos = cliente.get().uri("/api/libros?idioma=pt")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(LibroResumen.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertEquals(LIBROS / 3, todos.size());
+        assertTrue(todos.stream().allMatch(libro -> libro.idioma().equals("pt")));
+    }
+
+    @Test
+    void buscaLibrosYAutores() {
+        cliente.get().uri("/api/libros/busqueda?titulo=Libro Api 17")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].titulo").isEqualTo("Libro Api 17");
+
+        cliente.get().uri("/api/autores/vivos?anio=1805")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.nombre == 'Autor Api 5')]").exists()
+                .jsonPath("$[?(@.nombre == 'Autor Api 6')]").doesNotExist();
+
+        cliente.get().uri("/api/autores/vivos?anio=mil")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void lasEstadisticasSeRevalidanConElEtag() {
+        String etag = cliente.get().uri("/api/estadisticas")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic())
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        cliente.get().uri("/api/estadisticas")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.aluracursos.LiterAlura.api;
+
+import com.aluracursos.LiterAlura.configuracion.ApiPropiedades;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LimiteConcurrenciaFiltroTest {
+
+    private static MockHttpServletRequest peticion(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    @Test
+    void rechazaConUn503LasPeticionesPorEncimaDelLimite() throws Exception {
+        ApiPropiedades propiedades = new ApiPropiedades();
+        propiedades.setMaxPeticiones(1);
+        propiedades.setEsperaMaxima(Duration.ZERO);
+        LimiteConcurrenciaFiltro filtro = new LimiteConcurrenciaFiltro(propiedades);
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        filtro.bindTo(registro);
+
+        // Mientras se atiende la primera petición llegan una segunda a /api y otra fuera de /api
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+        MockFilterChain enCurso = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    filtro.doFilter(peticion("/api/libros"), segunda, new MockFilterChain());
+                    filtro.doFilter(peticion("/actuator/health"), actuator, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        MockHttpServletResponse primera = new MockHttpServletResponse();
+        filtro.doFilter(peticion("/api/estadisticas"), primera, enCurso);
+
+        assertEquals(200, primera.getStatus());
+        assertEquals(503, segunda.getStatus());
+        assertEquals("1", segunda.getHeader("Retry-After"));
+        assertEquals(200, actuator.getStatus());
+        assertEquals(1.0, registro.get("literalura.api.rechazadas").counter().count());
+
+        // Al terminar la primera se libera su turno
+        MockHttpServletResponse despues = new MockHttpServletResponse();
+        filtro.doFilter(peticion("/api/libros"), despues, new MockFilterChain());
+        assertEquals(200, despues.getStatus());
+        assertEquals(0.0, registro.get("literalura.api.en.curso").gauge().value());
+    }
+}
@@ -0,0 +1,119 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.LiterAluraAplicacion;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.PersistenciaLibrosServicio;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Prueba de carga de la API HTTP: la aplicación arrancada con el perfil servidor sobre H2 en memoria
+// y 16 hilos de JMH haciendo peticiones con java.net.http.HttpClient (más hilos con -t, por ejemplo -t 128
+// para ver los 503 del límite de concurrencia en literalura.api.rechazadas). Throughput en peticiones por segundo:
+// - paginaLibros: primera página de 100 libros en JSON
+// - buscarTitulo: búsqueda por título en el índice en memoria
+// - autoresVivos: autores vivos en 1850
+// - estadisticas / estadisticasRevalidadas: la respuesta completa frente al 304 con If-None-Match
+// - streamingLibros: todos los libros de un idioma en NDJSON
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ApiBenchmark {
+    private static final int TAMANO_LOTE = 500;
+
+    @Param({"10000"})
+    private int tamano;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+    private String etagEstadisticas;
+
+    @Setup
+    public void preparar() throws Exception {
+        contexto = new SpringApplicationBuilder(LiterAluraAplicacion.class)
+                .profiles("servidor")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-api;MODE=PostgreSQL;"
+                                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "literalura.ranking.actualizar=false",
+                        "logging.level.root=WARN")
+                .run();
+        base = "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort() + "/api";
+
+        // Se guardan como en la importación para que el índice en memoria los tenga
+        PersistenciaLibrosServicio persistencia = contexto.getBean(PersistenciaLibrosServicio.class);
+        List<GutendexLibro> libros = DatosSinteticos.librosGutendex(tamano, 0);
+        for (int desde = 0; desde < libros.size(); desde += TAMANO_LOTE) {
+            persistencia.guardarLote(libros.subList(desde, Math.min(libros.size(), desde + TAMANO_LOTE)));
+        }
+
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        etagEstadisticas = cliente.send(peticion("/estadisticas").build(), HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue("ETag").orElseThrow();
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int paginaLibros() throws Exception {
+        return enviar(peticion("/libros?tamano=100"));
+    }
+
+    @Benchmark
+    public int buscarTitulo() throws Exception {
+        return enviar(peticion("/libros/busqueda?titulo=quijote"));
+    }
+
+    @Benchmark
+    public int autoresVivos() throws Exception {
+        return enviar(peticion("/autores/vivos?anio=1850"));
+    }
+
+    @Benchmark
+    public int estadisticas() throws Exception {
+        return enviar(peticion("/estadisticas"));
+    }
+
+    @Benchmark
+    public int estadisticasRevalidadas() throws Exception {
+        return enviar(peticion("/estadisticas").header("If-None-Match", etagEstadisticas));
+    }
+
+    @Benchmark
+    public int streamingLibros() throws Exception {
+        return enviar(peticion("/libros?idioma=pt").header("Accept", "application/x-ndjson"));
+    }
+
+    private HttpRequest.Builder peticion(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta));
+    }
+
+    // Devuelve el tamaño del cuerpo; un estado inesperado invalida la medida
+    private int enviar(HttpRequest.Builder peticion) throws IOException, InterruptedException {
+        HttpResponse<byte[]> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() != 200 && respuesta.statusCode() != 304) {
+            throw new IllegalStateException("Estado " + respuesta.statusCode() + " en " + respuesta.uri());
+        }
+        return respuesta.body().length;
+    }
+}
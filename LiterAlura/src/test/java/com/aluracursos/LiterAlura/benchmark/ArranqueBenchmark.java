@@ -0,0 +1,89 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tiempo de arranque de la aplicación, de la creación del proceso a su fin, con un lote vacío sobre H2 en memoria.
+// Cada ejecución es una JVM nueva (JMH no sirve aquí: mide código ya cargado y compilado). Variantes:
+// - completo: la configuración de antes del perfil rápido (servidor web, beans y repositorios al arrancar,
+//   JMX, Hibernate leyendo los metadatos JDBC y actualizando el esquema)
+// - rapido: el modo por lotes tal cual, con el perfil rapido y el esquema de Flyway
+// Uso: mvn -Pbenchmark test-compile exec:exec@arranque [-Darranque.ejecuciones=10] [-Darranque.jvm="-XX:TieredStopAtLevel=1"]
+// arranque.jvm añade opciones a las JVM medidas, por ejemplo -XX:SharedArchiveFile=... o -Dspring.aot.enabled=true
+
+public final class ArranqueBenchmark {
+    private static final List<String> COMPLETO = List.of(
+            "--spring.main.web-application-type=servlet",
+            "--spring.main.lazy-initialization=false",
+            "--spring.data.jpa.repositories.bootstrap-mode=default",
+            "--spring.jmx.enabled=true",
+            "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true",
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--spring.flyway.enabled=false");
+
+    private ArranqueBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ejecuciones = Integer.getInteger("arranque.ejecuciones", 5);
+        String opcionesJvm = System.getProperty("arranque.jvm", "").strip();
+        Path lote = Files.createTempFile("lote-vacio", ".txt");
+        lote.toFile().deleteOnExit();
+
+        Map<String, List<String>> variantes = new LinkedHashMap<>();
+        variantes.put("completo", COMPLETO);
+        variantes.put("rapido", List.of());
+
+        // Una ejecución de cada variante para calentar la caché de disco antes de medir
+        for (List<String> variante : variantes.values()) {
+            arrancar(lote, opcionesJvm, variante);
+        }
+        for (Map.Entry<String, List<String>> variante : variantes.entrySet()) {
+            long[] tiempos = new long[ejecuciones];
+            for (int i = 0; i < ejecuciones; i++) {
+                tiempos[i] = arrancar(lote, opcionesJvm, variante.getValue());
+            }
+            Arrays.sort(tiempos);
+            System.out.printf("%-10s mediana %5d ms   min %5d ms   max %5d ms   (%d ejecuciones)%n",
+                    variante.getKey(), tiempos[ejecuciones / 2], tiempos[0], tiempos[ejecuciones - 1], ejecuciones);
+        }
+    }
+
+    // Milisegundos desde que se crea el proceso hasta que termina
+    private static long arrancar(Path lote, String opcionesJvm, List<String> argumentos)
+            throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!opcionesJvm.isEmpty()) {
+            comando.addAll(Arrays.asList(opcionesJvm.split("\\s+")));
+        }
+        comando.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                "com.aluracursos.LiterAlura.LiterAluraAplicacion",
+                "--literalura.lote.archivo=" + lote,
+                "--spring.datasource.url=jdbc:h2:mem:arranque;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--logging.level.root=WARN"));
+        comando.addAll(argumentos);
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.appendTo(new File(System.getProperty("java.io.tmpdir"), "arranque.log")))
+                .start();
+        int codigo = proceso.waitFor();
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        if (codigo != 0) {
+            throw new IllegalStateException("La aplicación terminó con código " + codigo + ": " + comando);
+        }
+        return milisegundos;
+    }
+}
@@ -0,0 +1,142 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.busqueda.ArbolIntervalos;
+import com.aluracursos.LiterAlura.busqueda.ArbolIntervalos.Intervalo;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Consultas "vivos en el año X" y "nacidos entre A y B" sobre 1M de autores:
+// árbol de intervalos en memoria (el de IndiceBusqueda), recorrido lineal, y la consulta SQL equivalente
+// en H2 con y sin el índice idx_autor_nacimiento_muerte
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class AutoresVivosBenchmark {
+    private static final String VIVOS = "SELECT id FROM %s WHERE anio_nacimiento <> 0 AND anio_nacimiento <= ? "
+            + "AND (anio_muerte = 0 OR anio_muerte >= ?) ORDER BY anio_nacimiento, id";
+    private static final String NACIDOS = "SELECT id FROM %s WHERE anio_nacimiento BETWEEN ? AND ? "
+            + "ORDER BY anio_nacimiento, id";
+
+    @Param({"1000000"})
+    private int tamano;
+
+    @Param({"1850"})
+    private int anio;
+
+    private ArbolIntervalos arbol;
+    private List<Intervalo> intervalos;
+    private Connection conexion;
+
+    @Setup
+    public void preparar() throws SQLException {
+        SplittableRandom aleatorio = new SplittableRandom(DatosSinteticos.SEMILLA);
+        intervalos = new ArrayList<>(tamano);
+        for (int id = 1; id <= tamano; id++) {
+            int nacimiento = aleatorio.nextInt(1400, 1990);
+            // Un 5 % sin año de muerte (vivos o desconocido)
+            int muerte = aleatorio.nextInt(20) == 0 ? 0 : nacimiento + aleatorio.nextInt(25, 95);
+            intervalos.add(new Intervalo(id, nacimiento, muerte == 0 ? Integer.MAX_VALUE : muerte));
+        }
+        arbol = new ArbolIntervalos();
+        arbol.cargar(intervalos);
+
+        conexion = DriverManager.getConnection(
+                "jdbc:h2:mem:benchmark-autores;MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement sentencia = conexion.createStatement()) {
+            for (String tabla : List.of("autor", "autor_sin_indice")) {
+                sentencia.execute("DROP TABLE IF EXISTS " + tabla);
+                sentencia.execute("CREATE TABLE " + tabla
+                        + " (id BIGINT PRIMARY KEY, anio_nacimiento INT, anio_muerte INT)");
+            }
+            sentencia.execute("CREATE INDEX idx_autor_nacimiento_muerte ON autor (anio_nacimiento, anio_muerte)");
+        }
+        for (String tabla : List.of("autor", "autor_sin_indice")) {
+            try (PreparedStatement insercion = conexion.prepareStatement("INSERT INTO " + tabla + " VALUES (?, ?, ?)")) {
+                for (Intervalo intervalo : intervalos) {
+                    insercion.setLong(1, intervalo.id());
+                    insercion.setInt(2, intervalo.inicio());
+                    insercion.setInt(3, intervalo.fin() == Integer.MAX_VALUE ? 0 : intervalo.fin());
+                    insercion.addBatch();
+                    if (intervalo.id() % 10_000 == 0) {
+                        insercion.executeBatch();
+                    }
+                }
+                insercion.executeBatch();
+            }
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public List<Long> vivosArbol() {
+        return arbol.contienen(anio);
+    }
+
+    @Benchmark
+    public List<Long> vivosRecorridoLineal() {
+        List<Long> ids = new ArrayList<>();
+        for (Intervalo intervalo : intervalos) {
+            if (intervalo.inicio() <= anio && anio <= intervalo.fin()) {
+                ids.add(intervalo.id());
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Long> vivosSqlConIndice() throws SQLException {
+        return consultar(VIVOS.formatted("autor"), anio, anio);
+    }
+
+    @Benchmark
+    public List<Long> vivosSqlSinIndice() throws SQLException {
+        return consultar(VIVOS.formatted("autor_sin_indice"), anio, anio);
+    }
+
+    @Benchmark
+    public List<Long> nacidosArbol() {
+        return arbol.inicianEntre(anio, anio + 5);
+    }
+
+    @Benchmark
+    public List<Long> nacidosSqlConIndice() throws SQLException {
+        return consultar(NACIDOS.formatted("autor"), anio, anio + 5);
+    }
+
+    @Benchmark
+    public List<Long> nacidosSqlSinIndice() throws SQLException {
+        return consultar(NACIDOS.formatted("autor_sin_indice"), anio, anio + 5);
+    }
+
+    private List<Long> consultar(String sql, int primero, int segundo) throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(sql)) {
+            consulta.setInt(1, primero);
+            consulta.setInt(2, segundo);
+            List<Long> ids = new ArrayList<>();
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    ids.add(filas.getLong(1));
+                }
+            }
+            return ids;
+        }
+    }
+}
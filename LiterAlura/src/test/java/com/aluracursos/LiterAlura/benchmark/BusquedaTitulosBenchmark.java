@@ -0,0 +1,82 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.busqueda.IndiceTexto;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara el índice de trigramas en memoria con la consulta LIKE a la que sustituye
+// (upper(titulo) LIKE upper('%x%'), la que generaba Spring Data para una búsqueda por título parcial) sobre H2
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusquedaTitulosBenchmark {
+
+    @Param({"100000"})
+    private int tamano;
+
+    @Param({"quijote", "myst", "wondreland"})
+    private String consulta;
+
+    private IndiceTexto indice;
+    private Connection conexion;
+    private PreparedStatement consultaLike;
+
+    @Setup
+    public void preparar() throws SQLException {
+        List<String> titulos = DatosSinteticos.titulos(tamano);
+        indice = new IndiceTexto();
+        for (int i = 0; i < titulos.size(); i++) {
+            indice.agregar(i + 1, titulos.get(i));
+        }
+
+        conexion = DriverManager.getConnection("jdbc:h2:mem:benchmark-titulos;MODE=PostgreSQL", "sa", "");
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("CREATE TABLE libro (id BIGINT PRIMARY KEY, titulo VARCHAR(255))");
+        }
+        try (PreparedStatement insercion = conexion.prepareStatement("INSERT INTO libro VALUES (?, ?)")) {
+            for (int i = 0; i < titulos.size(); i++) {
+                insercion.setLong(1, i + 1);
+                insercion.setString(2, titulos.get(i));
+                insercion.addBatch();
+            }
+            insercion.executeBatch();
+        }
+        consultaLike = conexion.prepareStatement(
+                "SELECT id, titulo FROM libro WHERE upper(titulo) LIKE upper(?) ESCAPE '\\'");
+    }
+
+    @TearDown
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public List<IndiceTexto.Resultado> indiceTrigramas() {
+        return indice.buscar(consulta, 10);
+    }
+
+    @Benchmark
+    public List<Long> repositorioLike() throws SQLException {
+        consultaLike.setString(1, "%" + consulta + "%");
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet filas = consultaLike.executeQuery()) {
+            while (filas.next()) {
+                ids.add(filas.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,87 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.LiterAluraAplicacion;
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.modelo.dto.PaginaPorClave;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio;
+import com.aluracursos.LiterAlura.servicio.PersistenciaLibrosServicio;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lecturas repetidas de LiteraturaServicio con y sin la caché de segundo nivel y de consultas de Hibernate,
+// sobre H2 en memoria con los libros guardados como en la importación. Con la caché caliente:
+// - buscarAutores / autoresVivos / autoresNacidos: los ids salen del índice en memoria y los autores de la caché
+// - paginaLibros: la misma página de 500 libros, de la caché de consultas
+// Con H2 en el mismo proceso la base de datos no tiene latencia de red: contra PostgreSQL la diferencia es mayor
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CacheHibernateBenchmark {
+    private static final int TAMANO_LOTE = 500;
+
+    @Param({"10000"})
+    private int tamano;
+
+    @Param({"true", "false"})
+    private boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private LiteraturaServicio servicio;
+    private Long desdeId;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(LiterAluraAplicacion.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-cache-" + cache + ";MODE=PostgreSQL;"
+                                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "literalura.cache-hibernate.activa=" + cache,
+                        "literalura.ranking.actualizar=false",
+                        "logging.level.root=WARN")
+                .run();
+        servicio = contexto.getBean(LiteraturaServicio.class);
+        PersistenciaLibrosServicio persistencia = contexto.getBean(PersistenciaLibrosServicio.class);
+        List<GutendexLibro> libros = DatosSinteticos.librosGutendex(tamano, 0);
+        for (int desde = 0; desde < libros.size(); desde += TAMANO_LOTE) {
+            persistencia.guardarLote(libros.subList(desde, Math.min(libros.size(), desde + TAMANO_LOTE)));
+        }
+        desdeId = servicio.listarLibros(null, tamano / 2).siguiente();
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Autor> buscarAutores() {
+        return servicio.buscarAutorPorNombre("the");
+    }
+
+    @Benchmark
+    public List<Autor> autoresVivos() {
+        return servicio.listarAutoresVivos(1850);
+    }
+
+    @Benchmark
+    public List<Autor> autoresNacidos() {
+        return servicio.listarAutoresPorRangoNacimiento(1800, 1810);
+    }
+
+    @Benchmark
+    public PaginaPorClave<LibroResumen> paginaLibros() {
+        return servicio.listarLibros(desdeId, 500);
+    }
+}
@@ -0,0 +1,136 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.busqueda.CatalogoColumnar;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara las consultas que resuelve el catálogo columnar con las mismas consultas en H2:
+// - paginaIdioma*: una página de 500 libros de un idioma a mitad del recorrido (paginación por clave)
+// - top10*: los 10 libros con más descargas (en SQL con un índice sobre descargas; en el catálogo
+//   solo la primera llamada recorre la columna, las siguientes reutilizan el top hasta que se agrega un libro)
+// Las estadísticas están en EstadisticasBenchmark.
+// Al preparar se muestran los bytes por libro del catálogo y los de la lista de entidades Libro equivalente
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class CatalogoColumnarBenchmark {
+    private static final int TAMANO_PAGINA = 500;
+
+    @Param({"100000", "1000000"})
+    private int tamano;
+
+    private CatalogoColumnar catalogo;
+    private Connection conexion;
+    private long desdeId;
+
+    @Setup
+    public void preparar() throws SQLException {
+        long antes = memoriaUsada();
+        List<Libro> libros = DatosSinteticos.libros(tamano);
+        long conEntidades = memoriaUsada();
+        catalogo = new CatalogoColumnar();
+        for (int i = 0; i < libros.size(); i++) {
+            Libro libro = libros.get(i);
+            catalogo.agregar(i + 1, libro.getTitulo(), libro.getIdioma(), libro.getAutor(), libro.getDescargas());
+        }
+        long conCatalogo = memoriaUsada();
+        System.out.printf("%nEntidades Libro: %d bytes/libro; catálogo columnar: %d bytes/libro (%d en columnas)%n",
+                (conEntidades - antes) / tamano, (conCatalogo - conEntidades) / tamano,
+                catalogo.bytesColumnas() / tamano);
+        desdeId = tamano / 2;
+
+        // Sin OPTIMIZE_REUSE_RESULTS H2 devolvería el resultado guardado de la consulta anterior
+        conexion = DriverManager.getConnection(
+                "jdbc:h2:mem:benchmark-catalogo;MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP TABLE IF EXISTS libro");
+            sentencia.execute("CREATE TABLE libro (id BIGINT PRIMARY KEY, titulo VARCHAR(255), idioma VARCHAR(255), "
+                    + "autor VARCHAR(255), descargas INT)");
+            sentencia.execute("CREATE INDEX idx_libro_idioma_id ON libro (idioma, id)");
+            sentencia.execute("CREATE INDEX idx_libro_descargas ON libro (descargas DESC, id)");
+        }
+        try (PreparedStatement insercion = conexion.prepareStatement("INSERT INTO libro VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < libros.size(); i++) {
+                Libro libro = libros.get(i);
+                insercion.setLong(1, i + 1);
+                insercion.setString(2, libro.getTitulo());
+                insercion.setString(3, libro.getIdioma());
+                insercion.setString(4, libro.getAutor());
+                insercion.setInt(5, libro.getDescargas());
+                insercion.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insercion.executeBatch();
+                }
+            }
+            insercion.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public List<LibroResumen> paginaIdiomaColumnar() {
+        return catalogo.librosPorIdioma("fr", desdeId, TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    public List<LibroResumen> paginaIdiomaSql() throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT id, titulo, idioma, autor, descargas FROM libro WHERE idioma = ? AND id > ? ORDER BY id LIMIT ?")) {
+            consulta.setString(1, "fr");
+            consulta.setLong(2, desdeId);
+            consulta.setInt(3, TAMANO_PAGINA);
+            return resumenes(consulta);
+        }
+    }
+
+    @Benchmark
+    public List<LibroResumen> top10Columnar() {
+        return catalogo.masDescargados(10);
+    }
+
+    @Benchmark
+    public List<LibroResumen> top10Sql() throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT id, titulo, idioma, autor, descargas FROM libro ORDER BY descargas DESC, id LIMIT 10")) {
+            return resumenes(consulta);
+        }
+    }
+
+    private static List<LibroResumen> resumenes(PreparedStatement consulta) throws SQLException {
+        List<LibroResumen> libros = new ArrayList<>();
+        try (ResultSet filas = consulta.executeQuery()) {
+            while (filas.next()) {
+                libros.add(new LibroResumen(filas.getLong(1), filas.getString(2), filas.getString(3),
+                        filas.getString(4), filas.getInt(5)));
+            }
+        }
+        return libros;
+    }
+
+    private static long memoriaUsada() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
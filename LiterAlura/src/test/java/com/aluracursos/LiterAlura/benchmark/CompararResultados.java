@@ -0,0 +1,103 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compara dos resultados de JMH en JSON (por ejemplo, los de dos commits) benchmark a benchmark
+// y marca como regresión los que empeoran más del umbral (en tanto por uno).
+// En modo AverageTime/SampleTime/SingleShotTime empeorar es tardar más; en Throughput, hacer menos operaciones.
+// Uso: mvn -Pbenchmark test-compile exec:java@comparar-jmh -Djmh.base=anterior.json -Djmh.resultados=nuevo.json
+// Termina con código 1 si hay alguna regresión
+
+public final class CompararResultados {
+    public static final double UMBRAL_POR_DEFECTO = 0.10;
+
+    public record Comparacion(String benchmark, String unidad, double base, double nuevo, boolean menorEsMejor) {
+
+        // Cambio relativo: positivo si el nuevo resultado es peor
+        public double empeora() {
+            double cambio = (nuevo - base) / base;
+            return menorEsMejor ? cambio : -cambio;
+        }
+
+        public boolean esRegresion(double umbral) {
+            return empeora() > umbral;
+        }
+    }
+
+    private CompararResultados() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados <base.json> <nuevo.json> [umbral]");
+            System.exit(2);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) : UMBRAL_POR_DEFECTO;
+        List<Comparacion> comparaciones = comparar(
+                mapper.readTree(new File(args[0])), mapper.readTree(new File(args[1])));
+
+        int regresiones = 0;
+        for (Comparacion comparacion : comparaciones) {
+            boolean regresion = comparacion.esRegresion(umbral);
+            regresiones += regresion ? 1 : 0;
+            System.out.printf("%-90s %14.3f %14.3f %-10s %+7.1f%% %s%n", comparacion.benchmark(),
+                    comparacion.base(), comparacion.nuevo(), comparacion.unidad(),
+                    comparacion.empeora() * 100, regresion ? "REGRESIÓN" : "");
+        }
+        System.out.printf("%d benchmarks comparados, %d regresiones (umbral %.0f%%)%n",
+                comparaciones.size(), regresiones, umbral * 100);
+        System.exit(regresiones > 0 ? 1 : 0);
+    }
+
+    /**
+     * Empareja los benchmarks con el mismo nombre, modo y parámetros; los que solo están en uno se ignoran
+     */
+    public static List<Comparacion> comparar(JsonNode base, JsonNode nuevo) {
+        Map<String, JsonNode> anteriores = porClave(base);
+        List<Comparacion> comparaciones = new ArrayList<>();
+        porClave(nuevo).forEach((clave, resultado) -> {
+            JsonNode anterior = anteriores.get(clave);
+            if (anterior != null) {
+                comparaciones.add(new Comparacion(clave,
+                        resultado.path("primaryMetric").path("scoreUnit").asText(),
+                        anterior.path("primaryMetric").path("score").asDouble(),
+                        resultado.path("primaryMetric").path("score").asDouble(),
+                        !"thrpt".equals(resultado.path("mode").asText())));
+            }
+        });
+        return comparaciones;
+    }
+
+    private static Map<String, JsonNode> porClave(JsonNode resultados) {
+        Map<String, JsonNode> porClave = new LinkedHashMap<>();
+        for (JsonNode resultado : resultados) {
+            porClave.put(clave(resultado), resultado);
+        }
+        return porClave;
+    }
+
+    // Nombre corto del benchmark, modo y parámetros en orden alfabético: EstadisticasBenchmark.agregadosSql avgt tamano=10000
+    private static String clave(JsonNode resultado) {
+        String nombre = resultado.path("benchmark").asText();
+        StringBuilder clave = new StringBuilder(nombre.substring(nombre.lastIndexOf('.', nombre.lastIndexOf('.') - 1) + 1))
+                .append(' ').append(resultado.path("mode").asText());
+        Map<String, String> parametros = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> campos = resultado.path("params").fields(); campos.hasNext(); ) {
+            Map.Entry<String, JsonNode> campo = campos.next();
+            parametros.put(campo.getKey(), campo.getValue().asText());
+        }
+        parametros.forEach((nombreParametro, valor) -> clave.append(' ').append(nombreParametro).append('=').append(valor));
+        return clave.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.benchmark.CompararResultados.Comparacion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompararResultadosTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static String resultado(String benchmark, String modo, String tamano, double puntuacion) {
+        return """
+                {"benchmark": "com.aluracursos.LiterAlura.benchmark.%s", "mode": "%s",
+                 "params": {"tamano": "%s"},
+                 "primaryMetric": {"score": %s, "scoreError": 0.1, "scoreUnit": "us/op"}}
+                """.formatted(benchmark, modo, tamano, puntuacion);
+    }
+
+    @Test
+    void emparejaPorBenchmarkYParametrosYMarcaLasRegresiones() throws Exception {
+        String base = "[" + resultado("EstadisticasBenchmark.agregadosSql", "avgt", "10000", 100) + ","
+                + resultado("EstadisticasBenchmark.agregadosSql", "avgt", "100000", 1000) + ","
+                + resultado("ConversionLibrosBenchmark.convertirLibros", "thrpt", "1000", 50) + ","
+                + resultado("RepositoriosBenchmark.autoresVivos", "avgt", "10000", 5) + "]";
+        String nuevo = "[" + resultado("EstadisticasBenchmark.agregadosSql", "avgt", "10000", 105) + ","
+                + resultado("EstadisticasBenchmark.agregadosSql", "avgt", "100000", 1500) + ","
+                + resultado("ConversionLibrosBenchmark.convertirLibros", "thrpt", "1000", 40) + "]";
+
+        List<Comparacion> comparaciones = CompararResultados.comparar(mapper.readTree(base), mapper.readTree(nuevo));
+
+        assertEquals(3, comparaciones.size());
+        assertEquals("EstadisticasBenchmark.agregadosSql avgt tamano=10000", comparaciones.get(0).benchmark());
+        assertFalse(comparaciones.get(0).esRegresion(CompararResultados.UMBRAL_POR_DEFECTO));
+        assertEquals(0.5, comparaciones.get(1).empeora(), 1e-9);
+        assertTrue(comparaciones.get(1).esRegresion(CompararResultados.UMBRAL_POR_DEFECTO));
+        // En throughput, menos operaciones por segundo es peor
+        assertEquals(0.2, comparaciones.get(2).empeora(), 1e-9);
+        assertTrue(comparaciones.get(2).esRegresion(CompararResultados.UMBRAL_POR_DEFECTO));
+    }
+}
@@ -0,0 +1,75 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.CacheAutores;
+import com.aluracursos.LiterAlura.servicio.ConversorGutendex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Conversión y validación de un lote de libros de Gutendex, la parte de guardarLote que no usa la base de datos:
+// - convertirLibros: ConversorGutendex.aLibro de cada libro; los inválidos lanzan IllegalArgumentException y se omiten
+// - convertirAutores: ConversorGutendex.aAutor de todos los autores del lote (años de texto a números)
+// - normalizarAutores: la clave con la que CacheAutores busca cada autor
+// El tiempo es por lote; con porcentajeInvalidos se ve cuánto cuesta la excepción de un libro inválido
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionLibrosBenchmark {
+
+    @Param({"1000"})
+    private int tamano;
+
+    @Param({"0", "1"})
+    private int porcentajeInvalidos;
+
+    private List<GutendexLibro> lote;
+
+    @Setup
+    public void preparar() {
+        lote = DatosSinteticos.librosGutendex(tamano, porcentajeInvalidos);
+    }
+
+    @Benchmark
+    public int convertirLibros(Blackhole agujero) {
+        int validos = 0;
+        for (GutendexLibro libro : lote) {
+            try {
+                Libro convertido = ConversorGutendex.aLibro(libro);
+                agujero.consume(convertido);
+                validos++;
+            } catch (IllegalArgumentException e) {
+                agujero.consume(e);
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    public void convertirAutores(Blackhole agujero) {
+        for (GutendexLibro libro : lote) {
+            for (GutendexAutor autor : libro.getAuthors()) {
+                Autor convertido = ConversorGutendex.aAutor(autor);
+                agujero.consume(convertido);
+            }
+        }
+    }
+
+    @Benchmark
+    public void normalizarAutores(Blackhole agujero) {
+        for (GutendexLibro libro : lote) {
+            for (GutendexAutor autor : libro.getAuthors()) {
+                agujero.consume(CacheAutores.normalizar(autor.getName()));
+            }
+        }
+    }
+}
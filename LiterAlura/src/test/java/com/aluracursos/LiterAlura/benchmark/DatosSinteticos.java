@@ -0,0 +1,195 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Generador reproducible de catálogos sintéticos para los benchmarks
+// La misma semilla y el mismo tamaño producen siempre los mismos datos
+// La semilla se puede cambiar con -Dliteralura.benchmark.semilla (en Maven, -Djmh.semilla)
+
+public final class DatosSinteticos {
+    public static final long SEMILLA = Long.getLong("literalura.benchmark.semilla", 20_240_101L);
+
+    private static final String[] PALABRAS = {
+            "the", "adventures", "of", "history", "war", "peace", "love", "journey", "island", "secret",
+            "garden", "night", "city", "river", "king", "queen", "letters", "poems", "tales", "life",
+            "death", "mystery", "house", "sea", "mountain", "stranger", "wonderland", "pride", "prejudice", "time",
+            "la", "vida", "es", "sueño", "quijote", "mancha", "noche", "amor", "guerra", "camino",
+            "voyage", "lune", "misérables", "cœur", "história", "memórias", "póstumas", "cubas", "ilha", "mar"};
+    private static final String[] SILABAS = {
+            "ba", "ca", "de", "el", "fo", "gu", "hi", "jo", "ka", "li", "mo", "nu", "pa", "qui", "ra",
+            "se", "ti", "vo", "wa", "xe", "yo", "zu", "an", "er", "in", "or", "us", "tra", "ble", "cro"};
+    private static final String[] VOCABULARIO = vocabulario(5_000);
+    private static final String[] IDIOMAS = {"en", "en", "en", "en", "es", "fr", "fr", "pt"};
+    // Ordenados de más a menos frecuente en librosMultilingues, más o menos como en Project Gutenberg
+    private static final String[] IDIOMAS_CATALOGO = {
+            "en", "fr", "fi", "de", "nl", "it", "es", "pt", "hu", "la", "sv", "eo", "zh", "da", "tl", "el",
+            "ca", "cy", "no", "pl", "ja", "ru", "cs", "he", "is", "ga", "ro", "af", "gl", "sr", "ang", "enm",
+            "fy", "ia", "ilo", "iu", "oc", "sa", "sl", "yi"};
+    private static final double[] PESOS_ACUMULADOS_IDIOMA = pesosAcumuladosZipf(IDIOMAS_CATALOGO.length, 1.5);
+
+    private DatosSinteticos() {
+    }
+
+    public static List<String> titulos(int cantidad) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        List<String> titulos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            titulos.add(titulo(aleatorio, i));
+        }
+        return titulos;
+    }
+
+    public static List<String> autores(int cantidad) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA + 1);
+        List<String> autores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            autores.add(capitalizar(PALABRAS[aleatorio.nextInt(PALABRAS.length)]) + " " + i + ", "
+                    + capitalizar(PALABRAS[aleatorio.nextInt(PALABRAS.length)]));
+        }
+        return autores;
+    }
+
+    // Libros con una distribución sesgada: pocos autores muy prolíficos y el inglés como idioma dominante
+    public static List<Libro> libros(int cantidad) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA + 2);
+        int totalAutores = Math.max(1, cantidad / 4);
+        List<String> autores = autores(totalAutores);
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int autor = (int) (Math.pow(aleatorio.nextDouble(), 2) * totalAutores);
+            libros.add(new Libro(titulo(aleatorio, i), IDIOMAS[aleatorio.nextInt(IDIOMAS.length)],
+                    autores.get(autor), aleatorio.nextInt(100_000)));
+        }
+        return libros;
+    }
+
+    // Libros con idiomas muy sesgados: el idioma principal sigue una distribución tipo Zipf sobre
+    // IDIOMAS_CATALOGO (el inglés con casi la mitad de los libros y la mayoría de idiomas con muy pocos)
+    // y uno de cada diez libros está además en uno o dos idiomas más. El mismo orden de llamadas
+    // al generador que en libros, así que títulos, autores y descargas son los mismos
+    public static List<Libro> librosMultilingues(int cantidad) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA + 2);
+        SplittableRandom aleatorioIdiomas = new SplittableRandom(SEMILLA + 4);
+        int totalAutores = Math.max(1, cantidad / 4);
+        List<String> autores = autores(totalAutores);
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int autor = (int) (Math.pow(aleatorio.nextDouble(), 2) * totalAutores);
+            String titulo = titulo(aleatorio, i);
+            aleatorio.nextInt(IDIOMAS.length);
+            List<String> idiomas = new ArrayList<>(3);
+            idiomas.add(idiomaZipf(aleatorioIdiomas));
+            if (aleatorioIdiomas.nextInt(10) == 0) {
+                for (int extra = 0, total = 1 + aleatorioIdiomas.nextInt(2); extra < total; extra++) {
+                    String idioma = idiomaZipf(aleatorioIdiomas);
+                    if (!idiomas.contains(idioma)) {
+                        idiomas.add(idioma);
+                    }
+                }
+            }
+            Libro libro = new Libro(titulo, idiomas.get(0), autores.get(autor), aleatorio.nextInt(100_000));
+            libro.setIdiomas(idiomas);
+            libros.add(libro);
+        }
+        return libros;
+    }
+
+    // Libros tal como llegan de Gutendex, con uno a tres autores (el primero sesgado como en libros)
+    // y un libro inválido (sin título) de cada cien por cada punto de porcentajeInvalidos
+    public static List<GutendexLibro> librosGutendex(int cantidad, int porcentajeInvalidos) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA + 3);
+        int totalAutores = Math.max(1, cantidad / 4);
+        List<String> autores = autores(totalAutores);
+        List<GutendexLibro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            GutendexLibro libro = new GutendexLibro();
+            libro.setId((long) i);
+            libro.setTitle(aleatorio.nextInt(100) < porcentajeInvalidos ? "" : titulo(aleatorio, i));
+            libro.setLanguages(List.of(IDIOMAS[aleatorio.nextInt(IDIOMAS.length)]));
+            List<GutendexAutor> autoresLibro = new ArrayList<>(3);
+            for (int a = 0, total = 1 + aleatorio.nextInt(3); a < total; a++) {
+                int autor = a == 0 ? (int) (Math.pow(aleatorio.nextDouble(), 2) * totalAutores)
+                        : aleatorio.nextInt(totalAutores);
+                autoresLibro.add(autorGutendex(aleatorio, autores.get(autor)));
+            }
+            libro.setAuthors(autoresLibro);
+            libro.setDownloadCount(aleatorio.nextInt(100_000));
+            libros.add(libro);
+        }
+        return libros;
+    }
+
+    private static String idiomaZipf(SplittableRandom aleatorio) {
+        double objetivo = aleatorio.nextDouble();
+        for (int i = 0; i < PESOS_ACUMULADOS_IDIOMA.length - 1; i++) {
+            if (objetivo < PESOS_ACUMULADOS_IDIOMA[i]) {
+                return IDIOMAS_CATALOGO[i];
+            }
+        }
+        return IDIOMAS_CATALOGO[IDIOMAS_CATALOGO.length - 1];
+    }
+
+    // Probabilidad acumulada hasta la posición i (empezando en 1) con pesos proporcionales a 1 / i^exponente
+    private static double[] pesosAcumuladosZipf(int tamano, double exponente) {
+        double[] acumulados = new double[tamano];
+        double total = 0;
+        for (int i = 0; i < tamano; i++) {
+            total += Math.pow(i + 1, -exponente);
+            acumulados[i] = total;
+        }
+        for (int i = 0; i < tamano; i++) {
+            acumulados[i] /= total;
+        }
+        return acumulados;
+    }
+
+    // Nacido entre 1500 y 1999; uno de cada cinco sigue vivo (sin año de muerte)
+    private static GutendexAutor autorGutendex(SplittableRandom aleatorio, String nombre) {
+        GutendexAutor autor = new GutendexAutor();
+        int nacimiento = 1500 + aleatorio.nextInt(500);
+        autor.setName(nombre);
+        autor.setBirthYear(String.valueOf(nacimiento));
+        autor.setDeathYear(aleatorio.nextInt(5) == 0 ? null : String.valueOf(nacimiento + 20 + aleatorio.nextInt(70)));
+        return autor;
+    }
+
+    // Vocabulario con las palabras reales al principio y palabras inventadas a partir de sílabas
+    private static String[] vocabulario(int tamano) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA - 1);
+        String[] vocabulario = new String[tamano];
+        System.arraycopy(PALABRAS, 0, vocabulario, 0, PALABRAS.length);
+        for (int i = PALABRAS.length; i < tamano; i++) {
+            StringBuilder palabra = new StringBuilder();
+            for (int s = 0, silabas = 2 + aleatorio.nextInt(3); s < silabas; s++) {
+                palabra.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            vocabulario[i] = palabra.toString();
+        }
+        return vocabulario;
+    }
+
+    // Las palabras se eligen con una distribución tipo Zipf: las primeras del vocabulario son las más frecuentes
+    private static String titulo(SplittableRandom aleatorio, int numero) {
+        int palabras = 2 + aleatorio.nextInt(5);
+        StringBuilder titulo = new StringBuilder();
+        for (int p = 0; p < palabras; p++) {
+            if (p > 0) {
+                titulo.append(' ');
+            }
+            int rango = (int) Math.floor(Math.pow(VOCABULARIO.length, aleatorio.nextDouble())) - 1;
+            titulo.append(capitalizar(VOCABULARIO[rango]));
+        }
+        // El número hace únicos los títulos sin cambiar la distribución de trigramas
+        return titulo.append(" ").append(numero).toString();
+    }
+
+    private static String capitalizar(String palabra) {
+        return Character.toUpperCase(palabra.charAt(0)) + palabra.substring(1);
+    }
+}
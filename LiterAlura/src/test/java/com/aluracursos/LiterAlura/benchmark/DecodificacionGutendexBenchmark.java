@@ -0,0 +1,80 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.cliente.DecodificadorGutendex;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexRespuesta;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Compara la decodificación de una página de Gutendex (32 libros con todos sus campos) en fragmentos de 8 KB:
+// - dataBinding: lo que hacía bodyToMono(GutendexRespuesta.class), unir el cuerpo y enlazarlo con ObjectMapper
+// - streamingPagina: DecodificadorGutendex.pagina, la página completa en streaming
+// - streamingPrimerLibro: DecodificadorGutendex.libros(...).next(), que deja de leer tras el primer libro
+// Para ver la memoria reservada por operación: -prof gc (gc.alloc.rate.norm)
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodificacionGutendexBenchmark {
+    private static final int TAMANO_FRAGMENTO = 8 * 1024;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final DecodificadorGutendex decodificador = new DecodificadorGutendex();
+    private byte[][] fragmentos;
+
+    @Setup
+    public void preparar() {
+        byte[] json = ServidorGutendexSimulado.ejemploPagina(ServidorGutendexSimulado.TAMANO_PAGINA)
+                .getBytes(StandardCharsets.UTF_8);
+        int cantidad = (json.length + TAMANO_FRAGMENTO - 1) / TAMANO_FRAGMENTO;
+        fragmentos = new byte[cantidad][];
+        for (int i = 0; i < cantidad; i++) {
+            fragmentos[i] = Arrays.copyOfRange(json, i * TAMANO_FRAGMENTO,
+                    Math.min(json.length, (i + 1) * TAMANO_FRAGMENTO));
+        }
+    }
+
+    private Flux<DataBuffer> cuerpo() {
+        return Flux.fromArray(fragmentos).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+
+    @Benchmark
+    public GutendexRespuesta dataBinding() throws IOException {
+        // Igual que el decodificador de Spring para un Mono: une los fragmentos y enlaza el árbol entero
+        int longitud = 0;
+        for (byte[] fragmento : fragmentos) {
+            longitud += fragmento.length;
+        }
+        byte[] unido = new byte[longitud];
+        int posicion = 0;
+        for (byte[] fragmento : fragmentos) {
+            System.arraycopy(fragmento, 0, unido, posicion, fragmento.length);
+            posicion += fragmento.length;
+        }
+        return mapper.readValue(unido, GutendexRespuesta.class);
+    }
+
+    @Benchmark
+    public GutendexRespuesta streamingPagina() {
+        return decodificador.pagina(cuerpo()).block();
+    }
+
+    @Benchmark
+    public GutendexLibro streamingPrimerLibro() {
+        return decodificador.libros(cuerpo()).next().block();
+    }
+}
@@ -0,0 +1,127 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.busqueda.CatalogoColumnar;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.EstadisticasLibros;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Compara tres formas de calcular las estadísticas del catálogo sobre H2:
+// - findAllYStreams: el modelo anterior, todas las filas a objetos Libro y tres recorridos con streams
+// - agregadosSql: consultas GROUP BY en la base de datos
+// - catalogoColumnar: los contadores del catálogo en memoria que usa generarEstadisticas
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class EstadisticasBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int tamano;
+
+    private CatalogoColumnar catalogo;
+    private Connection conexion;
+
+    @Setup
+    public void preparar() throws SQLException {
+        List<Libro> libros = DatosSinteticos.libros(tamano);
+        catalogo = new CatalogoColumnar();
+        // Un id por autor, como los de libro_autor
+        Map<String, Long> idsAutor = new HashMap<>();
+        for (int i = 0; i < libros.size(); i++) {
+            Libro libro = libros.get(i);
+            long idAutor = idsAutor.computeIfAbsent(libro.getAutor(), autor -> idsAutor.size() + 1L);
+            catalogo.agregar(i + 1, libro.getTitulo(), List.of(libro.getIdioma()), libro.getAutor(),
+                    List.of(idAutor), libro.getDescargas());
+        }
+
+        // Sin OPTIMIZE_REUSE_RESULTS H2 devolvería el resultado guardado de la consulta anterior
+        conexion = DriverManager.getConnection(
+                "jdbc:h2:mem:benchmark-estadisticas;MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP TABLE IF EXISTS libro");
+            sentencia.execute("CREATE TABLE libro (id BIGINT PRIMARY KEY, titulo VARCHAR(255), idioma VARCHAR(255), "
+                    + "autor VARCHAR(255), descargas INT)");
+        }
+        try (PreparedStatement insercion = conexion.prepareStatement("INSERT INTO libro VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < libros.size(); i++) {
+                Libro libro = libros.get(i);
+                insercion.setLong(1, i + 1);
+                insercion.setString(2, libro.getTitulo());
+                insercion.setString(3, libro.getIdioma());
+                insercion.setString(4, libro.getAutor());
+                insercion.setInt(5, libro.getDescargas());
+                insercion.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insercion.executeBatch();
+                }
+            }
+            insercion.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public EstadisticasLibros findAllYStreams() throws SQLException {
+        List<Libro> libros = new ArrayList<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT id, titulo, idioma, autor, descargas FROM libro")) {
+            while (filas.next()) {
+                Libro libro = new Libro(filas.getString(2), filas.getString(3), filas.getString(4), filas.getInt(5));
+                libro.setId(filas.getLong(1));
+                libros.add(libro);
+            }
+        }
+        long totalAutores = libros.stream().map(Libro::getAutor).distinct().count();
+        Map<String, Long> porIdioma = libros.stream()
+                .collect(Collectors.groupingBy(Libro::getIdioma, Collectors.counting()));
+        double promedio = libros.stream()
+                .collect(Collectors.groupingBy(Libro::getAutor, Collectors.counting()))
+                .values().stream().mapToDouble(Long::doubleValue).average().orElse(0.0);
+        return new EstadisticasLibros(libros.size(), totalAutores, porIdioma, promedio);
+    }
+
+    @Benchmark
+    public EstadisticasLibros agregadosSql() throws SQLException {
+        Map<String, Long> porIdioma = new HashMap<>();
+        long total = 0;
+        long autores;
+        try (Statement sentencia = conexion.createStatement()) {
+            try (ResultSet filas = sentencia.executeQuery("SELECT idioma, COUNT(*) FROM libro GROUP BY idioma")) {
+                while (filas.next()) {
+                    porIdioma.put(filas.getString(1), filas.getLong(2));
+                    total += filas.getLong(2);
+                }
+            }
+            try (ResultSet filas = sentencia.executeQuery("SELECT COUNT(DISTINCT autor) FROM libro")) {
+                filas.next();
+                autores = filas.getLong(1);
+            }
+        }
+        return new EstadisticasLibros((int) total, autores, porIdioma, autores > 0 ? (double) total / autores : 0.0);
+    }
+
+    @Benchmark
+    public EstadisticasLibros catalogoColumnar() {
+        return catalogo.estadisticas();
+    }
+}
@@ -0,0 +1,150 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.busqueda.CatalogoColumnar;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Faceta "libros por idioma" y listado de un idioma poco frecuente con DatosSinteticos.librosMultilingues
+// (unos 40 idiomas muy sesgados, uno de cada diez libros en más de un idioma):
+// - facetas*: cuántos libros hay en cada idioma; en el catálogo columnar ya está calculado (el tamaño de
+//   la lista de cada idioma), con streams se recorren todos los libros y en H2 se agrupa libro_idioma
+// - paginaIdiomaRaro*: una página de 500 libros en latín (casi siempre como segundo idioma) a mitad
+//   del recorrido; en H2 con la clave primaria (idioma, libro_id) de libro_idioma, como en la migración V2
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class FacetasIdiomaBenchmark {
+    private static final int TAMANO_PAGINA = 500;
+    private static final String IDIOMA_RARO = "la";
+
+    @Param({"100000", "1000000"})
+    private int tamano;
+
+    private List<Libro> libros;
+    private CatalogoColumnar catalogo;
+    private Connection conexion;
+    private long desdeId;
+
+    @Setup
+    public void preparar() throws SQLException {
+        libros = DatosSinteticos.librosMultilingues(tamano);
+        catalogo = new CatalogoColumnar();
+        for (int i = 0; i < libros.size(); i++) {
+            Libro libro = libros.get(i);
+            catalogo.agregar(i + 1, libro.getTitulo(), libro.getIdiomas(), libro.getAutor(), libro.getDescargas());
+        }
+        desdeId = tamano / 2;
+
+        // Sin OPTIMIZE_REUSE_RESULTS H2 devolvería el resultado guardado de la consulta anterior
+        conexion = DriverManager.getConnection(
+                "jdbc:h2:mem:benchmark-facetas;MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DROP TABLE IF EXISTS libro_idioma");
+            sentencia.execute("DROP TABLE IF EXISTS libro");
+            sentencia.execute("CREATE TABLE libro (id BIGINT PRIMARY KEY, titulo VARCHAR(255), idioma VARCHAR(255), "
+                    + "autor VARCHAR(255), descargas INT)");
+            sentencia.execute("CREATE TABLE libro_idioma (libro_id BIGINT NOT NULL, idioma VARCHAR(3) NOT NULL, "
+                    + "PRIMARY KEY (idioma, libro_id))");
+        }
+        try (PreparedStatement insercionLibro = conexion.prepareStatement("INSERT INTO libro VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement insercionIdioma = conexion.prepareStatement("INSERT INTO libro_idioma VALUES (?, ?)")) {
+            for (int i = 0; i < libros.size(); i++) {
+                Libro libro = libros.get(i);
+                insercionLibro.setLong(1, i + 1);
+                insercionLibro.setString(2, libro.getTitulo());
+                insercionLibro.setString(3, libro.getIdioma());
+                insercionLibro.setString(4, libro.getAutor());
+                insercionLibro.setInt(5, libro.getDescargas());
+                insercionLibro.addBatch();
+                for (String idioma : libro.getIdiomas()) {
+                    insercionIdioma.setLong(1, i + 1);
+                    insercionIdioma.setString(2, idioma);
+                    insercionIdioma.addBatch();
+                }
+                if (i % 10_000 == 9_999) {
+                    insercionLibro.executeBatch();
+                    insercionIdioma.executeBatch();
+                }
+            }
+            insercionLibro.executeBatch();
+            insercionIdioma.executeBatch();
+        }
+        System.out.printf("%nLibros en %s: %d (%d a partir de la página medida)%n", IDIOMA_RARO,
+                catalogo.contarPorIdioma().get(IDIOMA_RARO),
+                catalogo.librosPorIdioma(IDIOMA_RARO, desdeId, tamano).size());
+    }
+
+    @TearDown
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public Map<String, Long> facetasColumnar() {
+        return catalogo.contarPorIdioma();
+    }
+
+    @Benchmark
+    public Map<String, Long> facetasStream() {
+        return libros.stream()
+                .flatMap(libro -> libro.getIdiomas().stream())
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> facetasSql() throws SQLException {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT idioma, COUNT(*) FROM libro_idioma GROUP BY idioma ORDER BY 2 DESC, 1");
+             ResultSet filas = consulta.executeQuery()) {
+            while (filas.next()) {
+                conteos.put(filas.getString(1), filas.getLong(2));
+            }
+        }
+        return conteos;
+    }
+
+    @Benchmark
+    public List<LibroResumen> paginaIdiomaRaroColumnar() {
+        return catalogo.librosPorIdioma(IDIOMA_RARO, desdeId, TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    public List<LibroResumen> paginaIdiomaRaroSql() throws SQLException {
+        List<LibroResumen> pagina = new ArrayList<>();
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT l.id, l.titulo, l.idioma, l.autor, l.descargas FROM libro_idioma li "
+                        + "JOIN libro l ON l.id = li.libro_id "
+                        + "WHERE li.idioma = ? AND li.libro_id > ? ORDER BY li.libro_id LIMIT ?")) {
+            consulta.setString(1, IDIOMA_RARO);
+            consulta.setLong(2, desdeId);
+            consulta.setInt(3, TAMANO_PAGINA);
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    pagina.add(new LibroResumen(filas.getLong(1), filas.getString(2), filas.getString(3),
+                            filas.getString(4), filas.getInt(5)));
+                }
+            }
+        }
+        return pagina;
+    }
+}
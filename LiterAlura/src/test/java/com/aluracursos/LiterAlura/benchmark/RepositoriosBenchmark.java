@@ -0,0 +1,104 @@
+package com.aluracursos.LiterAlura.benchmark;
+
+import com.aluracursos.LiterAlura.LiterAluraAplicacion;
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.repositorio.AutorRepositorio;
+import com.aluracursos.LiterAlura.repositorio.LibroRepositorio;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Consultas de los repositorios de Spring Data JPA (no SQL a mano) sobre H2 en modo PostgreSQL,
+// con el contexto de la aplicación arrancado sin servidor web:
+// - paginaProyeccion / paginaEntidades: una página de 500 libros por clave como LibroResumen o como entidades Libro
+// - librosConAutores: 50 libros con todos sus autores (grafo Libro.autores, una sola consulta)
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class RepositoriosBenchmark {
+    private static final int TAMANO_PAGINA = 500;
+    private static final int LIBROS_CON_AUTORES = 50;
+
+    @Param({"10000", "100000"})
+    private int tamano;
+
+    private ConfigurableApplicationContext contexto;
+    private LibroRepositorio libroRepositorio;
+    private AutorRepositorio autorRepositorio;
+    private long desdeId;
+    private List<Long> idsConAutores;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(LiterAluraAplicacion.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-repositorios;MODE=PostgreSQL;"
+                                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "literalura.ranking.actualizar=false",
+                        "logging.level.root=WARN")
+                .run();
+        libroRepositorio = contexto.getBean(LibroRepositorio.class);
+        autorRepositorio = contexto.getBean(AutorRepositorio.class);
+        TransactionTemplate transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+        // Un autor por nombre distinto, con años que dejan vivos en 1850 a una parte de ellos,
+        // vinculado a sus libros
+        List<Libro> libros = DatosSinteticos.libros(tamano);
+        Map<String, Autor> autores = new LinkedHashMap<>();
+        for (Libro libro : libros) {
+            Autor autor = autores.computeIfAbsent(libro.getAutor(), nombre -> {
+                int nacimiento = 1700 + autores.size() % 250;
+                return new Autor(null, nombre, false, nacimiento, nacimiento + 60);
+            });
+            libro.getAutores().add(autor);
+        }
+        transaccion.executeWithoutResult(estado -> {
+            autorRepositorio.saveAllBatched(autores.values());
+            libroRepositorio.saveAllBatched(libros);
+        });
+
+        List<Long> ids = libros.stream().map(Libro::getId).sorted().toList();
+        desdeId = ids.get(ids.size() / 2);
+        idsConAutores = LongStream.range(0, LIBROS_CON_AUTORES)
+                .mapToObj(i -> ids.get((int) (i * ids.size() / LIBROS_CON_AUTORES)))
+                .toList();
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<LibroResumen> paginaProyeccion() {
+        return libroRepositorio.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(TAMANO_PAGINA), LibroResumen.class);
+    }
+
+    @Benchmark
+    public List<Libro> paginaEntidades() {
+        return libroRepositorio.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(TAMANO_PAGINA), Libro.class);
+    }
+
+    @Benchmark
+    public List<Libro> librosConAutores() {
+        return libroRepositorio.findConAutoresByIdIn(idsConAutores);
+    }
+}
@@ -0,0 +1,85 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import com.aluracursos.LiterAlura.busqueda.ArbolIntervalos.Intervalo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ArbolIntervalosTest {
+
+    @Test
+    void incluyeLosExtremosYLosIntervalosAbiertos() {
+        ArbolIntervalos arbol = new ArbolIntervalos();
+        arbol.cargar(List.of(
+                new Intervalo(1, 1547, 1616),
+                new Intervalo(2, 1775, 1817),
+                new Intervalo(3, 1947, Integer.MAX_VALUE),
+                new Intervalo(4, 1564, 1616)));
+
+        assertEquals(List.of(1L, 4L), arbol.contienen(1616));
+        assertEquals(List.of(), arbol.contienen(1617));
+        assertEquals(List.of(3L), arbol.contienen(2024));
+        assertEquals(List.of(1L, 4L), arbol.inicianEntre(1500, 1600));
+    }
+
+    @Test
+    void ignoraIdsRepetidos() {
+        ArbolIntervalos arbol = new ArbolIntervalos();
+        arbol.cargar(List.of(new Intervalo(1, 1800, 1870)));
+        arbol.agregar(new Intervalo(1, 1800, 1870));
+        arbol.agregar(new Intervalo(2, 1810, 1880));
+        arbol.agregar(new Intervalo(2, 1810, 1880));
+
+        assertEquals(2, arbol.tamano());
+        assertEquals(List.of(1L, 2L), arbol.contienen(1850));
+    }
+
+    @Test
+    void cargarConservaLosIntervalosAgregadosDuranteLaCarga() {
+        ArbolIntervalos arbol = new ArbolIntervalos();
+        arbol.agregar(new Intervalo(2, 1810, 1880));
+        arbol.agregar(new Intervalo(3, 1820, 1890));
+        arbol.cargar(List.of(new Intervalo(1, 1800, 1870), new Intervalo(2, 1810, 1880)));
+
+        assertEquals(3, arbol.tamano());
+        assertEquals(List.of(1L, 2L, 3L), arbol.contienen(1850));
+    }
+
+    @Test
+    void coincideConUnRecorridoLinealAlInsertarYReconstruir() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Intervalo> todos = new ArrayList<>();
+        ArbolIntervalos arbol = new ArbolIntervalos();
+        for (int id = 1; id <= 5_000; id++) {
+            int inicio = aleatorio.nextInt(1500, 2000);
+            int fin = aleatorio.nextInt(10) == 0 ? Integer.MAX_VALUE : inicio + aleatorio.nextInt(20, 90);
+            Intervalo intervalo = new Intervalo(id, inicio, fin);
+            todos.add(intervalo);
+            // La mitad se carga de golpe y el resto uno a uno, pasando por la lista de pendientes
+            if (id == 2_500) {
+                arbol.cargar(todos);
+            } else if (id > 2_500) {
+                arbol.agregar(intervalo);
+            }
+        }
+
+        Comparator<Intervalo> porInicio = Comparator.comparingInt(Intervalo::inicio).thenComparingLong(Intervalo::id);
+        for (int punto = 1490; punto <= 2100; punto += 7) {
+            int x = punto;
+            List<Long> esperados = todos.stream()
+                    .filter(i -> i.inicio() <= x && x <= i.fin())
+                    .sorted(porInicio).map(Intervalo::id).toList();
+            assertEquals(esperados, arbol.contienen(x), "año " + x);
+
+            List<Long> nacidos = todos.stream()
+                    .filter(i -> x <= i.inicio() && i.inicio() <= x + 10)
+                    .sorted(porInicio).map(Intervalo::id).toList();
+            assertEquals(nacidos, arbol.inicianEntre(x, x + 10), "nacidos desde " + x);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import com.aluracursos.LiterAlura.benchmark.DatosSinteticos;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogoColumnarTest {
+
+    private static List<Long> ids(List<LibroResumen> libros) {
+        return libros.stream().map(LibroResumen::id).toList();
+    }
+
+    private static CatalogoColumnar catalogo() {
+        CatalogoColumnar catalogo = new CatalogoColumnar();
+        catalogo.agregar(1, "Pride and Prejudice", List.of("en"), "Austen", List.of(1L), 300);
+        catalogo.agregar(2, "Don Quijote", List.of("es"), "Cervantes", List.of(2L), 150);
+        catalogo.agregar(3, "Emma", List.of("en"), "Austen", List.of(1L), 300);
+        catalogo.agregar(4, "Les Misérables", List.of("fr"), "Hugo", List.of(3L), 500);
+        catalogo.agregar(5, "Hamlet", List.of("en"), "Shakespeare", List.of(4L), 20);
+        catalogo.agregar(6, "Sin idioma", List.of(), "Shakespeare", List.of(4L), 0);
+        return catalogo;
+    }
+
+    @Test
+    void calculaLasEstadisticas() {
+        var estadisticas = catalogo().estadisticas();
+
+        assertEquals(6, estadisticas.getTotalLibros());
+        assertEquals(4, estadisticas.getTotalAutores());
+        assertEquals(Map.of("en", 3L, "es", 1L, "fr", 1L, CatalogoColumnar.IDIOMA_DESCONOCIDO, 1L),
+                estadisticas.getDistribucionPorIdioma());
+        assertEquals(6 / 4.0, estadisticas.getPromedioLibrosPorAutor(), 1e-9);
+    }
+
+    @Test
+    void cuentaLosAutoresPorIdYNoPorElNombreDelPrincipal() {
+        CatalogoColumnar catalogo = catalogo();
+        // Dos autores: el segundo no aparece en la columna de autor
+        catalogo.agregar(7, "Good Omens", List.of("en"), "Pratchett, Terry", List.of(5L, 6L), 90);
+        // Otra forma de escribir a Austen: el mismo autor
+        catalogo.agregar(8, "Persuasion", List.of("en"), "AUSTEN", List.of(1L), 80);
+        // Repetido: no vuelve a contar sus autores
+        catalogo.agregar(7, "Good Omens", List.of("en"), "Pratchett, Terry", List.of(5L, 6L), 90);
+
+        var estadisticas = catalogo.estadisticas();
+        assertEquals(8, estadisticas.getTotalLibros());
+        assertEquals(6, estadisticas.getTotalAutores());
+        // 9 vínculos libro-autor entre 6 autores
+        assertEquals(9 / 6.0, estadisticas.getPromedioLibrosPorAutor(), 1e-9);
+    }
+
+    @Test
+    void catalogoVacio() {
+        var estadisticas = new CatalogoColumnar().estadisticas();
+
+        assertEquals(0, estadisticas.getTotalLibros());
+        assertEquals(0.0, estadisticas.getPromedioLibrosPorAutor());
+        assertEquals(Map.of(), estadisticas.getDistribucionPorIdioma());
+        assertEquals(List.of(), new CatalogoColumnar().masDescargados(10));
+    }
+
+    @Test
+    void paginaPorIdiomaEnOrdenDeIdAunqueLleguenDesordenados() {
+        CatalogoColumnar catalogo = catalogo();
+        catalogo.agregar(0, "Persuasion", "en", "Austen", 10);
+        catalogo.agregar(3, "Emma (repetido)", "en", "Austen", 300);
+
+        assertEquals(List.of(0L, 1L), ids(catalogo.librosPorIdioma("en", -1, 2)));
+        assertEquals(List.of(3L, 5L), ids(catalogo.librosPorIdioma("en", 1, 10)));
+        assertEquals(List.of(), catalogo.librosPorIdioma("de", 0, 10));
+        assertEquals(new LibroResumen(6L, "Sin idioma", null, "Shakespeare", 0),
+                catalogo.librosPorIdioma(null, 0, 10).get(0));
+        assertEquals(new LibroResumen(4L, "Les Misérables", "fr", "Hugo", 500),
+                catalogo.librosPorIdioma("fr", 0, 10).get(0));
+        assertEquals(7, catalogo.tamano());
+    }
+
+    @Test
+    void unLibroEnVariosIdiomasEstaEnLaFacetaDeCadaUno() {
+        CatalogoColumnar catalogo = catalogo();
+        catalogo.agregar(7, "Poesía bilingüe", List.of("es", "la", "en"), "Anónimo", 5);
+        catalogo.agregar(7, "Poesía bilingüe", List.of("es", "la", "en"), "Anónimo", 5);
+
+        assertEquals(List.of("en", "es", CatalogoColumnar.IDIOMA_DESCONOCIDO, "fr", "la"),
+                List.copyOf(catalogo.contarPorIdioma().keySet()));
+        assertEquals(Map.of("en", 4L, "es", 2L, "fr", 1L, "la", 1L, CatalogoColumnar.IDIOMA_DESCONOCIDO, 1L),
+                catalogo.contarPorIdioma());
+        assertEquals(List.of(3L, 5L, 7L), ids(catalogo.librosPorIdioma("en", 1, 10)));
+        assertEquals(new LibroResumen(7L, "Poesía bilingüe", "es", "Anónimo", 5),
+                catalogo.librosPorIdioma("la", 0, 10).get(0));
+        assertEquals(7, catalogo.tamano());
+    }
+
+    @Test
+    void topPorDescargasConEmpatesPorId() {
+        CatalogoColumnar catalogo = catalogo();
+        assertEquals(List.of(4L, 1L, 3L), ids(catalogo.masDescargados(3)));
+        assertEquals(List.of(4L, 1L), ids(catalogo.masDescargados(2)));
+        assertEquals(List.of(4L, 1L, 3L, 2L, 5L, 6L), ids(catalogo.masDescargados(100)));
+
+        catalogo.agregar(7, "Moby Dick", "en", "Melville", 400);
+        assertEquals(List.of(4L, 7L, 1L), ids(catalogo.masDescargados(3)));
+    }
+
+    @Test
+    void ocupaPocosBytesPorLibro() {
+        List<Libro> libros = DatosSinteticos.libros(100_000);
+        CatalogoColumnar catalogo = new CatalogoColumnar();
+        for (int i = 0; i < libros.size(); i++) {
+            Libro libro = libros.get(i);
+            catalogo.agregar(i + 1, libro.getTitulo(), libro.getIdioma(), libro.getAutor(), libro.getDescargas());
+        }
+
+        // Columnas (con la capacidad sobrante de los arreglos) y títulos en UTF-8, sin contar los diccionarios
+        double bytesPorLibro = (double) catalogo.bytesColumnas() / catalogo.tamano();
+        assertTrue(bytesPorLibro < 96, bytesPorLibro + " bytes por libro");
+    }
+}
@@ -0,0 +1,57 @@
+package com.aluracursos.LiterAlura.busqueda;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceTextoTest {
+
+    private static List<Long> ids(List<IndiceTexto.Resultado> resultados) {
+        return resultados.stream().map(IndiceTexto.Resultado::id).toList();
+    }
+
+    private static IndiceTexto indice() {
+        IndiceTexto indice = new IndiceTexto();
+        indice.agregar(1, "Pride and Prejudice");
+        indice.agregar(2, "Don Quijote de la Mancha");
+        indice.agregar(3, "Prejudice");
+        indice.agregar(4, "The Adventures of Sherlock Holmes");
+        indice.agregar(5, "Les Misérables");
+        return indice;
+    }
+
+    @Test
+    void ordenaPorExactoPrefijoYSubcadena() {
+        IndiceTexto indice = indice();
+        assertEquals(List.of(3L, 1L), ids(indice.buscar("prejudice", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("PRIDE", 10)));
+        assertEquals(List.of(4L), ids(indice.buscar("sherlock", 10)));
+    }
+
+    @Test
+    void ignoraTildesYConsultasCortas() {
+        IndiceTexto indice = indice();
+        assertEquals(List.of(5L), ids(indice.buscar("miserables", 10)));
+        assertTrue(indice.contiene("qu"));
+        assertFalse(indice.contiene("zz"));
+    }
+
+    @Test
+    void buscaDeFormaAproximadaCuandoNoHaySubcadena() {
+        assertEquals(List.of(2L), ids(indice().buscar("Don Qijote", 10)));
+        assertTrue(indice().buscar("xyzxyz", 10).isEmpty());
+    }
+
+    @Test
+    void reemplazaElTextoDeUnIdExistente() {
+        IndiceTexto indice = indice();
+        indice.agregar(3, "Persuasion");
+        assertEquals(List.of(1L), ids(indice.buscar("prejudice", 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("persuasion", 10)));
+        assertEquals(5, indice.tamano());
+    }
+}
@@ -0,0 +1,95 @@
+package com.aluracursos.LiterAlura.catalogo;
+
+import com.aluracursos.LiterAlura.benchmark.DatosSinteticos;
+import com.aluracursos.LiterAlura.configuracion.CatalogoLocalPropiedades;
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.servicio.EjecutorTareas;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Carga un catálogo sintético del tamaño del de Project Gutenberg (75.000 libros, con asuntos y estanterías
+// como el pg_catalog.csv real) y mide libros/s, MB/s, memoria retenida por el catálogo y latencia de búsqueda
+// Se ejecuta con: mvn test -Pbenchmark -Dtest=CatalogoLocalBenchmarkTest
+
+@Tag("benchmark")
+class CatalogoLocalBenchmarkTest {
+    private static final int LIBROS = 75_000;
+    private static final long MEMORIA_MAXIMA = 256L * 1024 * 1024;
+
+    @Test
+    void cargaElCatalogoCompletoDentroDelPresupuestoDeMemoria(@TempDir Path directorio) throws Exception {
+        Path archivo = escribirCatalogo(directorio.resolve("pg_catalog.csv"));
+        // Calentamiento
+        new CatalogoLocal(new CatalogoLocalPropiedades(), null, new EjecutorTareas(new EjecucionPropiedades()))
+                .cargar(archivo).block();
+
+        long antes = memoriaUsada();
+        CatalogoLocal catalogo = new CatalogoLocal(new CatalogoLocalPropiedades(), null,
+                new EjecutorTareas(new EjecucionPropiedades()));
+        var resultado = catalogo.cargar(archivo).block();
+        long retenida = memoriaUsada() - antes;
+        System.out.println(resultado);
+        System.out.printf("Memoria retenida por el catálogo: %.1f MB%n", retenida / 1_048_576.0);
+
+        // Títulos completos y palabras sueltas de esos títulos
+        List<String> titulos = DatosSinteticos.titulos(1000);
+        List<String> palabras = titulos.stream().map(titulo -> titulo.substring(titulo.lastIndexOf(' ') + 1)).toList();
+        buscar(catalogo, titulos);
+        buscar(catalogo, palabras);
+        int encontrados = buscar(catalogo, titulos);
+        System.out.printf("Búsqueda por título completo: %.1f us de media%n", medirBusqueda(catalogo, titulos));
+        System.out.printf("Búsqueda por palabra: %.1f us de media%n", medirBusqueda(catalogo, palabras));
+
+        assertEquals(LIBROS, resultado.libros());
+        assertEquals(1000, encontrados);
+        assertTrue(retenida < MEMORIA_MAXIMA, "memoria retenida: " + retenida);
+    }
+
+    private static int buscar(CatalogoLocal catalogo, List<String> consultas) {
+        int encontrados = 0;
+        for (String consulta : consultas) {
+            encontrados += catalogo.buscarPrimero(consulta).isPresent() ? 1 : 0;
+        }
+        return encontrados;
+    }
+
+    private static double medirBusqueda(CatalogoLocal catalogo, List<String> consultas) {
+        long inicio = System.nanoTime();
+        buscar(catalogo, consultas);
+        return (System.nanoTime() - inicio) / 1000.0 / consultas.size();
+    }
+
+    private static Path escribirCatalogo(Path archivo) throws Exception {
+        List<String> titulos = DatosSinteticos.titulos(LIBROS);
+        List<String> autores = DatosSinteticos.autores(LIBROS / 3);
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo)) {
+            salida.write("Text#,Type,Issued,Title,Language,Authors,Subjects,LoCC,Bookshelves\n");
+            for (int i = 0; i < LIBROS; i++) {
+                String autor = autores.get(i % autores.size());
+                salida.write((i + 1) + ",Text,2001-01-01,\"" + titulos.get(i).replace("\"", "\"\"") + "\","
+                        + (i % 5 == 0 ? "fr" : "en") + ",\"" + autor + ", 1800-1870; Traductor, Uno, 1900-1980 [Translator]\","
+                        + "\"Fiction; Domestic fiction; England -- Social life and customs -- 19th century -- Fiction\","
+                        + "PR,\"Category: Novels; Category: Classics of Literature\"\n");
+            }
+        }
+        return archivo;
+    }
+
+    private static long memoriaUsada() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,104 @@
+package com.aluracursos.LiterAlura.catalogo;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.CatalogoLocalPropiedades;
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.ConversorGutendex;
+import com.aluracursos.LiterAlura.servicio.EjecutorTareas;
+import com.aluracursos.LiterAlura.servicio.PersistenciaLibrosServicio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogoLocalTest {
+
+    private static CatalogoLocal catalogo(CatalogoLocalPropiedades propiedades, Path directorio,
+                                          PersistenciaLibrosServicio persistencia) throws Exception {
+        CatalogoLocal catalogo = new CatalogoLocal(propiedades, persistencia,
+                new EjecutorTareas(new EjecucionPropiedades()));
+        catalogo.cargar(Files.writeString(directorio.resolve("pg_catalog.csv"), LectorCatalogoCsvTest.CATALOGO))
+                .block();
+        return catalogo;
+    }
+
+    @Test
+    void resuelveLasBusquedasSinConsultarGutendex(@TempDir Path directorio) throws Exception {
+        CatalogoLocal catalogo = catalogo(new CatalogoLocalPropiedades(), directorio, null);
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = new GutendexCliente(
+                    WebClient.builder().baseUrl(servidor.urlBase()).build(), new GutendexPropiedades(), catalogo);
+
+            assertEquals(1342L, cliente.buscarPrimero("pride and prejudice").block().getId());
+            assertEquals(2000L, cliente.buscarPrimero("quijote").block().getId());
+            assertEquals(0, servidor.peticiones());
+
+            // Lo que no está en el catálogo local se busca en Gutendex
+            assertEquals("Libro de prueba 42", cliente.buscarPrimero("Libro de prueba 42").block().getTitle());
+            assertEquals(1, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void sinRespaldoRemotoNoSaleDelCatalogoLocal(@TempDir Path directorio) throws Exception {
+        CatalogoLocalPropiedades propiedades = new CatalogoLocalPropiedades();
+        propiedades.setRespaldoRemoto(false);
+        CatalogoLocal catalogo = catalogo(propiedades, directorio, null);
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = new GutendexCliente(
+                    WebClient.builder().baseUrl(servidor.urlBase()).build(), new GutendexPropiedades(), catalogo);
+
+            assertNull(cliente.buscarPrimero("Libro de prueba 42").block());
+            assertEquals(0, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void guardaElCatalogoEnLaBaseSiSePide(@TempDir Path directorio) throws Exception {
+        PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+        when(persistencia.importarLote(anyList())).thenAnswer(invocacion -> {
+            List<GutendexLibro> lote = invocacion.getArgument(0);
+            return lote.stream().map(ConversorGutendex::aLibro).toList();
+        });
+        CatalogoLocalPropiedades propiedades = new CatalogoLocalPropiedades();
+        propiedades.setImportarABase(true);
+        propiedades.setTamanoLote(2);
+
+        CatalogoLocal catalogo = new CatalogoLocal(propiedades, persistencia,
+                new EjecutorTareas(new EjecucionPropiedades()));
+        var resultado = catalogo.cargar(
+                Files.writeString(directorio.resolve("pg_catalog.csv"), LectorCatalogoCsvTest.CATALOGO)).block();
+
+        assertEquals(5, resultado.libros());
+        assertEquals(5, resultado.librosGuardados());
+        assertEquals(5, catalogo.tamano());
+        assertTrue(resultado.bytes() > 0);
+    }
+
+    @Test
+    void comparteLosAutoresRepetidos(@TempDir Path directorio) throws Exception {
+        String catalogoCsv = LectorCatalogoCsvTest.CATALOGO
+                + "1400,Text,1998-07-01,Great Expectations,en,\"Austen, Jane, 1775-1817\",,PR,\n";
+        CatalogoLocal catalogo = new CatalogoLocal(new CatalogoLocalPropiedades(), null,
+                new EjecutorTareas(new EjecucionPropiedades()));
+        var resultado = catalogo.cargar(Files.writeString(directorio.resolve("pg_catalog.csv"), catalogoCsv)).block();
+
+        assertEquals(5, resultado.autores());
+        assertSame(catalogo.buscarPrimero("pride").get().getAuthors().get(0),
+                catalogo.buscarPrimero("great expectations").get().getAuthors().get(0));
+    }
+}
@@ -0,0 +1,73 @@
+package com.aluracursos.LiterAlura.catalogo;
+
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LectorCatalogoCsvTest {
+    static final String CATALOGO = """
+            Text#,Type,Issued,Title,Language,Authors,Subjects,LoCC,Bookshelves
+            1342,Text,1998-06-01,Pride and Prejudice,en,"Austen, Jane, 1775-1817","Courtship -- Fiction; England -- Fiction",PR,"Category: Novels"
+            1497,Text,1998-10-01,The Republic,en,"Plato, 428? BCE-348? BCE; Jowett, Benjamin, 1817-1893 [Translator]",Utopias,JC,
+            5,Text,1975-12-01,The United States Constitution,en,United States,"Constitutional law",KF,
+            999,Text,2001-01-01,"A ""quoted"" title
+            with a subtitle",en; fr,"Anónimo, active 1200",,,
+            2000,Text,1999-12-01,Don Quijote,es,"Cervantes Saavedra, Miguel de, 1547-1616",,PQ,
+            """;
+
+    private static List<GutendexLibro> leer(Path archivo) {
+        return new LectorCatalogoCsv(2, 2).leer(archivo).collectList().block();
+    }
+
+    private static GutendexAutor autor(String nombre, String nacimiento, String muerte) {
+        GutendexAutor autor = new GutendexAutor();
+        autor.setName(nombre);
+        autor.setBirthYear(nacimiento);
+        autor.setDeathYear(muerte);
+        return autor;
+    }
+
+    @Test
+    void convierteLosRegistrosAlFormatoDeGutendex(@TempDir Path directorio) throws Exception {
+        Path archivo = Files.writeString(directorio.resolve("pg_catalog.csv"), CATALOGO);
+
+        List<GutendexLibro> libros = leer(archivo);
+
+        assertEquals(List.of(1342L, 1497L, 5L, 999L, 2000L), libros.stream().map(GutendexLibro::getId).toList());
+        assertEquals(List.of(autor("Austen, Jane", "1775", "1817")), libros.get(0).getAuthors());
+        // Los traductores no son autores y los años antes de Cristo son negativos
+        assertEquals(List.of(autor("Plato", "-428", "-348")), libros.get(1).getAuthors());
+        assertEquals(List.of(autor("United States", null, null)), libros.get(2).getAuthors());
+
+        GutendexLibro multilinea = libros.get(3);
+        assertEquals("A \"quoted\" title with a subtitle", multilinea.getTitle());
+        assertEquals(List.of("en", "fr"), multilinea.getLanguages());
+        assertEquals("Anónimo", multilinea.getAuthors().get(0).getName());
+        assertNull(multilinea.getAuthors().get(0).getBirthYear());
+    }
+
+    @Test
+    void leeCatalogosComprimidos(@TempDir Path directorio) throws Exception {
+        Path archivo = directorio.resolve("pg_catalog.csv.gz");
+        try (OutputStream salida = new GZIPOutputStream(Files.newOutputStream(archivo))) {
+            salida.write(CATALOGO.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<GutendexLibro> libros = leer(archivo);
+
+        assertEquals(5, libros.size());
+        assertEquals("Don Quijote", libros.get(4).getTitle());
+        assertEquals(List.of("es"), libros.get(4).getLanguages());
+    }
+}
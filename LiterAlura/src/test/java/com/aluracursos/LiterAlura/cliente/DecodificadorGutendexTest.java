@@ -0,0 +1,65 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexRespuesta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecodificadorGutendexTest {
+    private final DecodificadorGutendex decodificador = new DecodificadorGutendex();
+
+    // Parte el JSON en fragmentos del tamaño indicado, como llegarían por la red
+    private static Flux<DataBuffer> fragmentos(String json, int tamano) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + tamano - 1) / tamano)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, i * tamano, Math.min(bytes.length, (i + 1) * tamano))));
+    }
+
+    @Test
+    void produceLoMismoQueElDataBindingConCualquierFragmentacion() throws Exception {
+        String json = ServidorGutendexSimulado.ejemploPagina(32);
+        GutendexRespuesta esperada = new ObjectMapper().readValue(json, GutendexRespuesta.class);
+
+        for (int tamano : new int[]{1, 7, 512, json.length()}) {
+            assertEquals(esperada, decodificador.pagina(fragmentos(json, tamano)).block());
+        }
+        assertEquals(9_999, esperada.getResults().get(0).getDownloadCount());
+    }
+
+    @Test
+    void dejaDeLeerElCuerpoTrasElPrimerLibro() {
+        String json = ServidorGutendexSimulado.ejemploPagina(32);
+        AtomicInteger leidos = new AtomicInteger();
+        int total = (json.length() + 255) / 256;
+
+        // hide() evita la fusión síncrona: al cancelar, una cola fusionada se vaciaría para descartar su contenido
+        GutendexLibro primero = decodificador.libros(fragmentos(json, 256).hide().doOnNext(f -> leidos.incrementAndGet()))
+                .next()
+                .block();
+
+        assertEquals("Libro de prueba 1", primero.getTitle());
+        assertTrue(leidos.get() < total / 4, leidos.get() + " de " + total + " fragmentos leídos");
+    }
+
+    @Test
+    void rechazaRespuestasIncompletas() {
+        String json = ServidorGutendexSimulado.ejemploPagina(2);
+        Flux<DataBuffer> cortado = fragmentos(json.substring(0, json.length() - 10), 64);
+
+        assertThrows(DecodingException.class, () -> decodificador.pagina(cortado).block());
+    }
+}
@@ -0,0 +1,114 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.configuracion.WebClienteConfiguracion;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GutendexClienteResilienciaTest {
+
+    private static GutendexPropiedades propiedades() {
+        GutendexPropiedades propiedades = new GutendexPropiedades();
+        propiedades.setTiempoRespuesta(Duration.ofMillis(500));
+        propiedades.getReintentos().setEsperaInicial(Duration.ofMillis(10));
+        propiedades.getReintentos().setEsperaMaxima(Duration.ofMillis(50));
+        propiedades.getCircuito().setVentana(4);
+        propiedades.getCircuito().setMinLlamadas(4);
+        propiedades.getCircuito().setTiempoAbierto(Duration.ofMillis(300));
+        propiedades.getCircuito().setLlamadasPrueba(1);
+        return propiedades;
+    }
+
+    private static GutendexCliente cliente(String urlBase, GutendexPropiedades propiedades) {
+        WebClient webClient = WebClient.builder()
+                .clientConnector(WebClienteConfiguracion.conector(propiedades))
+                .baseUrl(urlBase)
+                .build();
+        return new GutendexCliente(webClient, propiedades);
+    }
+
+    @Test
+    void reintentaLosErroresDelServidorHastaObtenerRespuesta() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = cliente(servidor.urlBase(), propiedades());
+            servidor.fallarProximas(2, 503);
+
+            assertEquals("Libro de prueba 42", cliente.buscar("prueba 42").block().getResults().get(0).getTitle());
+            assertEquals(3, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void noReintentaLosErroresDeLaPeticion() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = cliente(servidor.urlBase(), propiedades());
+            servidor.fallarProximas(1, 404);
+
+            assertThrows(WebClientResponseException.NotFound.class, () -> cliente.pagina(null).block());
+            assertEquals(1, servidor.peticiones());
+            assertEquals(InterruptorCircuito.Estado.CERRADO, cliente.estadoCircuito());
+        }
+    }
+
+    @Test
+    void cortaLasRespuestasQueSuperanElTiempoMaximo() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexPropiedades propiedades = propiedades();
+            propiedades.getReintentos().setMaxIntentos(1);
+            GutendexCliente cliente = cliente(servidor.urlBase(), propiedades);
+            servidor.setLatencia(Duration.ofSeconds(3));
+
+            long inicio = System.nanoTime();
+            RuntimeException error = assertThrows(RuntimeException.class, () -> cliente.pagina(null).block());
+
+            assertInstanceOf(WebClientRequestException.class, error);
+            assertTrue(Duration.ofNanos(System.nanoTime() - inicio).compareTo(Duration.ofSeconds(2)) < 0);
+        }
+    }
+
+    @Test
+    void abreElCircuitoYSeRecuperaTrasLaPrueba() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexPropiedades propiedades = propiedades();
+            propiedades.getReintentos().setMaxIntentos(1);
+            GutendexCliente cliente = cliente(servidor.urlBase(), propiedades);
+            servidor.fallarProximas(4, 500);
+
+            for (int i = 0; i < 4; i++) {
+                assertThrows(WebClientResponseException.InternalServerError.class, () -> cliente.pagina(null).block());
+            }
+            assertEquals(InterruptorCircuito.Estado.ABIERTO, cliente.estadoCircuito());
+
+            // Con el circuito abierto las llamadas fallan sin llegar al servidor
+            assertThrows(CircuitoAbiertoException.class, () -> cliente.pagina(null).block());
+            assertEquals(4, servidor.peticiones());
+
+            Thread.sleep(400);
+            assertEquals(InterruptorCircuito.Estado.SEMIABIERTO, cliente.estadoCircuito());
+            assertEquals(32, cliente.pagina(null).block().getResults().size());
+            assertEquals(InterruptorCircuito.Estado.CERRADO, cliente.estadoCircuito());
+        }
+    }
+
+    @Test
+    void sigueRedireccionesYAceptaRespuestasComprimidas() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = cliente(servidor.urlSinBarra(), propiedades());
+
+            assertEquals(32, cliente.pagina(null).block().getResults().size());
+            // El 301 de /books no cuenta: solo se sirve una página del catálogo
+            assertEquals(1, servidor.peticiones());
+            assertEquals(1, servidor.comprimidas());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.aluracursos.LiterAlura.cliente;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexRespuesta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GutendexClienteTest {
+
+    private static GutendexCliente cliente(ServidorGutendexSimulado servidor, GutendexPropiedades propiedades) {
+        return new GutendexCliente(WebClient.builder().baseUrl(servidor.urlBase()).build(), propiedades);
+    }
+
+    @Test
+    void reutilizaLaRespuestaParaConsultasEquivalentes() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = cliente(servidor, new GutendexPropiedades());
+
+            GutendexRespuesta primera = cliente.buscar("Libro de prueba 42").block();
+            GutendexRespuesta segunda = cliente.buscar("  libro DE prueba   42 ").block();
+
+            assertEquals("Libro de prueba 42", primera.getResults().get(0).getTitle());
+            assertEquals(primera, segunda);
+            assertEquals(1, servidor.peticiones());
+            assertEquals(1, cliente.estadisticas(GutendexCliente.Endpoint.BUSQUEDA).hitCount());
+        }
+    }
+
+    @Test
+    void buscarPrimeroGuardaLaBusquedaEnLaCache() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = cliente(servidor, new GutendexPropiedades());
+
+            assertEquals("Libro de prueba 42", cliente.buscarPrimero("prueba 42").block().getTitle());
+            assertEquals("Libro de prueba 42", cliente.buscarPrimero("Prueba  42").block().getTitle());
+            cliente.buscar("prueba 42").block();
+
+            assertEquals(1, servidor.peticiones());
+            assertEquals(2, cliente.estadisticas(GutendexCliente.Endpoint.BUSQUEDA).hitCount());
+        }
+    }
+
+    @Test
+    void buscarPrimeroAgrupaLasBusquedasConcurrentes() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            servidor.setLatencia(Duration.ofMillis(100));
+            GutendexCliente cliente = cliente(servidor, new GutendexPropiedades());
+
+            List<String> titulos = Flux.range(0, 20)
+                    .flatMap(i -> cliente.buscarPrimero("prueba 9"), 20)
+                    .map(GutendexLibro::getTitle)
+                    .collectList()
+                    .block();
+
+            assertEquals(20, titulos.size());
+            assertEquals(1, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void agrupaLosFallosConcurrentesEnUnaSolaPeticion() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexCliente cliente = cliente(servidor, new GutendexPropiedades());
+
+            List<GutendexRespuesta> respuestas = Flux.range(0, 50)
+                    .flatMap(i -> cliente.buscar("prueba 3"), 50)
+                    .collectList()
+                    .block();
+
+            assertEquals(50, respuestas.size());
+            assertEquals(1, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void revalidaConPeticionCondicionalAlVencerElTtl() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexPropiedades propiedades = new GutendexPropiedades();
+            propiedades.getCache().setTtlBusqueda(Duration.ofMillis(100));
+            GutendexCliente cliente = cliente(servidor, propiedades);
+
+            cliente.buscar("prueba 7").block();
+            Thread.sleep(200);
+
+            // La respuesta vencida se sirve al instante y se revalida en segundo plano
+            assertEquals("Libro de prueba 7", cliente.buscar("prueba 7").block().getResults().get(0).getTitle());
+            for (int intento = 0; intento < 50 && servidor.noModificadas() == 0; intento++) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(2, servidor.peticiones());
+            assertEquals(1, servidor.noModificadas());
+        }
+    }
+
+    @Test
+    void registraLasPeticionesPorEndpointYLosAciertosDeLaCache() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            SimpleMeterRegistry registro = new SimpleMeterRegistry();
+            WebClient webClient = WebClient.builder()
+                    .baseUrl(servidor.urlBase())
+                    .filter(new MetricasPeticiones(registro, 0))
+                    .build();
+            GutendexCliente cliente = new GutendexCliente(webClient, new GutendexPropiedades());
+            cliente.bindTo(registro);
+
+            cliente.buscar("prueba 5").block();
+            cliente.buscar("Prueba 5").block();
+            cliente.masDescargados(null, 40).collectList().block();
+
+            assertEquals(1, registro.get(MetricasPeticiones.METRICA)
+                    .tags("endpoint", "busqueda", "estado", "200").timer().count());
+            // 40 libros son dos páginas
+            assertEquals(2, registro.get(MetricasPeticiones.METRICA)
+                    .tags("endpoint", "populares", "estado", "200").timer().count());
+            assertEquals(1.0, registro.get("cache.gets")
+                    .tags("cache", "gutendex", "endpoint", "busqueda", "result", "hit").functionCounter().count());
+            assertEquals(1.0, registro.get("gutendex.circuito").tag("estado", "CERRADO").gauge().value());
+        }
+    }
+
+    @Test
+    void desalojaEntradasAlSuperarElTamanoMaximo() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            GutendexPropiedades propiedades = new GutendexPropiedades();
+            propiedades.getCache().setMaxEntradas(5);
+            GutendexCliente cliente = cliente(servidor, propiedades);
+
+            for (int i = 1; i <= 20; i++) {
+                cliente.buscar("prueba " + i).block();
+            }
+            for (int intento = 0; intento < 50
+                    && cliente.estadisticas(GutendexCliente.Endpoint.BUSQUEDA).evictionCount() < 15; intento++) {
+                Thread.sleep(100);
+            }
+
+            assertTrue(cliente.estadisticas(GutendexCliente.Endpoint.BUSQUEDA).evictionCount() >= 15);
+            assertEquals(20, servidor.peticiones());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.aluracursos.LiterAlura.menuUsuario;
+
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.configuracion.LotePropiedades;
+import com.aluracursos.LiterAlura.menuUsuario.LoteComandos.ResumenLote;
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.servicio.EjecutorTareas;
+import com.aluracursos.LiterAlura.servicio.LibroDuplicadoException;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoteComandosTest {
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final LiteraturaServicio servicio = mock(LiteraturaServicio.class);
+    private final EjecutorTareas ejecutor = new EjecutorTareas(new EjecucionPropiedades());
+
+    @AfterEach
+    void cerrar() {
+        ejecutor.destroy();
+    }
+
+    private LoteComandos lote(int trabajadores) {
+        LotePropiedades propiedades = new LotePropiedades();
+        propiedades.setTrabajadores(trabajadores);
+        return new LoteComandos(servicio, null, ejecutor, propiedades, mapper);
+    }
+
+    private List<JsonNode> resultados(StringWriter salida) throws Exception {
+        List<JsonNode> resultados = new ArrayList<>();
+        for (String linea : salida.toString().split("\n")) {
+            resultados.add(mapper.readTree(linea));
+        }
+        resultados.sort(Comparator.comparingLong(resultado -> resultado.get("linea").asLong()));
+        return resultados;
+    }
+
+    @Test
+    void escribeUnResultadoPorComandoYResume() throws Exception {
+        Libro emma = new Libro("Emma", "en", "Austen, Jane", 10);
+        emma.setId(7L);
+        when(servicio.buscarYRegistrarLibro("Emma")).thenReturn(Optional.of(emma));
+        when(servicio.buscarYRegistrarLibro("Inexistente")).thenReturn(Optional.empty());
+        when(servicio.buscarYRegistrarLibro("Repetido")).thenThrow(new LibroDuplicadoException());
+        when(servicio.listarAutoresVivos(1800)).thenReturn(List.of(new Autor(3L, "Austen, Jane", false, 1775, 1817)));
+
+        String entrada = """
+                # Comentario
+                Emma
+
+                registrar: Inexistente
+                Repetido
+                vivos: 1800
+                vivos: mil
+                """;
+        StringWriter salida = new StringWriter();
+        ResumenLote resumen = lote(4).ejecutar(new StringReader(entrada), salida);
+
+        List<JsonNode> resultados = resultados(salida);
+        assertEquals(5, resultados.size());
+        assertEquals(2, resultados.get(0).get("linea").asLong());
+        assertEquals("ok", resultados.get(0).get("estado").asText());
+        assertEquals("Emma", resultados.get(0).get("resultado").get("titulo").asText());
+        assertEquals("no_encontrado", resultados.get(1).get("estado").asText());
+        assertEquals("Inexistente", resultados.get(1).get("entrada").asText());
+        assertEquals("duplicado", resultados.get(2).get("estado").asText());
+        assertEquals(1775, resultados.get(3).get("resultado").get(0).get("anioNacimiento").asInt());
+        assertEquals("error", resultados.get(4).get("estado").asText());
+
+        assertEquals(new ResumenLote(5, 2, 1, 1, 1, resumen.duracion()), resumen);
+    }
+
+    @Test
+    void ejecutaLosComandosConcurrentementeHastaElLimiteDeTrabajadores() throws Exception {
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        when(servicio.buscarYRegistrarLibro(anyString())).thenAnswer(invocacion -> {
+            maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            enCurso.decrementAndGet();
+            return Optional.empty();
+        });
+        String entrada = IntStream.range(0, 200).mapToObj(i -> "Libro " + i).collect(Collectors.joining("\n"));
+
+        StringWriter salida = new StringWriter();
+        ResumenLote resumen = lote(8).ejecutar(new StringReader(entrada), salida);
+
+        assertEquals(200, resumen.noEncontrados());
+        assertEquals(200, resultados(salida).size());
+        assertTrue(maximo.get() > 1 && maximo.get() <= 8, "máximo en curso: " + maximo.get());
+        // 200 comandos de 20 ms de 8 en 8 tardan unos 500 ms, frente a 4 s uno detrás de otro
+        assertTrue(resumen.duracion().toMillis() < 2_000, resumen.toString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import com.aluracursos.LiterAlura.configuracion.CacheHibernateConfiguracion;
+import com.aluracursos.LiterAlura.configuracion.CacheHibernatePropiedades;
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Sin la transacción de @DataJpaTest: cada llamada abre su propia sesión, como en la aplicación,
+// así que los aciertos vienen de la caché de segundo nivel y no del contexto de persistencia
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:cache-segundo-nivel;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@Import({CacheHibernateConfiguracion.class, CacheHibernatePropiedades.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private AutorRepositorio autorRepositorio;
+
+    @Autowired
+    private LibroRepositorio libroRepositorio;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cargaLosAutoresDeLaCacheYCadaEscrituraSoloInvalidaSusTablas() {
+        List<Autor> autores = autorRepositorio.saveAllBatched(List.of(
+                new Autor(null, "Austen, Jane", false, 1775, 1817),
+                new Autor(null, "Shelley, Mary", false, 1797, 1851)));
+        List<Libro> libros = libroRepositorio.saveAllBatched(List.of(new Libro("Emma", "en", "Austen, Jane", 10)));
+        List<Long> ids = List.of(autores.get(1).getId(), autores.get(0).getId());
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // Las entidades recién guardadas ya están en la caché: ninguna consulta
+        assertEquals(List.of("Shelley, Mary", "Austen, Jane"),
+                autorRepositorio.cargarPorIds(ids).stream().map(Autor::getNombre).toList());
+        assertEquals(2, estadisticas.getDomainDataRegionStatistics(CacheHibernateConfiguracion.REGION_AUTORES).getHitCount());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        // La segunda vez que se pide una página sale de la caché de consultas
+        libroRepositorio.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10), LibroResumen.class);
+        libroRepositorio.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10), LibroResumen.class);
+        assertEquals(1, estadisticas.getQueryCacheHitCount());
+
+        // Insertar un autor solo invalida lo que lee de la tabla autor
+        autorRepositorio.insertarSiNoExiste("Woolf, Virginia", "woolf, virginia", false, 1882, 1941);
+        libroRepositorio.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10), LibroResumen.class);
+        assertEquals(2, estadisticas.getQueryCacheHitCount());
+        assertEquals("Emma", libroRepositorio.cargarPorIds(Libro.class, List.of(libros.get(0).getId())).get(0).getTitulo());
+        assertEquals(1, estadisticas.getDomainDataRegionStatistics(CacheHibernateConfiguracion.REGION_LIBROS).getHitCount());
+        assertEquals(0, estadisticas.getDomainDataRegionStatistics(CacheHibernateConfiguracion.REGION_LIBROS).getMissCount());
+    }
+}
@@ -0,0 +1,125 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.AutorLibro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.servicio.CacheAutores;
+import com.aluracursos.LiterAlura.servicio.PersistenciaLibrosServicio;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Relación libro-autor: cantidad de sentencias SQL al guardar y listar libros con sus autores
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class LibroAutoresConsultaTest {
+    private static final int LIBROS = 20;
+
+    @Autowired
+    private LibroRepositorio libroRepositorio;
+
+    @Autowired
+    private AutorRepositorio autorRepositorio;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void preparar() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Libros de Gutendex con dos autores cada uno; el segundo autor lo comparten todos
+    private List<Long> guardarLibrosConDosAutores() {
+        List<GutendexLibro> lote = new ArrayList<>();
+        for (int i = 0; i < LIBROS; i++) {
+            GutendexLibro libro = new GutendexLibro();
+            libro.setId((long) i);
+            libro.setTitle("Libro " + i);
+            libro.setLanguages(List.of("en"));
+            libro.setAuthors(List.of(autor("Autor " + i), autor("Ilustrador compartido")));
+            libro.setDownloadCount(i);
+            lote.add(libro);
+        }
+        PersistenciaLibrosServicio persistencia = new PersistenciaLibrosServicio(
+                libroRepositorio, new CacheAutores(autorRepositorio, 1_000), evento -> { });
+        return persistencia.guardarLote(lote).stream().map(Libro::getId).toList();
+    }
+
+    private static GutendexAutor autor(String nombre) {
+        GutendexAutor autor = new GutendexAutor();
+        autor.setName(nombre);
+        autor.setBirthYear("1800");
+        return autor;
+    }
+
+    @Test
+    void guardaTodosLosAutoresSinCargarlos() {
+        estadisticas.clear();
+        List<Long> ids = guardarLibrosConDosAutores();
+        entityManager.clear();
+
+        // Los autores se vinculan por id: al guardar no se lee ninguna entidad Autor
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(LIBROS + 1, autorRepositorio.count());
+        Libro libro = libroRepositorio.findConAutoresByIdIn(List.of(ids.get(3))).get(0);
+        assertEquals(List.of("Autor 3", "Ilustrador compartido"), libro.getAutores().stream().map(Autor::getNombre).toList());
+        assertEquals("Autor 3", libro.getAutor());
+    }
+
+    @Test
+    void listarConElGrafoDeAutoresEsUnaSolaConsulta() {
+        List<Long> ids = guardarLibrosConDosAutores();
+        entityManager.clear();
+        estadisticas.clear();
+
+        List<Libro> libros = libroRepositorio.findConAutoresByIdIn(ids);
+        long autores = libros.stream().mapToLong(libro -> libro.getAutores().size()).sum();
+
+        assertEquals(2L * LIBROS, autores);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void idsDeLosAutoresPorRangoDeLibros() {
+        List<Long> ids = guardarLibrosConDosAutores();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Rango (primero, último]: todos menos el primer libro
+        List<AutorLibro> autores = libroRepositorio.findAutoresByIdEntre(ids.get(0), ids.get(LIBROS - 1));
+
+        assertEquals(2 * (LIBROS - 1), autores.size());
+        assertEquals(LIBROS, autores.stream().map(AutorLibro::autorId).distinct().count());
+    }
+
+    @Test
+    void sinGrafoLosAutoresSeCarganPorBloquesYNoUnoPorLibro() {
+        List<Long> ids = guardarLibrosConDosAutores();
+        entityManager.clear();
+        estadisticas.clear();
+
+        List<Libro> libros = libroRepositorio.findAllById(ids);
+        libros.forEach(libro -> libro.getAutores().forEach(Autor::getNombre));
+
+        // Una consulta para los libros y otra para los autores de hasta 50 libros (@BatchSize)
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+}
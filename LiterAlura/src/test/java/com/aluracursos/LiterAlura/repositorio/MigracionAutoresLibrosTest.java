@@ -0,0 +1,49 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// La migración V6 vincula con su autor, por nombre normalizado, los libros que solo tenían el nombre en Libro.autor
+
+class MigracionAutoresLibrosTest {
+    private static final String URL = "jdbc:h2:mem:migracion-autores-libros;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void vinculaLosLibrosSinAutoresPorElNombreNormalizado() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").target("5").load().migrate();
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("INSERT INTO autor (id, nombre, nombre_normalizado, vivo, anio_nacimiento, anio_muerte) VALUES "
+                    + "(1, 'Austen, Jane', 'austen, jane', false, 1775, 1817), "
+                    + "(2, 'Shelley, Mary', 'shelley, mary', false, 1797, 1851)");
+            sentencia.execute("INSERT INTO libro (id, titulo, idioma, autor, descargas) VALUES "
+                    + "(1, 'Emma', 'en', 'Austen, Jane', 0), (2, 'Persuasion', 'en', ' austen,  JANE', 0), "
+                    + "(3, 'Anonimo', 'en', 'Desconocido', 0), (4, 'Frankenstein', 'en', 'Austen, Jane', 0)");
+            // Un libro ya vinculado conserva sus autores aunque Libro.autor diga otra cosa
+            sentencia.execute("INSERT INTO libro_autor (libro_id, posicion, autor_id) VALUES (4, 0, 2)");
+
+            Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+
+            assertEquals(3, valor(sentencia, "SELECT COUNT(*) FROM libro_autor"));
+            assertEquals(1, valor(sentencia, "SELECT autor_id FROM libro_autor WHERE libro_id = 1 AND posicion = 0"));
+            assertEquals(1, valor(sentencia, "SELECT autor_id FROM libro_autor WHERE libro_id = 2 AND posicion = 0"));
+            assertEquals(0, valor(sentencia, "SELECT COUNT(*) FROM libro_autor WHERE libro_id = 3"));
+            assertEquals(2, valor(sentencia, "SELECT autor_id FROM libro_autor WHERE libro_id = 4"));
+        }
+    }
+
+    private static long valor(Statement sentencia, String consulta) throws SQLException {
+        try (ResultSet fila = sentencia.executeQuery(consulta)) {
+            fila.next();
+            return fila.getLong(1);
+        }
+    }
+}
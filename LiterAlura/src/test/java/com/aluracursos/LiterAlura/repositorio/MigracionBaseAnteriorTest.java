@@ -0,0 +1,71 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Una base de datos creada por la primera versión de la aplicación (Hibernate con ddl-auto=update,
+// ids IDENTITY, sin secuencias ni libro_autor) migrada con la configuración de Flyway de application.properties
+
+class MigracionBaseAnteriorTest {
+    private static final String URL = "jdbc:h2:mem:migracion-base-anterior;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void completaElEsquemaYAvanzaLasSecuencias() throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            // Las tablas tal como las generaba Hibernate a partir de las entidades originales
+            sentencia.execute("CREATE TABLE autor (anio_muerte INTEGER NOT NULL CHECK (anio_muerte >= 0), "
+                    + "anio_nacimiento INTEGER NOT NULL CHECK (anio_nacimiento >= 0), vivo BOOLEAN NOT NULL, "
+                    + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, nombre VARCHAR(255), PRIMARY KEY (id))");
+            sentencia.execute("CREATE TABLE libro (descargas INTEGER NOT NULL CHECK (descargas >= 0), "
+                    + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, autor VARCHAR(255), idioma VARCHAR(255), "
+                    + "titulo VARCHAR(255), PRIMARY KEY (id))");
+            sentencia.execute("INSERT INTO autor (anio_muerte, anio_nacimiento, vivo, nombre) VALUES "
+                    + "(1817, 1775, false, 'Austen, Jane'), (1870, 1812, false, 'Dickens, Charles'), "
+                    + "(1817, 1775, false, 'Austen, Jane'), (1870, 1812, false, 'dickens,  Charles')");
+            for (int i = 1; i <= 60; i++) {
+                sentencia.execute("INSERT INTO libro (descargas, autor, idioma, titulo) VALUES "
+                        + "(" + i + ", 'Austen, Jane', 'en', 'Libro " + i + "')");
+            }
+
+            Flyway flyway = Flyway.configure()
+                    .dataSource(URL, "sa", "")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load();
+            flyway.migrate();
+
+            assertEquals(0, flyway.info().pending().length);
+            // Los autores repetidos (también los escritos de otra forma) se eliminan y el nombre normalizado queda único
+            assertEquals(2, valor(sentencia, "SELECT COUNT(*) FROM autor"));
+            assertEquals(2, valor(sentencia, "SELECT COUNT(DISTINCT nombre_normalizado) FROM autor"));
+            assertThrows(SQLException.class, () -> sentencia.execute(
+                    "INSERT INTO autor (id, nombre, nombre_normalizado, vivo, anio_nacimiento, anio_muerte) "
+                            + "VALUES (1000, 'AUSTEN, Jane', 'austen, jane', false, 1775, 1817)"));
+            // Secuencias por delante de los ids existentes: los siguientes bloques empiezan en 61 y en 5
+            assertEquals(61, valor(sentencia, "SELECT nextval('libro_seq')") - 49);
+            assertEquals(5, valor(sentencia, "SELECT nextval('autor_seq')") - 49);
+            // Las tablas y columnas que añadieron las versiones siguientes
+            assertEquals(60, valor(sentencia, "SELECT COUNT(*) FROM libro_idioma"));
+            // V6 vincula cada libro con el autor de su nombre, el que quedó tras unir los repetidos
+            assertEquals(60, valor(sentencia, "SELECT COUNT(*) FROM libro_autor WHERE autor_id = 1 AND posicion = 0"));
+            assertEquals(0, valor(sentencia, "SELECT COUNT(*) FROM libro WHERE gutendex_id IS NOT NULL"));
+        }
+    }
+
+    private static long valor(Statement sentencia, String consulta) throws SQLException {
+        try (ResultSet fila = sentencia.executeQuery(consulta)) {
+            fila.next();
+            return fila.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// La migración V5 une los autores cuyo nombre solo se distingue en mayúsculas o espacios
+
+class MigracionNombreNormalizadoTest {
+    private static final String URL = "jdbc:h2:mem:migracion-nombre-normalizado;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void uneLosAutoresRepetidosYConservaSusLibros() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").target("4").load().migrate();
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("INSERT INTO autor (id, nombre, vivo, anio_nacimiento, anio_muerte) VALUES "
+                    + "(1, 'Austen, Jane', false, 1775, 1817), (2, 'austen,  JANE', false, 1775, 1817), "
+                    + "(3, 'Shelley, Mary', false, 1797, 1851)");
+            sentencia.execute("INSERT INTO libro (id, titulo, idioma, autor, descargas) VALUES "
+                    + "(1, 'Emma', 'en', 'Austen, Jane', 0), (2, 'Persuasion', 'en', 'austen,  JANE', 0)");
+            sentencia.execute("INSERT INTO libro_autor (libro_id, posicion, autor_id) VALUES (1, 0, 1), (2, 0, 2)");
+
+            Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+
+            assertEquals(2, valor(sentencia, "SELECT COUNT(*) FROM autor"));
+            assertEquals(1, valor(sentencia, "SELECT id FROM autor WHERE nombre_normalizado = 'austen, jane'"));
+            // El libro del autor eliminado pasa al que se conserva
+            assertEquals(2, valor(sentencia, "SELECT COUNT(*) FROM libro_autor WHERE autor_id = 1"));
+        }
+    }
+
+    @Test
+    void unLibroConLasDosFormasDelAutorConservaUnSoloVinculoSinHuecos() throws SQLException {
+        String url = URL.replace("migracion-nombre-normalizado", "migracion-nombre-normalizado-vinculos");
+        Flyway.configure().dataSource(url, "sa", "").target("4").load().migrate();
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("INSERT INTO autor (id, nombre, vivo, anio_nacimiento, anio_muerte) VALUES "
+                    + "(1, 'Austen, Jane', false, 1775, 1817), (2, 'austen,  JANE', false, 1775, 1817), "
+                    + "(3, 'Shelley, Mary', false, 1797, 1851)");
+            sentencia.execute("INSERT INTO libro (id, titulo, idioma, autor, descargas) VALUES "
+                    + "(1, 'Antologia', 'en', 'Austen, Jane', 0)");
+            sentencia.execute("INSERT INTO libro_autor (libro_id, posicion, autor_id) VALUES (1, 0, 1), (1, 1, 2), (1, 2, 3)");
+
+            Flyway.configure().dataSource(url, "sa", "").load().migrate();
+
+            assertEquals(2, valor(sentencia, "SELECT COUNT(*) FROM libro_autor WHERE libro_id = 1"));
+            // Se conserva el vínculo de menor posición y el autor siguiente ocupa el hueco
+            assertEquals(1, valor(sentencia, "SELECT autor_id FROM libro_autor WHERE libro_id = 1 AND posicion = 0"));
+            assertEquals(3, valor(sentencia, "SELECT autor_id FROM libro_autor WHERE libro_id = 1 AND posicion = 1"));
+        }
+    }
+
+    private static long valor(Statement sentencia, String consulta) throws SQLException {
+        try (ResultSet fila = sentencia.executeQuery(consulta)) {
+            fila.next();
+            return fila.getLong(1);
+        }
+    }
+}
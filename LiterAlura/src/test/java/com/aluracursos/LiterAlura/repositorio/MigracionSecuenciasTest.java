@@ -0,0 +1,49 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// La migración V4 lleva las secuencias más allá de los ids que ya hay en las tablas
+
+class MigracionSecuenciasTest {
+    private static final String URL = "jdbc:h2:mem:migracion-secuencias;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void avanzaLasSecuenciasQueVanPorDetrasDeLosIds() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").target("3").load().migrate();
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            // Libros con ids asignados sin la secuencia, como cuando eran IDENTITY
+            for (int id = 1; id <= 75; id++) {
+                sentencia.execute("INSERT INTO libro (id, titulo, idioma, autor, descargas) "
+                        + "VALUES (" + id + ", 'Libro " + id + "', 'en', 'Autor', 0)");
+            }
+            // La secuencia de autores ya va por delante de sus ids (ha dado 1 y 51)
+            sentencia.execute("INSERT INTO autor (id, nombre, vivo, anio_nacimiento, anio_muerte) "
+                    + "VALUES (10, 'Autor', true, 0, 0)");
+            valor(sentencia, "SELECT nextval('autor_seq')");
+            valor(sentencia, "SELECT nextval('autor_seq')");
+
+            Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+
+            // El siguiente bloque de libros es 76..125; la secuencia de autores no se mueve (la migración consumió 101)
+            assertEquals(125, valor(sentencia, "SELECT nextval('libro_seq')"));
+            assertEquals(151, valor(sentencia, "SELECT nextval('autor_seq')"));
+        }
+    }
+
+    private static long valor(Statement sentencia, String consulta) throws SQLException {
+        try (ResultSet fila = sentencia.executeQuery(consulta)) {
+            fila.next();
+            return fila.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import com.aluracursos.LiterAlura.modelo.Autor;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// El esquema lo crean las migraciones y Hibernate solo lo valida: si una entidad cambia sin su migración,
+// el contexto no arranca
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migraciones;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+class MigracionesEsquemaTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private LibroRepositorio libroRepositorio;
+
+    @Autowired
+    private AutorRepositorio autorRepositorio;
+
+    @Test
+    void lasMigracionesCreanElEsquemaDeLasEntidades() {
+        // Todas las migraciones aplicadas, hasta la última
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(flyway.info().all()[flyway.info().all().length - 1].getVersion(),
+                flyway.info().current().getVersion());
+
+        Autor austen = autorRepositorio.saveAllBatched(List.of(new Autor(null, "Austen, Jane", false, 1775, 1817))).get(0);
+        Libro emma = new Libro("Emma", "en", "Austen, Jane", 10);
+        emma.getAutores().add(austen);
+        libroRepositorio.saveAllBatched(List.of(emma));
+
+        assertEquals(List.of("Austen, Jane"),
+                libroRepositorio.findConAutoresByIdIn(List.of(libroRepositorio.findAll().get(0).getId())).get(0)
+                        .getAutores().stream().map(Autor::getNombre).toList());
+    }
+}
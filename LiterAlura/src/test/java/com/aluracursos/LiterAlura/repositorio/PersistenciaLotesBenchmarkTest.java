@@ -0,0 +1,73 @@
+package com.aluracursos.LiterAlura.repositorio;
+
+import com.aluracursos.LiterAlura.modelo.Libro;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara filas/segundo entre el save() fila por fila y saveAllBatched sobre H2 en modo PostgreSQL
+// Se ejecuta con: mvn test -Pbenchmark -Dtest=PersistenciaLotesBenchmarkTest
+
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PersistenciaLotesBenchmarkTest {
+    private static final int FILAS = 20_000;
+
+    @Autowired
+    private LibroRepositorio libroRepositorio;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void comparaSaveFilaPorFilaConSaveAllBatched() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        // Calentamiento de la JVM y del pool de conexiones
+        transaccion.executeWithoutResult(estado -> libroRepositorio.saveAllBatched(generarLibros(2_000)));
+        libroRepositorio.deleteAllInBatch();
+
+        // Modelo actual: una llamada a save() por libro, cada una en su propia transacción
+        List<Libro> libros = generarLibros(FILAS);
+        long inicio = System.nanoTime();
+        for (Libro libro : libros) {
+            transaccion.executeWithoutResult(estado -> libroRepositorio.save(libro));
+        }
+        double filaPorFila = filasPorSegundo(inicio);
+        assertEquals(FILAS, libroRepositorio.count());
+        libroRepositorio.deleteAllInBatch();
+
+        // Inserción por lotes en una sola transacción
+        List<Libro> lote = generarLibros(FILAS);
+        inicio = System.nanoTime();
+        transaccion.executeWithoutResult(estado -> libroRepositorio.saveAllBatched(lote));
+        double porLotes = filasPorSegundo(inicio);
+        assertEquals(FILAS, libroRepositorio.count());
+
+        System.out.printf("save() fila por fila: %.0f filas/s%n", filaPorFila);
+        System.out.printf("saveAllBatched:       %.0f filas/s (x%.1f)%n", porLotes, porLotes / filaPorFila);
+    }
+
+    private static List<Libro> generarLibros(int cantidad) {
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            libros.add(new Libro("Libro " + i, i % 2 == 0 ? "en" : "es", "Autor " + (i % 500), i));
+        }
+        return libros;
+    }
+
+    private static double filasPorSegundo(long inicio) {
+        return FILAS / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+}
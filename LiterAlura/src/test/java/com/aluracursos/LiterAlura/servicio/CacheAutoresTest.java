@@ -0,0 +1,124 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexAutor;
+import com.aluracursos.LiterAlura.repositorio.AutorRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheAutoresTest {
+
+    @Autowired
+    private AutorRepositorio autorRepositorio;
+
+    @Autowired
+    private PlatformTransactionManager transacciones;
+
+    @AfterEach
+    void limpiar() {
+        autorRepositorio.deleteAllInBatch();
+    }
+
+    @Test
+    void normalizaEspaciosYMayusculas() {
+        assertEquals("austen, jane", CacheAutores.normalizar("  Austen,   JANE "));
+    }
+
+    @Test
+    void registraCadaAutorUnaSolaVezConImportacionesConcurrentes() throws Exception {
+        // Dos cachés independientes simulan dos instancias de la aplicación importando a la vez
+        List<CacheAutores> caches = List.of(
+                new CacheAutores(autorRepositorio, 1_000),
+                new CacheAutores(autorRepositorio, 1_000));
+
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        List<Callable<Long>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < 8; hilo++) {
+            CacheAutores cache = caches.get(hilo % 2);
+            for (int i = 0; i < 100; i++) {
+                GutendexAutor autor = new GutendexAutor();
+                autor.setName("Autor " + i);
+                tareas.add(() -> cache.obtenerOCrear(autor));
+            }
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (Future<Long> resultado : hilos.invokeAll(tareas)) {
+            ids.add(resultado.get());
+        }
+        hilos.shutdown();
+
+        assertEquals(100, autorRepositorio.count());
+        assertEquals(100, ids.size());
+    }
+
+    @Test
+    void registraUnSoloAutorParaLasVariantesDelNombre() {
+        List<CacheAutores> caches = List.of(
+                new CacheAutores(autorRepositorio, 1_000),
+                new CacheAutores(autorRepositorio, 1_000));
+
+        Long id = caches.get(0).obtenerOCrear(autor("Austen, Jane"));
+
+        // Otra instancia, sin el autor en su caché, lo encuentra en la base de datos por el nombre normalizado
+        assertEquals(id, caches.get(1).obtenerOCrear(autor("  austen,   JANE")));
+        assertEquals(1, autorRepositorio.count());
+    }
+
+    @Test
+    void noGuardaEnLaCacheLosAutoresDeUnaTransaccionRevertida() {
+        CacheAutores cache = new CacheAutores(autorRepositorio, 1_000);
+
+        new TransactionTemplate(transacciones).executeWithoutResult(estado -> {
+            cache.obtenerOCrear(autor("Shelley, Mary"));
+            assertEquals(0, cache.tamano());
+            estado.setRollbackOnly();
+        });
+
+        assertEquals(0, cache.tamano());
+        assertEquals(0, autorRepositorio.count());
+
+        // Confirmada la transacción, el id sí pasa a la caché
+        Long id = new TransactionTemplate(transacciones).execute(estado -> cache.obtenerOCrear(autor("Shelley, Mary")));
+        assertEquals(1, cache.tamano());
+        assertEquals(autorRepositorio.findIdByNombreNormalizado("shelley, mary").orElseThrow(), id);
+    }
+
+    @Test
+    void resuelveDesdeMemoriaLosAutoresPrecargados() {
+        GutendexAutor autor = new GutendexAutor();
+        autor.setName("Cervantes Saavedra, Miguel de");
+        Long id = new CacheAutores(autorRepositorio, 1_000).obtenerOCrear(autor);
+
+        CacheAutores cache = new CacheAutores(autorRepositorio, 1_000);
+        cache.precargar();
+        autorRepositorio.deleteAllInBatch();
+
+        // Tras la precarga el id sale de la caché aunque la fila ya no esté
+        assertEquals(id, cache.obtenerOCrear(autor));
+    }
+
+    private static GutendexAutor autor(String nombre) {
+        GutendexAutor autor = new GutendexAutor();
+        autor.setName(nombre);
+        return autor;
+    }
+}
@@ -0,0 +1,149 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.configuracion.EscrituraPropiedades;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ColaEscrituraTest {
+    private final PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+    private final EscrituraPropiedades propiedades = new EscrituraPropiedades();
+    private ColaEscritura cola;
+
+    @AfterEach
+    void cerrar() throws InterruptedException {
+        if (cola != null) {
+            cola.destroy();
+        }
+    }
+
+    private static GutendexLibro libro(long id) {
+        GutendexLibro libro = new GutendexLibro();
+        libro.setId(id);
+        libro.setTitle("Libro " + id);
+        libro.setLanguages(List.of("es"));
+        return libro;
+    }
+
+    private static List<Libro> convertir(List<GutendexLibro> lote) {
+        return lote.stream().map(ConversorGutendex::aLibro).toList();
+    }
+
+    @Test
+    void guardaEnUnSoloLoteLosLibrosQueLleganMientrasSeEscribe() throws Exception {
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        List<Integer> tamanos = new ArrayList<>();
+        when(persistencia.guardarLote(anyList())).thenAnswer(invocacion -> {
+            List<GutendexLibro> lote = invocacion.getArgument(0);
+            tamanos.add(lote.size());
+            escribiendo.countDown();
+            continuar.await();
+            return convertir(lote);
+        });
+        cola = new ColaEscritura(persistencia, propiedades);
+        cola.iniciar();
+
+        List<CompletableFuture<Libro>> resultados = new ArrayList<>();
+        resultados.add(cola.encolar(libro(0)));
+        assertTrue(escribiendo.await(5, TimeUnit.SECONDS));
+        // Mientras el primero se guarda, llegan 50 más
+        for (int id = 1; id <= 50; id++) {
+            resultados.add(cola.encolar(libro(id)));
+        }
+        continuar.countDown();
+
+        for (int id = 0; id <= 50; id++) {
+            assertEquals("Libro " + id, resultados.get(id).get(5, TimeUnit.SECONDS).getTitulo());
+        }
+        assertEquals(List.of(1, 50), tamanos);
+    }
+
+    @Test
+    void reintentaLosErroresTransitorios() throws Exception {
+        propiedades.setEsperaReintento(Duration.ofMillis(1));
+        when(persistencia.guardarLote(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("conexión perdida"))
+                .thenAnswer(invocacion -> convertir(invocacion.getArgument(0)));
+        cola = new ColaEscritura(persistencia, propiedades);
+        cola.iniciar();
+
+        assertEquals("Libro 1", cola.encolar(libro(1)).get(5, TimeUnit.SECONDS).getTitulo());
+        verify(persistencia, times(2)).guardarLote(anyList());
+    }
+
+    @Test
+    void siElLoteNoSePuedeGuardarGuardaLosLibrosDeUnoEnUno() throws Exception {
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(persistencia.guardarLote(anyList())).thenAnswer(invocacion -> {
+            continuar.await();
+            throw new DataIntegrityViolationException("restricción");
+        });
+        when(persistencia.guardarLibro(any())).thenAnswer(invocacion -> {
+            GutendexLibro libro = invocacion.getArgument(0);
+            if (libro.getId() == 2) {
+                throw new DataIntegrityViolationException("libro 2");
+            }
+            return ConversorGutendex.aLibro(libro);
+        });
+        cola = new ColaEscritura(persistencia, propiedades);
+        cola.iniciar();
+
+        CompletableFuture<Libro> primero = cola.encolar(libro(1));
+        CompletableFuture<Libro> segundo = cola.encolar(libro(2));
+        continuar.countDown();
+
+        assertEquals("Libro 1", primero.get(5, TimeUnit.SECONDS).getTitulo());
+        CompletionException error = assertThrows(CompletionException.class, segundo::join);
+        assertInstanceOf(DataIntegrityViolationException.class, error.getCause());
+    }
+
+    @Test
+    void conLaColaLlenaRechazaPasadaLaEsperaMaxima() throws Exception {
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(persistencia.guardarLote(anyList())).thenAnswer(invocacion -> {
+            escribiendo.countDown();
+            continuar.await();
+            return convertir(invocacion.getArgument(0));
+        });
+        propiedades.setCapacidad(1);
+        propiedades.setEsperaMaxima(Duration.ofMillis(50));
+        cola = new ColaEscritura(persistencia, propiedades);
+        cola.iniciar();
+
+        cola.encolar(libro(1));
+        assertTrue(escribiendo.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Libro> enCola = cola.encolar(libro(2));
+        assertThrows(IllegalStateException.class, () -> cola.encolar(libro(3)));
+        assertThrows(IllegalArgumentException.class, () -> cola.encolar(new GutendexLibro()));
+
+        // Al cerrar se guarda lo que queda en la cola
+        continuar.countDown();
+        cola.destroy();
+        assertTrue(enCola.isDone());
+        assertEquals("Libro 2", enCola.join().getTitulo());
+    }
+}
@@ -0,0 +1,91 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EjecutorTareasTest {
+
+    private static EjecutorTareas ejecutor(boolean hilosVirtuales, int maxConcurrencia) {
+        EjecucionPropiedades propiedades = new EjecucionPropiedades();
+        propiedades.setHilosVirtuales(hilosVirtuales);
+        propiedades.setMaxConcurrencia(maxConcurrencia);
+        return new EjecutorTareas(propiedades);
+    }
+
+    @Test
+    void ejecutaCadaTareaEnUnHiloVirtual() throws Exception {
+        EjecutorTareas ejecutor = ejecutor(true, 10);
+        try {
+            assertTrue(ejecutor.enviar(() -> Thread.currentThread().isVirtual()).get());
+        } finally {
+            ejecutor.destroy();
+        }
+    }
+
+    @Test
+    void usaHilosDePlataformaPorDefecto() throws Exception {
+        EjecutorTareas ejecutor = new EjecutorTareas(new EjecucionPropiedades());
+        try {
+            assertFalse(ejecutor.usaHilosVirtuales());
+            assertFalse(ejecutor.enviar(() -> Thread.currentThread().isVirtual()).get());
+        } finally {
+            ejecutor.destroy();
+        }
+    }
+
+    @Test
+    void respetaElLimiteDeConcurrenciaConHilosVirtuales() {
+        EjecutorTareas ejecutor = ejecutor(true, 5);
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maxEnCurso = new AtomicInteger();
+        try {
+            List<CompletableFuture<Integer>> tareas = IntStream.range(0, 200)
+                    .mapToObj(i -> ejecutor.enviar(() -> {
+                        maxEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        enCurso.decrementAndGet();
+                        return i;
+                    }))
+                    .toList();
+            CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).join();
+
+            assertEquals(5, maxEnCurso.get());
+        } finally {
+            ejecutor.destroy();
+        }
+    }
+
+    @Test
+    void elSchedulerRespetaElLimiteDeConcurrenciaEnLosDosModos() {
+        for (boolean hilosVirtuales : new boolean[]{true, false}) {
+            EjecutorTareas ejecutor = ejecutor(hilosVirtuales, 4);
+            AtomicInteger enCurso = new AtomicInteger();
+            AtomicInteger maxEnCurso = new AtomicInteger();
+            try {
+                Flux.range(0, 100)
+                        .flatMap(i -> Mono.fromCallable(() -> {
+                            maxEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                            Thread.sleep(5);
+                            enCurso.decrementAndGet();
+                            return i;
+                        }).subscribeOn(ejecutor.scheduler()))
+                        .blockLast();
+
+                assertEquals(4, maxEnCurso.get(), hilosVirtuales ? "hilos virtuales" : "hilos de plataforma");
+            } finally {
+                ejecutor.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import com.aluracursos.LiterAlura.repositorio.AutorRepositorio;
+import com.aluracursos.LiterAlura.repositorio.LibroRepositorio;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Compara 1000 búsquedas concurrentes con buscarYRegistrarLibroAsync contra un Gutendex simulado
+// con 500 ms de latencia: un hilo de plataforma por búsqueda frente a un hilo virtual por búsqueda
+// Mide búsquedas/s, hilos de plataforma y memoria residente (VmRSS) del proceso
+// Se ejecuta con: mvn test -Pbenchmark -Dtest=HilosVirtualesBenchmarkTest
+
+@Tag("benchmark")
+class HilosVirtualesBenchmarkTest {
+    private static final int BUSQUEDAS = 1000;
+    private static final Duration LATENCIA = Duration.ofMillis(500);
+
+    @Test
+    void comparaHilosDePlataformaConHilosVirtuales() throws Exception {
+        // Calentamiento de la JVM, Netty y Jackson
+        medir("calentamiento", true, BUSQUEDAS);
+
+        System.out.println(medir("plataforma (1000 hilos)", false, BUSQUEDAS));
+        System.out.println(medir("virtuales (sin límite)", true, BUSQUEDAS));
+        Resultado limitado = medir("virtuales (límite 100)", true, 100);
+        System.out.println(limitado);
+
+        assertTrue(limitado.maxEnCurso() <= 100, "máximo en curso: " + limitado.maxEnCurso());
+    }
+
+    private static Resultado medir(String modo, boolean hilosVirtuales, int maxConcurrencia) throws Exception {
+        EjecucionPropiedades propiedades = new EjecucionPropiedades();
+        propiedades.setHilosVirtuales(hilosVirtuales);
+        propiedades.setMaxConcurrencia(maxConcurrencia);
+        EjecutorTareas ejecutor = new EjecutorTareas(propiedades);
+        ConnectionProvider conexiones = ConnectionProvider.builder("benchmark")
+                .maxConnections(BUSQUEDAS)
+                .pendingAcquireMaxCount(-1)
+                .build();
+
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(BUSQUEDAS)) {
+            servidor.setLatencia(LATENCIA);
+            LiteraturaServicio servicio = servicio(servidor, conexiones, ejecutor);
+            ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+            int hilosAntes = hilos.getThreadCount();
+            hilos.resetPeakThreadCount();
+            long rssAntes = memoriaResidente();
+            long rssMaxima = rssAntes;
+            long inicio = System.nanoTime();
+
+            List<CompletableFuture<Optional<com.aluracursos.LiterAlura.modelo.Libro>>> busquedas =
+                    IntStream.rangeClosed(1, BUSQUEDAS)
+                            .mapToObj(i -> servicio.buscarYRegistrarLibroAsync(ServidorGutendexSimulado.tituloLibro(i)))
+                            .toList();
+            CompletableFuture<Void> todas = CompletableFuture.allOf(busquedas.toArray(CompletableFuture[]::new));
+            while (!todas.isDone()) {
+                rssMaxima = Math.max(rssMaxima, memoriaResidente());
+                Thread.sleep(20);
+            }
+            todas.join();
+
+            Duration duracion = Duration.ofNanos(System.nanoTime() - inicio);
+            assertEquals(BUSQUEDAS, busquedas.stream().filter(b -> b.join().isPresent()).count());
+            return new Resultado(modo, duracion, hilos.getPeakThreadCount() - hilosAntes,
+                    (rssMaxima - rssAntes) / 1024, servidor.maxEnCurso());
+        } finally {
+            ejecutor.destroy();
+            conexiones.dispose();
+        }
+    }
+
+    // Servicio con repositorios y persistencia simulados; cada medición tiene su propia caché de Gutendex
+    private static LiteraturaServicio servicio(ServidorGutendexSimulado servidor, ConnectionProvider conexiones,
+                                               EjecutorTareas ejecutor) {
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(conexiones)))
+                .baseUrl(servidor.urlBase())
+                .build();
+        IndiceBusqueda indice = mock(IndiceBusqueda.class);
+        when(indice.existeTitulo(anyString())).thenReturn(false);
+        ColaEscritura colaEscritura = mock(ColaEscritura.class);
+        when(colaEscritura.encolar(any())).thenAnswer(invocacion -> CompletableFuture.completedFuture(
+                ConversorGutendex.aLibro(invocacion.<GutendexLibro>getArgument(0))));
+        return new LiteraturaServicio(mock(LibroRepositorio.class), mock(AutorRepositorio.class), null,
+                indice, new GutendexCliente(webClient, new GutendexPropiedades()), ejecutor, null, null, colaEscritura);
+    }
+
+    // Memoria residente del proceso en KB (solo Linux; 0 en otros sistemas)
+    private static long memoriaResidente() throws IOException {
+        Path estado = Path.of("/proc/self/status");
+        if (!Files.exists(estado)) {
+            return 0;
+        }
+        return Files.readAllLines(estado).stream()
+                .filter(linea -> linea.startsWith("VmRSS:"))
+                .mapToLong(linea -> Long.parseLong(linea.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(0);
+    }
+
+    private record Resultado(String modo, Duration duracion, int hilosNuevos, long rssMb, int maxEnCurso) {
+        @Override
+        public String toString() {
+            return String.format("%-24s %6d ms %6.0f búsquedas/s %5d hilos nuevos %5d MB RSS extra %5d en curso",
+                    modo, duracion.toMillis(), BUSQUEDAS / (duracion.toNanos() / 1e9), hilosNuevos, rssMb, maxEnCurso);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.configuracion.ImportacionPropiedades;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.repositorio.LibroRepositorio;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Importación del catálogo contra la base de datos real (H2), con libros en idiomas variados,
+// alguno con un código de idioma que no es ISO 639, y repitiendo la importación.
+// Con su propia base de datos para no dejar libros en la que comparten las demás pruebas
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importacion;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+class ImportacionCatalogoPersistenciaTest {
+    private static final int LIBROS = 100;
+
+    @Autowired
+    private PersistenciaLibrosServicio persistenciaLibros;
+
+    @Autowired
+    private LibroRepositorio libroRepositorio;
+
+    @Autowired
+    private EjecutorTareas ejecutorTareas;
+
+    @Autowired
+    private TransactionTemplate transaccion;
+
+    // Los ids 1, 11, 21... llevan además un código no válido y los 9, 19, 29... solo ese código
+    private static List<String> idiomas(int id) {
+        return switch (id % 10) {
+            case 0 -> List.of("de");
+            case 1 -> List.of("it", "en-gb");
+            case 2 -> List.of("nl", "en");
+            case 3 -> List.of("enm");
+            case 9 -> List.of("en-gb");
+            default -> List.of(id % 3 == 0 ? "es" : "fi");
+        };
+    }
+
+    @Test
+    void guardaTodosLosIdiomasYNoDuplicaAlRepetirLaImportacion() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(LIBROS)) {
+            servidor.setIdiomas(ImportacionCatalogoPersistenciaTest::idiomas);
+            ImportacionPropiedades propiedades = new ImportacionPropiedades();
+            propiedades.setTamanoLote(25);
+            ImportacionCatalogoServicio servicio = new ImportacionCatalogoServicio(
+                    new GutendexCliente(WebClient.builder().baseUrl(servidor.urlBase()).build(), new GutendexPropiedades()),
+                    persistenciaLibros, propiedades, ejecutorTareas);
+
+            var primera = servicio.importarCatalogo().block();
+            var segunda = servicio.importarCatalogo().block();
+
+            // Los 10 libros sin ningún idioma válido se omiten
+            assertEquals(LIBROS, primera.libros());
+            assertEquals(LIBROS - 10, primera.librosGuardados());
+            assertEquals(LIBROS, segunda.libros());
+            assertEquals(0, segunda.librosGuardados());
+            assertEquals(LIBROS - 10, libroRepositorio.count());
+
+            transaccion.executeWithoutResult(estado -> {
+                List<Libro> libros = libroRepositorio.findAll();
+                assertEquals(List.of("it"), idiomasDe(libros, 1));
+                assertEquals(List.of("nl", "en"), idiomasDe(libros, 2));
+                assertEquals(List.of("enm"), idiomasDe(libros, 3));
+                assertEquals(List.of("de"), idiomasDe(libros, 10));
+            });
+        }
+    }
+
+    private static List<String> idiomasDe(List<Libro> libros, long gutendexId) {
+        return libros.stream()
+                .filter(libro -> libro.getGutendexId() == gutendexId)
+                .findFirst()
+                .orElseThrow()
+                .getIdiomas();
+    }
+}
@@ -0,0 +1,73 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.configuracion.ImportacionPropiedades;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImportacionCatalogoServicioTest {
+
+    private static GutendexCliente cliente(ServidorGutendexSimulado servidor) {
+        return new GutendexCliente(WebClient.builder().baseUrl(servidor.urlBase()).build(), new GutendexPropiedades());
+    }
+
+    @Test
+    void importaTodasLasPaginasEnLotes() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(1000)) {
+            Set<Long> idsGuardados = ConcurrentHashMap.newKeySet();
+            PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+            when(persistencia.importarLote(anyList())).thenAnswer(invocacion -> {
+                List<GutendexLibro> lote = invocacion.getArgument(0);
+                lote.forEach(libro -> idsGuardados.add(libro.getId()));
+                return lote.stream().map(ConversorGutendex::aLibro).toList();
+            });
+
+            ImportacionPropiedades propiedades = new ImportacionPropiedades();
+            propiedades.setConcurrencia(4);
+            propiedades.setTamanoLote(100);
+
+            var servicio = new ImportacionCatalogoServicio(cliente(servidor), persistencia, propiedades,
+                    new EjecutorTareas(new EjecucionPropiedades()));
+            var resultado = servicio.importarCatalogo().block();
+
+            // 1000 libros en páginas de 32 = 32 páginas, una petición por página
+            assertEquals(32, resultado.paginas());
+            assertEquals(1000, resultado.libros());
+            assertEquals(1000, resultado.librosGuardados());
+            assertEquals(1000, idsGuardados.size());
+            assertEquals(32, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void respetaElLimiteDePaginas() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(1000)) {
+            PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+            when(persistencia.importarLote(anyList())).thenReturn(List.of());
+
+            ImportacionPropiedades propiedades = new ImportacionPropiedades();
+            propiedades.setMaxPaginas(3);
+
+            var servicio = new ImportacionCatalogoServicio(cliente(servidor), persistencia, propiedades,
+                    new EjecutorTareas(new EjecucionPropiedades()));
+            var resultado = servicio.importarCatalogo().block();
+
+            assertEquals(3, resultado.paginas());
+            assertEquals(96, resultado.libros());
+            assertEquals(3, servidor.peticiones());
+        }
+    }
+}
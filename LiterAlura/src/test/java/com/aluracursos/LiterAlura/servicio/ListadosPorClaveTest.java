@@ -0,0 +1,106 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.LibroResumen;
+import com.aluracursos.LiterAlura.modelo.dto.PaginaPorClave;
+import com.aluracursos.LiterAlura.repositorio.AutorRepositorio;
+import com.aluracursos.LiterAlura.repositorio.LibroRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Listados con paginación por clave y recorrido con cursor sobre H2
+// Cada prueba se ejecuta en una transacción que se deshace al terminar
+
+@DataJpaTest
+class ListadosPorClaveTest {
+
+    @Autowired
+    private LibroRepositorio libroRepositorio;
+
+    @Autowired
+    private AutorRepositorio autorRepositorio;
+
+    private LiteraturaServicio servicio;
+
+    @BeforeEach
+    void preparar() {
+        List<Libro> libros = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Libro libro = new Libro("Libro " + i, i % 5 == 0 ? "es" : "en", "Autor " + i, i);
+            // Tres libros en inglés también en latín
+            if (i % 10 == 3) {
+                libro.getIdiomas().add("la");
+            }
+            libros.add(libro);
+        }
+        libroRepositorio.saveAll(libros);
+        // Los listados por idioma salen del catálogo en memoria, que se carga desde la base de datos
+        IndiceBusqueda indice = new IndiceBusqueda(libroRepositorio, autorRepositorio);
+        indice.cargar();
+        servicio = new LiteraturaServicio(libroRepositorio, autorRepositorio, null, indice, null, null, null, null, null);
+    }
+
+    @Test
+    void recorreTodasLasPaginasSinRepetirNiSaltarLibros() {
+        List<LibroResumen> vistos = new ArrayList<>();
+        PaginaPorClave<LibroResumen> pagina = servicio.listarLibros(null, 10);
+        int paginas = 1;
+        vistos.addAll(pagina.elementos());
+        while (pagina.haySiguiente()) {
+            pagina = servicio.listarLibros(pagina.siguiente(), 10);
+            vistos.addAll(pagina.elementos());
+            paginas++;
+        }
+
+        assertEquals(3, paginas);
+        assertEquals(25, vistos.size());
+        for (int i = 1; i < vistos.size(); i++) {
+            assertTrue(vistos.get(i - 1).id() < vistos.get(i).id());
+        }
+    }
+
+    @Test
+    void paginaPorIdioma() {
+        PaginaPorClave<LibroResumen> primera = servicio.listarLibrosPorIdioma("es", null, 3);
+        assertEquals(3, primera.elementos().size());
+        assertTrue(primera.haySiguiente());
+
+        PaginaPorClave<LibroResumen> segunda = servicio.listarLibrosPorIdioma("es", primera.siguiente(), 3);
+        assertEquals(2, segunda.elementos().size());
+        assertFalse(segunda.haySiguiente());
+        assertTrue(segunda.elementos().stream().allMatch(libro -> libro.idioma().equals("es")));
+    }
+
+    @Test
+    void cuentaYListaLosLibrosPorCadaUnoDeSusIdiomas() {
+        assertEquals(Map.of("en", 20L, "es", 5L, "la", 3L), servicio.contarLibrosPorIdioma());
+        assertEquals(List.of("en", "es", "la"), List.copyOf(servicio.contarLibrosPorIdioma().keySet()));
+
+        List<LibroResumen> latin = servicio.listarLibrosPorIdioma("la", null, 10).elementos();
+        assertEquals(List.of("Libro 3", "Libro 13", "Libro 23"), latin.stream().map(LibroResumen::titulo).toList());
+        // El idioma de los resúmenes es el principal
+        assertTrue(latin.stream().allMatch(libro -> libro.idioma().equals("en")));
+        assertEquals(3, servicio.recorrerLibrosPorIdioma("la", libro -> { }));
+    }
+
+    @Test
+    void recorreConCursor() {
+        List<String> titulos = new ArrayList<>();
+        long total = servicio.recorrerLibros(libro -> titulos.add(libro.titulo()));
+
+        assertEquals(25, total);
+        assertEquals("Libro 0", titulos.get(0));
+        assertEquals(5, servicio.recorrerLibrosPorIdioma("es", libro -> { }));
+    }
+}
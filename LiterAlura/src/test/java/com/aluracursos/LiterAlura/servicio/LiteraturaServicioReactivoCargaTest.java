@@ -0,0 +1,97 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.EscrituraPropiedades;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Prueba de carga de la API reactiva contra un Gutendex simulado con 1 s de latencia:
+// cientos de búsquedas deben quedar en curso a la vez, muchas más que hilos tiene el scheduler de JPA,
+// sin crear un hilo por búsqueda
+
+class LiteraturaServicioReactivoCargaTest {
+    private static final int BUSQUEDAS = 300;
+    private static final Duration LATENCIA = Duration.ofSeconds(1);
+
+    @Test
+    void mantieneCientosDeBusquedasEnCursoConPocosHilos() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(BUSQUEDAS + 1)) {
+            servidor.setLatencia(LATENCIA);
+
+            ConnectionProvider conexiones = ConnectionProvider.builder("carga")
+                    .maxConnections(BUSQUEDAS)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            WebClient webClient = WebClient.builder()
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(conexiones)))
+                    .baseUrl(servidor.urlBase())
+                    .build();
+
+            IndiceBusqueda indice = mock(IndiceBusqueda.class);
+            when(indice.existeTitulo(anyString())).thenReturn(false);
+            PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+            when(persistencia.guardarLote(anyList())).thenAnswer(invocacion -> {
+                // Simula el coste de una transacción JDBC
+                Thread.sleep(2);
+                return invocacion.<List<GutendexLibro>>getArgument(0).stream().map(ConversorGutendex::aLibro).toList();
+            });
+            ColaEscritura cola = new ColaEscritura(persistencia, new EscrituraPropiedades());
+            cola.iniciar();
+            Scheduler jpa = Schedulers.newBoundedElastic(10, 10_000, "jpa-carga");
+
+            var servicio = new LiteraturaServicioReactivo(mock(LiteraturaServicio.class), cola, indice,
+                    new GutendexCliente(webClient, new GutendexPropiedades()), jpa);
+
+            // Calentamiento: inicializa Netty, Jackson y los mocks antes de medir
+            servicio.buscarYRegistrarLibro(ServidorGutendexSimulado.tituloLibro(BUSQUEDAS + 1)).block();
+
+            ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+            int hilosAntes = hilos.getThreadCount();
+            hilos.resetPeakThreadCount();
+            long inicio = System.nanoTime();
+
+            List<Libro> libros = Flux.range(1, BUSQUEDAS)
+                    .flatMap(i -> servicio.buscarYRegistrarLibro(ServidorGutendexSimulado.tituloLibro(i)), BUSQUEDAS)
+                    .collectList()
+                    .block();
+
+            Duration duracion = Duration.ofNanos(System.nanoTime() - inicio);
+            int hilosNuevos = hilos.getPeakThreadCount() - hilosAntes;
+            System.out.printf("%d búsquedas en %d ms (%.0f/s), máximo en curso en Gutendex: %d, hilos nuevos: %d%n",
+                    BUSQUEDAS, duracion.toMillis(), BUSQUEDAS / (duracion.toNanos() / 1e9),
+                    servidor.maxEnCurso(), hilosNuevos);
+            cola.destroy();
+            jpa.dispose();
+            conexiones.dispose();
+
+            assertEquals(BUSQUEDAS, libros.size());
+            // Secuencialmente serían 300 x 1 s = 300 s
+            assertTrue(duracion.compareTo(LATENCIA.multipliedBy(15)) < 0, "duración: " + duracion);
+            assertTrue(servidor.maxEnCurso() >= 100, "máximo en curso: " + servidor.maxEnCurso());
+            assertTrue(hilosNuevos < 100, "hilos nuevos: " + hilosNuevos);
+        }
+    }
+}
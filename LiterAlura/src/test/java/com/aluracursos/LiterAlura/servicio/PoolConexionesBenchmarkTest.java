@@ -0,0 +1,183 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Uso del pool de Hikari (10 conexiones) con 64 registros a la vez contra un Gutendex simulado con 100 ms
+// de latencia: la transacción abierta durante la petición HTTP, como hacía buscarYRegistrarLibro,
+// frente a la búsqueda sin transacción y el guardado desde ColaEscritura
+// Mide el tiempo que se retiene cada conexión (hikaricp.connections.usage), las conexiones activas y
+// los hilos esperando una conexión (muestreados cada 5 ms) y los registros por segundo
+// Se ejecuta con: mvn test -Pbenchmark -Dtest=PoolConexionesBenchmarkTest
+
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.datasource.hikari.maximum-pool-size=10", "literalura.gutendex.http2=false"})
+class PoolConexionesBenchmarkTest {
+    private static final int HILOS = 64;
+    private static final int REGISTROS = 200;
+    private static final Duration LATENCIA = Duration.ofMillis(100);
+    private static final ServidorGutendexSimulado SERVIDOR = iniciarServidor();
+
+    @Autowired
+    private LiteraturaServicio literaturaServicio;
+
+    @Autowired
+    private GutendexCliente gutendexCliente;
+
+    @Autowired
+    private PersistenciaLibrosServicio persistenciaLibros;
+
+    @Autowired
+    private TransactionTemplate transacciones;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    private static ServidorGutendexSimulado iniciarServidor() {
+        try {
+            ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(600);
+            servidor.setLatencia(LATENCIA);
+            return servidor;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void gutendex(DynamicPropertyRegistry propiedades) {
+        propiedades.add("literalura.gutendex.url-base", SERVIDOR::urlBase);
+    }
+
+    @AfterAll
+    static void cerrar() {
+        SERVIDOR.close();
+    }
+
+    @Test
+    void laColaDeEscrituraRetieneCadaConexionMilisegundos() throws Exception {
+        // Calentamiento; los títulos tienen tres cifras para que ninguno contenga a otro
+        medir("calentamiento", 500, HILOS, this::registrar);
+
+        Medicion antes = medir("transacción durante la petición", 100, REGISTROS, titulo -> transacciones.executeWithoutResult(
+                estado -> persistenciaLibros.guardarLibro(gutendexCliente.buscarPrimero(titulo).block())));
+        Medicion despues = medir("cola de escritura", 300, REGISTROS, this::registrar);
+        System.out.println(antes);
+        System.out.println(despues);
+
+        assertTrue(despues.retencionMediaMs() < antes.retencionMediaMs(), antes + " / " + despues);
+    }
+
+    private void registrar(String titulo) {
+        literaturaServicio.buscarYRegistrarLibro(titulo);
+    }
+
+    private Medicion medir(String modo, int primerId, int cantidad, Consumer<String> registrar) throws Exception {
+        List<String> titulos = IntStream.range(primerId, primerId + cantidad)
+                .mapToObj(ServidorGutendexSimulado::tituloLibro)
+                .toList();
+        Timer retencion = registro.get("hikaricp.connections.usage").timer();
+        long usosAntes = retencion.count();
+        double totalAntesMs = retencion.totalTime(TimeUnit.MILLISECONDS);
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        Muestreo muestreo = new Muestreo(pool);
+        Thread muestreador = Thread.ofPlatform().daemon().start(muestreo);
+
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newFixedThreadPool(HILOS)) {
+            List<Future<?>> tareas = titulos.stream()
+                    .<Future<?>>map(titulo -> hilos.submit(() -> registrar.accept(titulo)))
+                    .toList();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        Duration duracion = Duration.ofNanos(System.nanoTime() - inicio);
+        muestreador.interrupt();
+        muestreador.join();
+
+        long usos = retencion.count() - usosAntes;
+        double retencionMediaMs = (retencion.totalTime(TimeUnit.MILLISECONDS) - totalAntesMs) / Math.max(1, usos);
+        return new Medicion(modo, titulos.size(), duracion, usos, retencionMediaMs,
+                muestreo.mediaActivas(), muestreo.maxActivas, muestreo.mediaEsperando(), muestreo.maxEsperando);
+    }
+
+    private static final class Muestreo implements Runnable {
+        private final HikariPoolMXBean pool;
+        private long muestras;
+        private long activas;
+        private long esperando;
+        private volatile int maxActivas;
+        private volatile int maxEsperando;
+
+        Muestreo(HikariPoolMXBean pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                int activasAhora = pool.getActiveConnections();
+                int esperandoAhora = pool.getThreadsAwaitingConnection();
+                synchronized (this) {
+                    muestras++;
+                    activas += activasAhora;
+                    esperando += esperandoAhora;
+                }
+                maxActivas = Math.max(maxActivas, activasAhora);
+                maxEsperando = Math.max(maxEsperando, esperandoAhora);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        synchronized double mediaActivas() {
+            return muestras == 0 ? 0 : (double) activas / muestras;
+        }
+
+        synchronized double mediaEsperando() {
+            return muestras == 0 ? 0 : (double) esperando / muestras;
+        }
+    }
+
+    private record Medicion(String modo, int registros, Duration duracion, long usos, double retencionMediaMs,
+                            double mediaActivas, int maxActivas, double mediaEsperando, int maxEsperando) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d registros en %d ms (%.0f/s), %d usos de conexión de %.1f ms de media, "
+                            + "conexiones activas %.1f de media (máx. %d), hilos esperando conexión %.1f de media (máx. %d)",
+                    modo, registros, duracion.toMillis(), registros * 1000.0 / duracion.toMillis(), usos,
+                    retencionMediaMs, mediaActivas, maxActivas, mediaEsperando, maxEsperando);
+        }
+    }
+}
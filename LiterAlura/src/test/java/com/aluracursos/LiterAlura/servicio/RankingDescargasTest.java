@@ -0,0 +1,83 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.configuracion.RankingPropiedades;
+import com.aluracursos.LiterAlura.servicio.LiteraturaServicio.LibroPopular;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankingDescargasTest {
+
+    private static RankingDescargas ranking(ServidorGutendexSimulado servidor, int tamano) {
+        GutendexPropiedades gutendex = new GutendexPropiedades();
+        gutendex.getReintentos().setMaxIntentos(1);
+        RankingPropiedades propiedades = new RankingPropiedades();
+        propiedades.setTamano(tamano);
+        propiedades.setIdiomas(List.of("es"));
+        return new RankingDescargas(new GutendexCliente(
+                WebClient.builder().baseUrl(servidor.urlBase()).build(), gutendex), propiedades);
+    }
+
+    private static List<String> titulos(List<LibroPopular> libros) {
+        return libros.stream().map(LibroPopular::getTitulo).toList();
+    }
+
+    @Test
+    void guardaElRankingGeneralYPorIdiomaYLoSirveSinPeticiones() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(1000)) {
+            RankingDescargas ranking = ranking(servidor, 40);
+            ranking.actualizar().block();
+            // 40 libros son dos páginas de 32 en cada ranking
+            assertEquals(4, servidor.peticiones());
+
+            List<LibroPopular> general = ranking.top(null, 40);
+            assertEquals(40, general.size());
+            assertEquals(9_999, general.get(0).getDescargas());
+            for (int i = 1; i < general.size(); i++) {
+                assertTrue(general.get(i - 1).getDescargas() >= general.get(i).getDescargas());
+            }
+            assertEquals(List.of("Libro de prueba 3", "Libro de prueba 6", "Libro de prueba 9"),
+                    titulos(ranking.top("es", 3)));
+            assertEquals(List.of(), ranking.top("fr", 3));
+            assertEquals(4, servidor.peticiones());
+        }
+    }
+
+    @Test
+    void noSirveMasLibrosDeLosGuardadosNiAntesDeLaPrimeraActualizacion() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            RankingDescargas ranking = ranking(servidor, 10);
+            assertThrows(RankingNoDisponibleException.class, () -> ranking.top(null, 10));
+            assertThrows(RankingNoDisponibleException.class, () -> ranking.top("es", 10));
+
+            ranking.actualizar().block();
+
+            assertEquals(10, ranking.top(null, 10).size());
+            assertThrows(IllegalArgumentException.class, () -> ranking.top(null, 50));
+            assertThrows(IllegalArgumentException.class, () -> ranking.top(null, 0));
+        }
+    }
+
+    @Test
+    void siLaActualizacionFallaSigueElRankingAnterior() throws Exception {
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(100)) {
+            RankingDescargas ranking = ranking(servidor, 10);
+            ranking.actualizar().block();
+            List<LibroPopular> anterior = ranking.top(null, 10);
+
+            servidor.fallarProximas(2, 503);
+            ranking.actualizar().block();
+
+            assertEquals(anterior, ranking.top(null, 10));
+            assertEquals(titulos(anterior).subList(0, 5), titulos(ranking.top("", 5)));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// buscarYRegistrarLibro distingue un libro no válido de una cola de escritura que no lo admite
+
+class RegistroLibroErroresTest {
+    private final GutendexCliente cliente = mock(GutendexCliente.class);
+    private final ColaEscritura cola = mock(ColaEscritura.class);
+    private LiteraturaServicio servicio;
+
+    @BeforeEach
+    void preparar() {
+        GutendexLibro libro = new GutendexLibro();
+        libro.setId(1L);
+        when(cliente.buscarPrimero("Emma")).thenReturn(Mono.just(libro));
+        servicio = new LiteraturaServicio(null, null, null, mock(IndiceBusqueda.class), cliente, null, null, null, cola);
+    }
+
+    @Test
+    void unLibroNoValidoSeInformaComoTal() {
+        when(cola.encolar(any())).thenThrow(new IllegalArgumentException("El título del libro no puede estar vacío."));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> servicio.buscarYRegistrarLibro("Emma"));
+        assertEquals("El título del libro no puede estar vacío.", error.getMessage());
+    }
+
+    @Test
+    void conLaColaLlenaSePideReintentarElRegistro() {
+        when(cola.encolar(any())).thenThrow(new IllegalStateException("La cola de escritura está llena"));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> servicio.buscarYRegistrarLibro("Emma"));
+        assertEquals("No se pudo registrar el libro. Por favor, intente de nuevo.", error.getMessage());
+    }
+}
@@ -0,0 +1,121 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.configuracion.RegistroPropiedades;
+import com.aluracursos.LiterAlura.modelo.dto.ResultadoRegistro;
+import com.aluracursos.LiterAlura.modelo.dto.ResultadoRegistro.Estado;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Registra 5000 títulos (más un 10 % de repetidos) contra un Gutendex simulado con 20 ms de latencia
+// y una escritura simulada de 2 ms por transacción: buscarYRegistrarLibros frente a llamar a
+// buscarYRegistrarLibro una vez por título (con 500 títulos, el tiempo total se extrapola)
+// Se ejecuta con: mvn test -Pbenchmark -Dtest=RegistroVariosLibrosBenchmarkTest
+
+@Tag("benchmark")
+class RegistroVariosLibrosBenchmarkTest {
+    private static final int TITULOS = 5000;
+    private static final int TITULOS_UNO_A_UNO = 500;
+    private static final Duration LATENCIA = Duration.ofMillis(20);
+    private static final long ESCRITURA_MS = 2;
+
+    @Test
+    void comparaElRegistroPorLotesConElRegistroUnoAUno() throws Exception {
+        List<String> titulos = IntStream.rangeClosed(1, TITULOS + TITULOS / 10)
+                .mapToObj(i -> i <= TITULOS ? ServidorGutendexSimulado.tituloLibro(i)
+                        : ServidorGutendexSimulado.tituloLibro(i - TITULOS).toUpperCase())
+                .toList();
+        EjecutorTareas ejecutor = new EjecutorTareas(new EjecucionPropiedades());
+        AtomicInteger transacciones = new AtomicInteger();
+
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(TITULOS)) {
+            servidor.setLatencia(LATENCIA);
+            LiteraturaServicio servicio = servicio(servidor, ejecutor, transacciones);
+
+            // Calentamiento de la JVM, Netty y Jackson
+            servicio.buscarYRegistrarLibros(titulos.subList(0, 200));
+            transacciones.set(0);
+
+            long inicio = System.nanoTime();
+            List<ResultadoRegistro> resultados = servicio.buscarYRegistrarLibros(titulos);
+            Duration porLotes = Duration.ofNanos(System.nanoTime() - inicio);
+            int transaccionesPorLotes = transacciones.getAndSet(0);
+
+            inicio = System.nanoTime();
+            for (String titulo : titulos.subList(0, TITULOS_UNO_A_UNO)) {
+                servicio.buscarYRegistrarLibro(titulo);
+            }
+            Duration unoAUno = Duration.ofNanos(System.nanoTime() - inicio)
+                    .multipliedBy(titulos.size()).dividedBy(TITULOS_UNO_A_UNO);
+
+            Map<Estado, Long> porEstado = resultados.stream()
+                    .collect(Collectors.groupingBy(ResultadoRegistro::estado, Collectors.counting()));
+            System.out.printf("por lotes:  %d títulos en %d ms (%.0f títulos/s), %d transacciones, "
+                            + "%d búsquedas a la vez como máximo, %s%n",
+                    titulos.size(), porLotes.toMillis(), titulos.size() * 1000.0 / porLotes.toMillis(),
+                    transaccionesPorLotes, servidor.maxEnCurso(), porEstado);
+            System.out.printf("uno a uno:  %d títulos en ~%d ms (%.0f títulos/s, medido con %d)%n",
+                    titulos.size(), unoAUno.toMillis(), titulos.size() * 1000.0 / unoAUno.toMillis(),
+                    TITULOS_UNO_A_UNO);
+
+            assertEquals((long) TITULOS, porEstado.get(Estado.REGISTRADO));
+            assertEquals((long) TITULOS / 10, porEstado.get(Estado.DUPLICADO));
+            assertTrue(porLotes.compareTo(unoAUno) < 0, porLotes + " frente a " + unoAUno);
+        } finally {
+            ejecutor.destroy();
+        }
+    }
+
+    // Persistencia simulada con un coste fijo por transacción; ningún título está registrado de antemano
+    private static LiteraturaServicio servicio(ServidorGutendexSimulado servidor, EjecutorTareas ejecutor,
+                                               AtomicInteger transacciones) {
+        PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+        when(persistencia.guardarLote(anyList())).thenAnswer(invocacion ->
+                escribir(transacciones, () -> invocacion.<List<GutendexLibro>>getArgument(0).stream()
+                        .map(ConversorGutendex::aLibro).toList()));
+        // Uno a uno cada libro se guarda en su propia transacción
+        ColaEscritura colaEscritura = mock(ColaEscritura.class);
+        when(colaEscritura.encolar(any())).thenAnswer(invocacion -> CompletableFuture.completedFuture(
+                escribir(transacciones, () -> ConversorGutendex.aLibro(invocacion.getArgument(0)))));
+        IndiceBusqueda indice = mock(IndiceBusqueda.class);
+        when(indice.existeTitulo(anyString())).thenReturn(false);
+        when(indice.titulosExistentes(anyCollection())).thenReturn(Set.of());
+
+        GutendexCliente cliente = new GutendexCliente(
+                WebClient.builder().baseUrl(servidor.urlBase()).build(), new GutendexPropiedades());
+        return new LiteraturaServicio(null, null, persistencia, indice, cliente, ejecutor, null,
+                new RegistroPropiedades(), colaEscritura);
+    }
+
+    private static <T> T escribir(AtomicInteger transacciones, Supplier<T> escritura)
+            throws InterruptedException {
+        transacciones.incrementAndGet();
+        Thread.sleep(ESCRITURA_MS);
+        return escritura.get();
+    }
+}
@@ -0,0 +1,124 @@
+package com.aluracursos.LiterAlura.servicio;
+
+import com.aluracursos.LiterAlura.ServidorGutendexSimulado;
+import com.aluracursos.LiterAlura.busqueda.IndiceBusqueda;
+import com.aluracursos.LiterAlura.cliente.GutendexCliente;
+import com.aluracursos.LiterAlura.configuracion.EjecucionPropiedades;
+import com.aluracursos.LiterAlura.configuracion.GutendexPropiedades;
+import com.aluracursos.LiterAlura.configuracion.RegistroPropiedades;
+import com.aluracursos.LiterAlura.modelo.Libro;
+import com.aluracursos.LiterAlura.modelo.dto.ResultadoRegistro;
+import com.aluracursos.LiterAlura.modelo.dto.ResultadoRegistro.Estado;
+import com.aluracursos.LiterAlura.modelo.gutendex.GutendexLibro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegistroVariosLibrosTest {
+    private final EjecutorTareas ejecutor = new EjecutorTareas(new EjecucionPropiedades());
+    private final PersistenciaLibrosServicio persistencia = mock(PersistenciaLibrosServicio.class);
+    private final IndiceBusqueda indice = mock(IndiceBusqueda.class);
+    private final AtomicLong ids = new AtomicLong();
+
+    @AfterEach
+    void cerrar() {
+        ejecutor.destroy();
+    }
+
+    // Los libros "guardados" reciben ids consecutivos
+    private Libro guardado(GutendexLibro gutendexLibro) {
+        Libro libro = ConversorGutendex.aLibro(gutendexLibro);
+        libro.setId(ids.incrementAndGet());
+        return libro;
+    }
+
+    private LiteraturaServicio servicio(ServidorGutendexSimulado servidor, Set<String> registrados) {
+        when(indice.titulosExistentes(anyCollection())).thenAnswer(invocacion ->
+                invocacion.<Collection<String>>getArgument(0).stream()
+                        .filter(registrados::contains)
+                        .collect(Collectors.toSet()));
+        RegistroPropiedades propiedades = new RegistroPropiedades();
+        propiedades.setConcurrencia(4);
+        propiedades.setTamanoLote(10);
+        GutendexCliente cliente = new GutendexCliente(
+                WebClient.builder().baseUrl(servidor.urlBase()).build(), new GutendexPropiedades());
+        return new LiteraturaServicio(null, null, persistencia, indice, cliente, ejecutor, null, propiedades, null);
+    }
+
+    @Test
+    void devuelveUnResultadoPorTituloYBuscaCadaTituloUnaSolaVez() throws Exception {
+        when(persistencia.guardarLote(anyList())).thenAnswer(invocacion ->
+                invocacion.<List<GutendexLibro>>getArgument(0).stream().map(this::guardado).toList());
+        List<String> titulos = new ArrayList<>();
+        for (int id = 1; id <= 25; id++) {
+            titulos.add(ServidorGutendexSimulado.tituloLibro(id));
+        }
+        titulos.add("LIBRO DE PRUEBA 1");
+        titulos.add("  ");
+        titulos.add("Libro inexistente");
+
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(25)) {
+            List<ResultadoRegistro> resultados = servicio(servidor, Set.of("libro de prueba 2")).buscarYRegistrarLibros(titulos);
+
+            assertEquals(titulos.size(), resultados.size());
+            assertEquals(Estado.REGISTRADO, resultados.get(0).estado());
+            assertEquals("Libro de prueba 1", resultados.get(0).libro().titulo());
+            assertEquals(Estado.DUPLICADO, resultados.get(1).estado());
+            assertNull(resultados.get(1).libro());
+            assertEquals(Estado.DUPLICADO, resultados.get(25).estado());
+            assertEquals(Estado.ERROR, resultados.get(26).estado());
+            assertEquals(Estado.NO_ENCONTRADO, resultados.get(27).estado());
+            assertEquals(24, resultados.stream().filter(r -> r.estado() == Estado.REGISTRADO).count());
+            for (int i = 0; i < titulos.size(); i++) {
+                assertEquals(titulos.get(i), resultados.get(i).titulo());
+            }
+            // Ni el repetido, ni el vacío, ni el ya registrado llegan a Gutendex (24 libros y el inexistente)
+            assertEquals(25, servidor.peticiones());
+            assertTrue(servidor.maxEnCurso() <= 4, "máximo en curso: " + servidor.maxEnCurso());
+        }
+        // 24 libros en lotes de 10
+        verify(persistencia, times(3)).guardarLote(anyList());
+    }
+
+    @Test
+    void siFallaUnLoteGuardaSusLibrosDeUnoEnUno() throws Exception {
+        when(persistencia.guardarLote(anyList())).thenThrow(new IllegalStateException("lote inválido"));
+        when(persistencia.guardarLibro(any())).thenAnswer(invocacion -> {
+            GutendexLibro libro = invocacion.getArgument(0);
+            if (libro.getId() == 3) {
+                throw new IllegalStateException("idioma inválido");
+            }
+            return guardado(libro);
+        });
+        List<String> titulos = List.of(ServidorGutendexSimulado.tituloLibro(1),
+                ServidorGutendexSimulado.tituloLibro(2), ServidorGutendexSimulado.tituloLibro(3));
+
+        try (ServidorGutendexSimulado servidor = new ServidorGutendexSimulado(3)) {
+            List<ResultadoRegistro> resultados = servicio(servidor, Set.of()).buscarYRegistrarLibros(titulos);
+
+            assertEquals(Estado.REGISTRADO, resultados.get(0).estado());
+            assertEquals(Estado.REGISTRADO, resultados.get(1).estado());
+            assertEquals(Estado.ERROR, resultados.get(2).estado());
+            assertEquals("idioma inválido", resultados.get(2).error());
+        }
+        verify(persistencia, times(3)).guardarLibro(any());
+    }
+}